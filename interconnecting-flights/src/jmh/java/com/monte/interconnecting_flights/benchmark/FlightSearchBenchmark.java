@@ -0,0 +1,83 @@
+package com.monte.interconnecting_flights.benchmark;
+
+import com.monte.interconnecting_flights.application.service.FlightService;
+import com.monte.interconnecting_flights.domain.model.FlightResponse;
+import com.monte.interconnecting_flights.domain.model.RouteGraph;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link FlightService#findFlights} over a {@link SyntheticNetwork} whose schedules are
+ * already in memory: route filtering, the route graph, stopover discovery and
+ * connection pairing, without any I/O.
+ * <p>
+ * Throughput and sampled latency per search; add {@code -prof gc} for the allocation
+ * rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlightSearchBenchmark {
+
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2025, 3, 3, 0, 0);
+
+    @Param({"200"})
+    private int airports;
+
+    @Param({"20", "60"})
+    private int hubDegree;
+
+    @Param({"4", "12"})
+    private int flightsPerDay;
+
+    @Param({"1", "7"})
+    private int windowDays;
+
+    private SyntheticNetwork network;
+    private FlightService flightService;
+    private LocalDateTime windowEnd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        network = new SyntheticNetwork(airports, hubDegree, flightsPerDay);
+        flightService = new FlightService(network.routesPort(), network.schedulesPort());
+        windowEnd = WINDOW_START.plusDays(windowDays);
+        // Generate every schedule month the searches need before measuring
+        flightService.findFlights(network.origin(), network.destination(), WINDOW_START, windowEnd, 2);
+    }
+
+    @Benchmark
+    public List<FlightResponse> oneStop() {
+        return flightService.findFlights(network.origin(), network.destination(), WINDOW_START, windowEnd);
+    }
+
+    @Benchmark
+    public List<FlightResponse> twoStops() {
+        return flightService.findFlights(network.origin(), network.destination(), WINDOW_START, windowEnd, 2);
+    }
+
+    /**
+     * Cost of indexing a new routes snapshot, which searches pay once per refresh.
+     */
+    @Benchmark
+    public RouteGraph routeFiltering() {
+        return RouteGraph.from(network.routes());
+    }
+}
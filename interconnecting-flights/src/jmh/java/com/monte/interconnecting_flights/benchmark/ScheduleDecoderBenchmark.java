@@ -0,0 +1,53 @@
+package com.monte.interconnecting_flights.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.infrastructure.adapter.client.ScheduleDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding one month of the Schedules API payload into a {@link MonthSchedule}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleDecoderBenchmark {
+
+    @Param({"4", "12"})
+    private int flightsPerDay;
+
+    private ScheduleDecoder decoder;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticNetwork network = new SyntheticNetwork(10, 4, flightsPerDay);
+        decoder = new ScheduleDecoder(new JsonFactory());
+        body = network.monthJson(network.origin(), network.destination(), 2025, 3)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public MonthSchedule decodeMonth() throws IOException {
+        return decoder.decode(new ByteArrayInputStream(body), 2025, 3);
+    }
+}
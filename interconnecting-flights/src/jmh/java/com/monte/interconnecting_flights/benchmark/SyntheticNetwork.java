@@ -0,0 +1,168 @@
+package com.monte.interconnecting_flights.benchmark;
+
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.domain.port.outbound.RoutesPort;
+import com.monte.interconnecting_flights.domain.port.outbound.SchedulesPort;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deterministic hub-and-spoke network served by in-memory {@link RoutesPort} and
+ * {@link SchedulesPort} fakes, so benchmarks measure the search and nothing else.
+ * <p>
+ * Hubs are fully connected; each hub also serves {@code hubDegree} spokes in both
+ * directions. One route in twenty belongs to another operator or has a connecting
+ * airport, so route filtering has something to drop. Every route flies
+ * {@code flightsPerDay} times a day, every day.
+ */
+final class SyntheticNetwork {
+
+    private static final long SEED = 42;
+
+    private final List<Map<String, String>> routes = new ArrayList<>();
+    private final int flightsPerDay;
+    private final Map<ScheduleKey, MonthSchedule> schedules = new ConcurrentHashMap<>();
+    private final String origin;
+    private final String destination;
+
+    SyntheticNetwork(int airports, int hubDegree, int flightsPerDay) {
+        if (airports < 4 || hubDegree < 2 || flightsPerDay < 1) {
+            throw new IllegalArgumentException("Need at least 4 airports, hub degree 2 and 1 flight per day");
+        }
+        this.flightsPerDay = flightsPerDay;
+        Random random = new Random(SEED);
+
+        int hubs = Math.max(2, airports / hubDegree);
+        List<String> spokes = new ArrayList<>();
+        for (int i = hubs; i < airports; i++) {
+            spokes.add(code(i));
+        }
+        int degree = Math.min(hubDegree, spokes.size());
+
+        List<String> firstHubSpokes = null;
+        for (int hub = 0; hub < hubs; hub++) {
+            for (int other = 0; other < hubs; other++) {
+                if (other != hub) {
+                    addRoute(code(hub), code(other), random);
+                }
+            }
+            Collections.shuffle(spokes, random);
+            List<String> served = new ArrayList<>(spokes.subList(0, degree));
+            for (String spoke : served) {
+                addRoute(code(hub), spoke, random);
+                addRoute(spoke, code(hub), random);
+            }
+            if (firstHubSpokes == null) {
+                firstHubSpokes = served;
+            }
+        }
+        // Two spokes of the same hub: every search has one-stop results through it
+        this.origin = firstHubSpokes.get(0);
+        this.destination = firstHubSpokes.get(1);
+    }
+
+    RoutesPort routesPort() {
+        return () -> routes;
+    }
+
+    /**
+     * Schedules are generated on first use and then served from memory.
+     */
+    SchedulesPort schedulesPort() {
+        return (departure, arrival, year, month) ->
+                schedules.computeIfAbsent(new ScheduleKey(departure, arrival, year, month), this::generate);
+    }
+
+    List<Map<String, String>> routes() {
+        return routes;
+    }
+
+    String origin() {
+        return origin;
+    }
+
+    String destination() {
+        return destination;
+    }
+
+    /**
+     * Schedules API payload for one month of a route, with the extra fields the real API sends.
+     */
+    String monthJson(String from, String to, int year, int month) {
+        StringBuilder json = new StringBuilder(64 * flightsPerDay * 31);
+        json.append("{\"month\":").append(month).append(",\"days\":[");
+        int days = YearMonth.of(year, month).lengthOfMonth();
+        for (int day = 1; day <= days; day++) {
+            json.append(day > 1 ? "," : "").append("{\"day\":").append(day).append(",\"flights\":[");
+            for (int i = 0; i < flightsPerDay; i++) {
+                int departure = departureMinute(from, to, i);
+                int arrival = (departure + durationMinutes(from, to)) % (24 * 60);
+                json.append(i > 0 ? "," : "")
+                        .append("{\"carrierCode\":\"FR\",\"number\":\"").append(1000 + i)
+                        .append("\",\"departureTime\":\"").append(time(departure))
+                        .append("\",\"arrivalTime\":\"").append(time(arrival)).append("\"}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private MonthSchedule generate(ScheduleKey key) {
+        MonthSchedule.Builder builder = MonthSchedule.builder(key.getYear(), key.getMonth());
+        int days = YearMonth.of(key.getYear(), key.getMonth()).lengthOfMonth();
+        int duration = durationMinutes(key.getDeparture(), key.getArrival());
+        for (int day = 1; day <= days; day++) {
+            for (int i = 0; i < flightsPerDay; i++) {
+                int departure = departureMinute(key.getDeparture(), key.getArrival(), i);
+                builder.add(day, departure, (departure + duration) % (24 * 60));
+            }
+        }
+        return builder.build();
+    }
+
+    private void addRoute(String from, String to, Random random) {
+        Map<String, String> route = new HashMap<>();
+        route.put("airportFrom", from);
+        route.put("airportTo", to);
+        route.put("connectingAirport", null);
+        route.put("operator", "RYANAIR");
+        int noise = random.nextInt(20);
+        if (noise == 0) {
+            route.put("operator", "AIR_EUROPA");
+        } else if (noise == 1) {
+            route.put("connectingAirport", code(0));
+        }
+        routes.add(route);
+    }
+
+    /**
+     * Departures spread between 06:00 and 22:00, shifted per route.
+     */
+    private int departureMinute(String from, String to, int index) {
+        int shift = Math.floorMod((from + to).hashCode(), 30);
+        return 6 * 60 + shift + index * (16 * 60 / flightsPerDay);
+    }
+
+    /**
+     * Between one and four hours, fixed per route.
+     */
+    private static int durationMinutes(String from, String to) {
+        return 60 + Math.floorMod((from + to).hashCode() >> 5, 180);
+    }
+
+    private static String code(int index) {
+        return "" + (char) ('A' + index / 676 % 26) + (char) ('A' + index / 26 % 26) + (char) ('A' + index % 26);
+    }
+
+    private static String time(int minuteOfDay) {
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+}
@@ -0,0 +1,73 @@
+package com.monte.interconnecting_flights.loadtest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in microseconds: exact below 128 microseconds, then 64 buckets per
+ * power of two, so any percentile is within 1.6% of the recorded value. Latencies above
+ * an hour are counted as an hour.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 64;
+    private static final int SHIFT_BITS = 6;
+    private static final long MAX_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_MICROS) + 1);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+
+    void record(long nanos) {
+        long micros = Math.min(MAX_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+        counts.incrementAndGet(index(micros));
+        total.increment();
+        sumMicros.add(micros);
+    }
+
+    long count() {
+        return total.sum();
+    }
+
+    double meanMillis() {
+        long count = count();
+        return count == 0 ? 0 : sumMicros.sum() / 1000.0 / count;
+    }
+
+    /**
+     * Smallest recorded latency, in milliseconds, that {@code quantile} of the samples do not exceed.
+     */
+    double percentileMillis(double quantile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return highestValue(i) / 1000.0;
+            }
+        }
+        return MAX_MICROS / 1000.0;
+    }
+
+    private static int index(long micros) {
+        if (micros < 2 * SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SHIFT_BITS;
+        return shift * SUB_BUCKETS + (int) (micros >>> shift);
+    }
+
+    private static long highestValue(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long sub = index - (long) shift * SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
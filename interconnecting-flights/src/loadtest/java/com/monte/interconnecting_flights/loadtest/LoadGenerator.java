@@ -0,0 +1,165 @@
+package com.monte.interconnecting_flights.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@code GET /interconnections} with a closed or open workload model over a fixed,
+ * seeded pool of searches, and measures every response.
+ * <p>
+ * In the open model each request has an intended send time on a fixed schedule and its
+ * latency is counted from then, so a stalled server shows up as latency instead of
+ * silently lowering the request rate. Requests that would exceed {@code max-in-flight}
+ * are counted as errors without being sent.
+ */
+final class LoadGenerator {
+
+    private static final long SEED = 7;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 3, 3);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final List<URI> searches = new ArrayList<>();
+    private final HttpClient client;
+
+    LoadGenerator(LoadTestOptions options, String baseUrl, List<String[]> connectedPairs) {
+        this.options = options;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Random random = new Random(SEED);
+        for (int i = 0; i < options.getQueries(); i++) {
+            String[] pair = connectedPairs.get(random.nextInt(connectedPairs.size()));
+            LocalDate day = FIRST_DAY.plusDays(random.nextInt(options.getDays()));
+            searches.add(URI.create(baseUrl + "/interconnections?departure=" + pair[0] + "&arrival=" + pair[1]
+                    + "&departureDateTime=" + day + "T00:00&arrivalDateTime="
+                    + day.plusDays(options.getWindowDays()) + "T00:00&maxStops=" + options.getMaxStops()
+                    + (options.isPartial() ? "&partial=true" : "")));
+        }
+    }
+
+    Result run(Duration duration) throws InterruptedException {
+        return options.getModel() == LoadTestOptions.Model.OPEN ? runOpen(duration) : runClosed(duration);
+    }
+
+    private Result runClosed(Duration duration) throws InterruptedException {
+        Result result = new Result();
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService clients = Executors.newFixedThreadPool(options.getConcurrency());
+        for (int i = 0; i < options.getConcurrency(); i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request(), HttpResponse.BodyHandlers.discarding());
+                        result.record(start, response.statusCode());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        result.record(start, -1);
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        if (!clients.awaitTermination(duration.plus(REQUEST_TIMEOUT).toMillis(), TimeUnit.MILLISECONDS)) {
+            clients.shutdownNow();
+        }
+        return result.finish();
+    }
+
+    private Result runOpen(Duration duration) throws InterruptedException {
+        Result result = new Result();
+        Semaphore inFlight = new Semaphore(options.getMaxInFlight());
+        long interval = TimeUnit.SECONDS.toNanos(1) / options.getRate();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        for (long sent = 0; ; sent++) {
+            long intended = start + sent * interval;
+            if (intended >= deadline) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                result.record(intended, -1);
+                continue;
+            }
+            client.sendAsync(request(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        inFlight.release();
+                        result.record(intended, failure == null ? response.statusCode() : -1);
+                    });
+        }
+        // Let the last requests finish before reading the numbers
+        if (inFlight.tryAcquire(options.getMaxInFlight(), REQUEST_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            inFlight.release(options.getMaxInFlight());
+        }
+        return result.finish();
+    }
+
+    private HttpRequest request() {
+        URI search = searches.get(ThreadLocalRandom.current().nextInt(searches.size()));
+        return HttpRequest.newBuilder(search).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    /**
+     * Responses of one run: latencies of all of them, and how many were not {@code 200}.
+     */
+    static final class Result {
+
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final long startedAt = System.nanoTime();
+        private long elapsedNanos;
+
+        private void record(long start, int status) {
+            latencies.record(System.nanoTime() - start);
+            if (status != 200) {
+                errors.increment();
+            }
+        }
+
+        private Result finish() {
+            elapsedNanos = System.nanoTime() - startedAt;
+            return this;
+        }
+
+        LatencyHistogram latencies() {
+            return latencies;
+        }
+
+        long requests() {
+            return latencies.count();
+        }
+
+        long errors() {
+            return errors.sum();
+        }
+
+        double errorRate() {
+            return requests() == 0 ? 0 : (double) errors() / requests();
+        }
+
+        double throughput() {
+            return elapsedNanos == 0 ? 0 : (requests() - errors()) / (elapsedNanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.monte.interconnecting_flights.loadtest;
+
+import com.monte.interconnecting_flights.InterconnectingFlightsApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Boots the application against an {@link UpstreamStandIn}, warms it up, drives it with
+ * a {@link LoadGenerator} and reports throughput and latency percentiles. Exits with 1
+ * when a gate ({@code max-p99}, {@code max-p999}, {@code min-throughput},
+ * {@code max-error-rate}) is missed, so the run can fail a build.
+ * <p>
+ * Run with {@code mvn -Ploadtest -DskipTests verify}; see {@link LoadTestOptions} for the settings.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        UpstreamStandIn upstream = new UpstreamStandIn(options);
+        upstream.start();
+
+        // Restarts would reload the context under load
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> applicationArgs = new ArrayList<>(options.getApplicationArgs());
+        setDefault(applicationArgs, "server.port", "0");
+        setDefault(applicationArgs, "routes.url", upstream.baseUrl() + UpstreamStandIn.ROUTES_PATH);
+        setDefault(applicationArgs, "schedules.url", upstream.baseUrl() + UpstreamStandIn.SCHEDULES_PATH);
+        setDefault(applicationArgs, "crawler.enabled", "false");
+        setDefault(applicationArgs, "logging.level.root", "WARN");
+
+        ConfigurableApplicationContext application =
+                SpringApplication.run(InterconnectingFlightsApplication.class, applicationArgs.toArray(String[]::new));
+        List<String> failures;
+        try {
+            String port = application.getEnvironment().getProperty("local.server.port");
+            LoadGenerator generator = new LoadGenerator(options, "http://localhost:" + port, upstream.connectedPairs());
+
+            System.out.printf("Warming up for %s%n", options.getWarmup());
+            generator.run(options.getWarmup());
+            System.out.printf("Measuring for %s%n", options.getDuration());
+            LoadGenerator.Result result = generator.run(options.getDuration());
+
+            report(options, result);
+            failures = gates(options, result);
+        } finally {
+            application.close();
+            upstream.stop();
+        }
+        failures.forEach(failure -> System.out.println("GATE FAILED: " + failure));
+        System.exit(failures.isEmpty() ? 0 : 1);
+    }
+
+    private static void report(LoadTestOptions options, LoadGenerator.Result result) {
+        LatencyHistogram latencies = result.latencies();
+        System.out.println();
+        System.out.println(options.getModel() == LoadTestOptions.Model.OPEN
+                ? String.format("Open model, %d req/s for %s", options.getRate(), options.getDuration())
+                : String.format("Closed model, %d clients for %s", options.getConcurrency(), options.getDuration()));
+        System.out.printf(Locale.ROOT, "%10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "requests", "errors", "ok/s", "mean ms", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        System.out.printf(Locale.ROOT, "%10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                result.requests(), result.errors(), result.throughput(), latencies.meanMillis(),
+                latencies.percentileMillis(0.5), latencies.percentileMillis(0.99),
+                latencies.percentileMillis(0.999), latencies.percentileMillis(1.0));
+    }
+
+    private static List<String> gates(LoadTestOptions options, LoadGenerator.Result result) {
+        List<String> failures = new ArrayList<>();
+        double p99 = result.latencies().percentileMillis(0.99);
+        double p999 = result.latencies().percentileMillis(0.999);
+        if (options.getMaxP99Millis() > 0 && p99 > options.getMaxP99Millis()) {
+            failures.add(String.format(Locale.ROOT, "p99 %.2f ms > %.2f ms", p99, options.getMaxP99Millis()));
+        }
+        if (options.getMaxP999Millis() > 0 && p999 > options.getMaxP999Millis()) {
+            failures.add(String.format(Locale.ROOT, "p999 %.2f ms > %.2f ms", p999, options.getMaxP999Millis()));
+        }
+        if (options.getMinThroughput() > 0 && result.throughput() < options.getMinThroughput()) {
+            failures.add(String.format(Locale.ROOT, "throughput %.1f ok/s < %.1f ok/s",
+                    result.throughput(), options.getMinThroughput()));
+        }
+        if (options.getMaxErrorRate() >= 0 && result.errorRate() > options.getMaxErrorRate()) {
+            failures.add(String.format(Locale.ROOT, "error rate %.4f > %.4f", result.errorRate(), options.getMaxErrorRate()));
+        }
+        return failures;
+    }
+
+    /**
+     * Adds {@code --name=value} unless the arguments already set {@code name}.
+     */
+    private static void setDefault(List<String> args, String name, String value) {
+        if (args.stream().noneMatch(arg -> arg.startsWith("--" + name + "="))) {
+            args.add("--" + name + "=" + value);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.monte.interconnecting_flights.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Load test settings, given as {@code --loadtest.<name>=<value>} arguments. Every other
+ * argument is passed on to the application, so any of its properties can be tuned for a run.
+ */
+@Getter
+final class LoadTestOptions {
+
+    private static final String PREFIX = "--loadtest.";
+
+    enum Model {
+        /** A fixed number of clients, each sending its next request when the previous one is answered. */
+        CLOSED,
+        /** Requests sent at a fixed rate whatever the response times; latency counts from the intended send time. */
+        OPEN
+    }
+
+    // Synthetic network
+    private final int airports;
+    private final int hubDegree;
+    private final int flightsPerDay;
+
+    // Upstream stand-in
+    private final long routesLatencyMillis;
+    private final long schedulesLatencyMillis;
+    private final double jitter;
+    private final double routesErrorRate;
+    private final double schedulesErrorRate;
+    private final int upstreamThreads;
+
+    // Load
+    private final Model model;
+    private final int concurrency;
+    private final int rate;
+    private final int maxInFlight;
+    private final Duration warmup;
+    private final Duration duration;
+    private final int queries;
+    private final int days;
+    private final int windowDays;
+    private final int maxStops;
+    private final boolean partial;
+
+    // Gates, off when 0 (error rate: when negative)
+    private final double maxP99Millis;
+    private final double maxP999Millis;
+    private final double minThroughput;
+    private final double maxErrorRate;
+
+    private final List<String> applicationArgs;
+
+    private LoadTestOptions(SimpleCommandLinePropertySource args, List<String> applicationArgs) {
+        this.airports = intOption(args, "airports", 200);
+        this.hubDegree = intOption(args, "hub-degree", 20);
+        this.flightsPerDay = intOption(args, "flights-per-day", 4);
+        this.routesLatencyMillis = durationOption(args, "routes.latency", "50ms").toMillis();
+        this.schedulesLatencyMillis = durationOption(args, "schedules.latency", "30ms").toMillis();
+        this.jitter = doubleOption(args, "jitter", 0.25);
+        this.routesErrorRate = doubleOption(args, "routes.error-rate", 0);
+        this.schedulesErrorRate = doubleOption(args, "schedules.error-rate", 0);
+        this.upstreamThreads = intOption(args, "upstream-threads", 200);
+        this.model = Model.valueOf(option(args, "model", "closed").toUpperCase(Locale.ROOT));
+        this.concurrency = intOption(args, "concurrency", 32);
+        this.rate = intOption(args, "rate", 200);
+        this.maxInFlight = intOption(args, "max-in-flight", 10_000);
+        this.warmup = durationOption(args, "warmup", "10s");
+        this.duration = durationOption(args, "duration", "30s");
+        this.queries = intOption(args, "queries", 1000);
+        this.days = intOption(args, "days", 28);
+        this.windowDays = intOption(args, "window-days", 1);
+        this.maxStops = intOption(args, "max-stops", 1);
+        this.partial = Boolean.parseBoolean(option(args, "partial", "false"));
+        this.maxP99Millis = doubleOption(args, "max-p99", 0);
+        this.maxP999Millis = doubleOption(args, "max-p999", 0);
+        this.minThroughput = doubleOption(args, "min-throughput", 0);
+        this.maxErrorRate = doubleOption(args, "max-error-rate", -1);
+        this.applicationArgs = applicationArgs;
+
+        if (concurrency < 1 || rate < 1 || maxInFlight < 1 || queries < 1 || days < 1 || windowDays < 1) {
+            throw new IllegalArgumentException("concurrency, rate, max-in-flight, queries, days and window-days must be positive");
+        }
+        if (jitter < 0 || routesErrorRate < 0 || routesErrorRate > 1 || schedulesErrorRate < 0 || schedulesErrorRate > 1) {
+            throw new IllegalArgumentException("jitter must be zero or positive and error rates between 0 and 1");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        List<String> loadTestArgs = new ArrayList<>();
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            (arg.startsWith(PREFIX) ? loadTestArgs : applicationArgs).add(arg);
+        }
+        return new LoadTestOptions(new SimpleCommandLinePropertySource(loadTestArgs.toArray(String[]::new)),
+                applicationArgs);
+    }
+
+    private static String option(SimpleCommandLinePropertySource args, String name, String defaultValue) {
+        String value = args.getProperty("loadtest." + name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    private static int intOption(SimpleCommandLinePropertySource args, String name, int defaultValue) {
+        return Integer.parseInt(option(args, name, Integer.toString(defaultValue)));
+    }
+
+    private static double doubleOption(SimpleCommandLinePropertySource args, String name, double defaultValue) {
+        return Double.parseDouble(option(args, name, Double.toString(defaultValue)));
+    }
+
+    private static Duration durationOption(SimpleCommandLinePropertySource args, String name, String defaultValue) {
+        return DurationStyle.detectAndParse(option(args, name, defaultValue));
+    }
+}
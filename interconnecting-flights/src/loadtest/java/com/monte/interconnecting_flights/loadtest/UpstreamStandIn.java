@@ -0,0 +1,206 @@
+package com.monte.interconnecting_flights.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Embedded WireMock serving a deterministic hub-and-spoke network in place of the
+ * Routes and Schedules APIs, with per-endpoint latency, jitter and error rate.
+ * <p>
+ * Hubs are fully connected and each serves {@code hubDegree} spokes both ways; every
+ * route flies {@code flightsPerDay} times a day. Schedules are generated from the
+ * request path on first use, so any route and month can be asked for without a stub
+ * each. Latency is log-normal around the configured median with the configured
+ * sigma (0 for a fixed delay); a failed call answers {@code 503} after the same delay.
+ */
+final class UpstreamStandIn {
+
+    static final String ROUTES_PATH = "/views/locate/3/routes";
+    static final String SCHEDULES_PATH = "/timtbl/3/schedules";
+
+    private static final long SEED = 42;
+    private static final Pattern SCHEDULE =
+            Pattern.compile(SCHEDULES_PATH + "/([A-Z]{3})/([A-Z]{3})/years/(\\d+)/months/(\\d+)");
+
+    private final LoadTestOptions options;
+    private final List<String[]> routes = new ArrayList<>();
+    private final List<String[]> connectedPairs = new ArrayList<>();
+    private final String routesJson;
+    private final Map<String, String> monthJson = new ConcurrentHashMap<>();
+    private final WireMockServer server;
+
+    UpstreamStandIn(LoadTestOptions options) {
+        this.options = options;
+        buildNetwork(options.getAirports(), options.getHubDegree());
+        this.routesJson = routesJson();
+        this.server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(options.getUpstreamThreads())
+                .disableRequestJournal()
+                .extensions(new Transformer()));
+    }
+
+    void start() {
+        server.start();
+        server.stubFor(get(urlPathEqualTo(ROUTES_PATH))
+                .willReturn(aResponse().withTransformers(Transformer.NAME)));
+        server.stubFor(get(urlPathMatching(SCHEDULES_PATH + "/.*"))
+                .willReturn(aResponse().withTransformers(Transformer.NAME)));
+    }
+
+    void stop() {
+        server.stop();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    /**
+     * Origin and destination pairs with at least one one-stop connection through a hub.
+     */
+    List<String[]> connectedPairs() {
+        return connectedPairs;
+    }
+
+    private void buildNetwork(int airports, int hubDegree) {
+        if (airports < 4 || hubDegree < 2) {
+            throw new IllegalArgumentException("Need at least 4 airports and hub degree 2");
+        }
+        Random random = new Random(SEED);
+        int hubs = Math.max(2, airports / hubDegree);
+        List<String> spokes = new ArrayList<>();
+        for (int i = hubs; i < airports; i++) {
+            spokes.add(code(i));
+        }
+        int degree = Math.min(hubDegree, spokes.size());
+        for (int hub = 0; hub < hubs; hub++) {
+            for (int other = 0; other < hubs; other++) {
+                if (other != hub) {
+                    routes.add(new String[]{code(hub), code(other)});
+                }
+            }
+            Collections.shuffle(spokes, random);
+            List<String> served = spokes.subList(0, degree);
+            for (String spoke : served) {
+                routes.add(new String[]{code(hub), spoke});
+                routes.add(new String[]{spoke, code(hub)});
+            }
+            for (int i = 0; i + 1 < served.size(); i += 2) {
+                connectedPairs.add(new String[]{served.get(i), served.get(i + 1)});
+            }
+        }
+    }
+
+    private String routesJson() {
+        StringBuilder json = new StringBuilder(96 * routes.size()).append('[');
+        for (int i = 0; i < routes.size(); i++) {
+            String[] route = routes.get(i);
+            json.append(i > 0 ? "," : "")
+                    .append("{\"airportFrom\":\"").append(route[0])
+                    .append("\",\"airportTo\":\"").append(route[1])
+                    .append("\",\"connectingAirport\":null,\"operator\":\"RYANAIR\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private String monthJson(String from, String to, int year, int month) {
+        int flightsPerDay = options.getFlightsPerDay();
+        int shift = Math.floorMod((from + to).hashCode(), 30);
+        int duration = 60 + Math.floorMod((from + to).hashCode() >> 5, 180);
+        StringBuilder json = new StringBuilder(64 * flightsPerDay * 31);
+        json.append("{\"month\":").append(month).append(",\"days\":[");
+        int days = YearMonth.of(year, month).lengthOfMonth();
+        for (int day = 1; day <= days; day++) {
+            json.append(day > 1 ? "," : "").append("{\"day\":").append(day).append(",\"flights\":[");
+            for (int i = 0; i < flightsPerDay; i++) {
+                int departure = 6 * 60 + shift + i * (16 * 60 / flightsPerDay);
+                int arrival = (departure + duration) % (24 * 60);
+                json.append(i > 0 ? "," : "")
+                        .append("{\"carrierCode\":\"FR\",\"number\":\"").append(1000 + i)
+                        .append("\",\"departureTime\":\"").append(time(departure))
+                        .append("\",\"arrivalTime\":\"").append(time(arrival)).append("\"}");
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String code(int index) {
+        return "" + (char) ('A' + index / 676 % 26) + (char) ('A' + index / 26 % 26) + (char) ('A' + index % 26);
+    }
+
+    private static String time(int minuteOfDay) {
+        return String.format("%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+    }
+
+    /**
+     * Answers both endpoints: body from the network, then delay and failures per endpoint.
+     */
+    private final class Transformer implements ResponseDefinitionTransformerV2 {
+
+        private static final String NAME = "load-test-upstream";
+
+        @Override
+        public ResponseDefinition transform(ServeEvent serveEvent) {
+            String path = serveEvent.getRequest().getUrl();
+            int query = path.indexOf('?');
+            if (query >= 0) {
+                path = path.substring(0, query);
+            }
+            if (path.equals(ROUTES_PATH)) {
+                return respond(routesJson, options.getRoutesLatencyMillis(), options.getRoutesErrorRate());
+            }
+            Matcher schedule = SCHEDULE.matcher(path);
+            if (!schedule.matches()) {
+                return aResponse().withStatus(404).build();
+            }
+            String body = monthJson.computeIfAbsent(path, key -> monthJson(schedule.group(1), schedule.group(2),
+                    Integer.parseInt(schedule.group(3)), Integer.parseInt(schedule.group(4))));
+            return respond(body, options.getSchedulesLatencyMillis(), options.getSchedulesErrorRate());
+        }
+
+        private ResponseDefinition respond(String body, long latencyMillis, double errorRate) {
+            ResponseDefinitionBuilder response = ThreadLocalRandom.current().nextDouble() < errorRate
+                    ? aResponse().withStatus(503).withBody("{\"message\":\"Injected failure\"}")
+                    : aResponse().withStatus(200).withBody(body);
+            response.withHeader("Content-Type", "application/json");
+            if (latencyMillis > 0 && options.getJitter() > 0) {
+                response.withLogNormalRandomDelay(latencyMillis, options.getJitter());
+            } else if (latencyMillis > 0) {
+                response.withFixedDelay((int) latencyMillis);
+            }
+            return response.build();
+        }
+
+        @Override
+        public boolean applyGlobally() {
+            return false;
+        }
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+    }
+}
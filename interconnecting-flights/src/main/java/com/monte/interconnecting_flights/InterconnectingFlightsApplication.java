@@ -4,11 +4,38 @@ import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Info;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.time.Duration;
 
 @SpringBootApplication
 @OpenAPIDefinition(info = @Info(title = "Interconnecting Flights API", version = "1.0.0"))
 public class InterconnectingFlightsApplication {
+
+    private static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+
     public static void main(String[] args) {
-        SpringApplication.run(InterconnectingFlightsApplication.class, args);
+        SpringApplication application = new SpringApplication(InterconnectingFlightsApplication.class);
+        application.addListeners(new KeepAliveTimeout());
+        application.run(args);
+    }
+
+    /**
+     * The JDK HTTP client only reads its idle-connection timeout from a JVM-wide system
+     * property, so {@code http.client.keep-alive} is copied there once the configuration is
+     * read and before the context, and with it any HTTP client, is created. A
+     * {@code -Djdk.httpclient.keepalive.timeout} on the command line wins.
+     */
+    static class KeepAliveTimeout implements ApplicationListener<ApplicationEnvironmentPreparedEvent> {
+
+        @Override
+        public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+            if (System.getProperty(KEEP_ALIVE_PROPERTY) == null) {
+                Duration keepAlive = event.getEnvironment()
+                        .getProperty("http.client.keep-alive", Duration.class, Duration.ofMinutes(5));
+                System.setProperty(KEEP_ALIVE_PROPERTY, String.valueOf(Math.max(1, keepAlive.toSeconds())));
+            }
+        }
     }
 }
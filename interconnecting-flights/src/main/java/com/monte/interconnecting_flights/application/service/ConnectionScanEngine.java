@@ -0,0 +1,255 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.AirportCode;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Multi-stop itinerary search based on the Connection Scan Algorithm.
+ * <p>
+ * Every flight of the given routes that fits in the search window becomes one
+ * connection, and the connections are scanned once in departure order. Each airport
+ * keeps a bag of partial journeys labelled (first departure, arrival, legs); a label
+ * is dropped when another one departs no earlier, arrives no later and uses no more
+ * legs. What reaches the destination is the Pareto set of itineraries.
+ * <p>
+ * With a maximum layover the pruning is a heuristic: a later arrival at an intermediate
+ * airport can be the only one still within the layover of some onward flight.
+ */
+final class ConnectionScanEngine {
+
+    private final int minConnectionMinutes;
+    private final int maxLayoverMinutes;
+
+    ConnectionScanEngine(int minConnectionMinutes, int maxLayoverMinutes) {
+        this.minConnectionMinutes = minConnectionMinutes;
+        this.maxLayoverMinutes = maxLayoverMinutes;
+    }
+
+    /**
+     * @param routes origin -> destinations of every route worth scanning, typically
+     *               {@link com.monte.interconnecting_flights.domain.model.RouteGraph#routesOnPathsBetween}
+     */
+    List<Itinerary> search(Map<ScheduleKey, MonthSchedule> schedules, List<YearMonth> months,
+                                Map<String, Set<String>> routes, String origin, String destination,
+                                int windowStart, int windowEnd, int maxStops) {
+        Connections connections = Connections.build(schedules, months, routes, windowStart, windowEnd);
+        Integer originId = connections.airportIndex.get(origin);
+        Integer destinationId = connections.airportIndex.get(destination);
+        if (originId == null || destinationId == null) {
+            return List.of();
+        }
+        int originIndex = originId;
+        int destinationIndex = destinationId;
+
+        int maxLegs = maxStops + 1;
+        List<List<Label>> bags = new ArrayList<>(Collections.nCopies(connections.airportIds.length, null));
+        List<Label> arrived = new ArrayList<>();
+        Label[] bestByLegs = new Label[maxLegs];
+
+        for (int c = 0; c < connections.size; c++) {
+            int from = connections.from[c];
+            int to = connections.to[c];
+            int departure = connections.departures[c];
+            int arrival = connections.arrivals[c];
+            List<Label> target = to == destinationIndex ? arrived : bag(bags, to);
+
+            if (from == originIndex) {
+                offer(target, new Label(departure, arrival, 1, c, null));
+                continue;
+            }
+            List<Label> bag = bags.get(from);
+            if (bag == null) {
+                continue;
+            }
+
+            // Only the latest-starting journey per leg count can produce a non-dominated label
+            Arrays.fill(bestByLegs, null);
+            for (Label label : bag) {
+                if (label.legs < maxLegs
+                        && departure > label.arrival + minConnectionMinutes
+                        && departure <= (long) label.arrival + maxLayoverMinutes) {
+                    Label best = bestByLegs[label.legs];
+                    if (best == null || label.firstDeparture > best.firstDeparture) {
+                        bestByLegs[label.legs] = label;
+                    }
+                }
+            }
+            for (int legs = 1; legs < maxLegs; legs++) {
+                Label previous = bestByLegs[legs];
+                if (previous != null) {
+                    offer(target, new Label(previous.firstDeparture, arrival, legs + 1, c, previous));
+                }
+            }
+        }
+
+        arrived.sort(Comparator.comparingInt((Label label) -> label.firstDeparture)
+                .thenComparingInt(label -> label.arrival)
+                .thenComparingInt(label -> label.legs));
+        List<Itinerary> itineraries = new ArrayList<>(arrived.size());
+        for (Label label : arrived) {
+            itineraries.add(toItinerary(label, connections));
+        }
+        return itineraries;
+    }
+
+    private static List<Label> bag(List<List<Label>> bags, int airport) {
+        List<Label> bag = bags.get(airport);
+        if (bag == null) {
+            bag = new ArrayList<>(4);
+            bags.set(airport, bag);
+        }
+        return bag;
+    }
+
+    private static void offer(List<Label> bag, Label candidate) {
+        for (Label label : bag) {
+            if (label.dominates(candidate)) {
+                return;
+            }
+        }
+        bag.removeIf(candidate::dominates);
+        bag.add(candidate);
+    }
+
+    private static Itinerary toItinerary(Label last, Connections connections) {
+        int[] legs = new int[last.legs * 3];
+        for (Label label = last; label != null; label = label.previous) {
+            int leg = (label.legs - 1) * 3;
+            legs[leg] = connections.route(label.connection);
+            legs[leg + 1] = connections.departures[label.connection];
+            legs[leg + 2] = connections.arrivals[label.connection];
+        }
+        return Itinerary.of(legs);
+    }
+
+    /**
+     * A journey from the origin ending with {@code connection}.
+     */
+    private static final class Label {
+        private final int firstDeparture;
+        private final int arrival;
+        private final int legs;
+        private final int connection;
+        private final Label previous;
+
+        private Label(int firstDeparture, int arrival, int legs, int connection, Label previous) {
+            this.firstDeparture = firstDeparture;
+            this.arrival = arrival;
+            this.legs = legs;
+            this.connection = connection;
+            this.previous = previous;
+        }
+
+        private boolean dominates(Label other) {
+            return firstDeparture >= other.firstDeparture
+                    && arrival <= other.arrival
+                    && legs <= other.legs;
+        }
+    }
+
+    /**
+     * Flights of the scanned routes as parallel arrays sorted by departure.
+     */
+    private static final class Connections {
+        private final int[] airportIds;
+        private final Map<String, Integer> airportIndex;
+        private final int size;
+        private final int[] from;
+        private final int[] to;
+        private final int[] departures;
+        private final int[] arrivals;
+
+        private Connections(int[] airportIds, Map<String, Integer> airportIndex, int size,
+                            int[] from, int[] to, int[] departures, int[] arrivals) {
+            this.airportIds = airportIds;
+            this.airportIndex = airportIndex;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+            this.departures = departures;
+            this.arrivals = arrivals;
+        }
+
+        private static Connections build(Map<ScheduleKey, MonthSchedule> schedules, List<YearMonth> months,
+                                         Map<String, Set<String>> routes, int windowStart, int windowEnd) {
+            Map<String, Integer> airportIndex = new HashMap<>();
+            List<String> airports = new ArrayList<>();
+            List<int[]> legEndpoints = new ArrayList<>();
+            List<LegFlights> legs = new ArrayList<>();
+            int total = 0;
+
+            for (Map.Entry<String, Set<String>> route : routes.entrySet()) {
+                for (String arrival : route.getValue()) {
+                    LegFlights flights = LegFlights.collect(schedules, months, route.getKey(), arrival,
+                            windowStart, windowEnd);
+                    if (flights.isEmpty()) {
+                        continue;
+                    }
+                    legEndpoints.add(new int[]{
+                            index(airportIndex, airports, route.getKey()),
+                            index(airportIndex, airports, arrival)});
+                    legs.add(flights);
+                    total += flights.size();
+                }
+            }
+
+            // Sort by departure: pack (departure, position) into a long so one primitive sort suffices
+            long[] order = new long[total];
+            int[] unsortedFrom = new int[total];
+            int[] unsortedTo = new int[total];
+            int[] unsortedArrivals = new int[total];
+            int position = 0;
+            for (int l = 0; l < legs.size(); l++) {
+                LegFlights flights = legs.get(l);
+                for (int i = 0; i < flights.size(); i++) {
+                    order[position] = ((long) flights.departureAt(i) << 32) | position;
+                    unsortedFrom[position] = legEndpoints.get(l)[0];
+                    unsortedTo[position] = legEndpoints.get(l)[1];
+                    unsortedArrivals[position] = flights.arrivalAt(i);
+                    position++;
+                }
+            }
+            Arrays.sort(order);
+
+            int[] from = new int[total];
+            int[] to = new int[total];
+            int[] departures = new int[total];
+            int[] arrivals = new int[total];
+            for (int c = 0; c < total; c++) {
+                int source = (int) order[c];
+                from[c] = unsortedFrom[source];
+                to[c] = unsortedTo[source];
+                departures[c] = (int) (order[c] >>> 32);
+                arrivals[c] = unsortedArrivals[source];
+            }
+            int[] airportIds = new int[airports.size()];
+            for (int a = 0; a < airportIds.length; a++) {
+                airportIds[a] = AirportCode.id(airports.get(a));
+            }
+            return new Connections(airportIds, airportIndex, total, from, to, departures, arrivals);
+        }
+
+        private static int index(Map<String, Integer> airportIndex, List<String> airports, String airport) {
+            return airportIndex.computeIfAbsent(airport, k -> {
+                airports.add(k);
+                return airports.size() - 1;
+            });
+        }
+
+        private int route(int connection) {
+            return AirportCode.route(airportIds[from[connection]], airportIds[to[connection]]);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.monte.interconnecting_flights.application.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of {@link ScheduleCrawler}: counters refer to the current pass,
+ * or to the last one once it has finished.
+ */
+@Getter
+@AllArgsConstructor
+public class CrawlProgress {
+    private ScheduleCrawler.State state;
+    private int completedPasses;
+    private int scheduleCount;
+    private int fetchedCount;
+    private int failedCount;
+    private int inFlight;
+    private Instant startedAt;
+    private Instant finishedAt;
+}
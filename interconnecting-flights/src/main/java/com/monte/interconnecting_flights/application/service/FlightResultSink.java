@@ -0,0 +1,17 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.FlightResponse;
+
+/**
+ * Receives itineraries from {@link FlightService#streamFlights} as soon as they are found.
+ * <p>
+ * Calls may come from several schedule fetch threads at the same time.
+ */
+@FunctionalInterface
+public interface FlightResultSink {
+
+    /**
+     * @return false when the consumer is gone and the search should stop
+     */
+    boolean emit(FlightResponse flight);
+}
@@ -1,23 +1,110 @@
 package com.monte.interconnecting_flights.application.service;
 
-import com.monte.interconnecting_flights.domain.model.FlightLeg;
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.FlightQuery;
+import com.monte.interconnecting_flights.domain.model.FlightQueryResult;
 import com.monte.interconnecting_flights.domain.model.FlightResponse;
+import com.monte.interconnecting_flights.domain.model.FlightSearchResult;
+import com.monte.interconnecting_flights.domain.model.FlightSort;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.RouteGraph;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
 import com.monte.interconnecting_flights.domain.port.outbound.RoutesPort;
 import com.monte.interconnecting_flights.domain.port.outbound.SchedulesPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.util.*;
-import java.util.stream.Collectors;
-import lombok.RequiredArgsConstructor;
-
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class FlightService {
+    private static final Duration DEFAULT_MIN_CONNECTION = Duration.ofHours(2);
+
+    /**
+     * Stops allowed when the caller does not ask for more: direct and one-stop flights.
+     */
+    public static final int DEFAULT_MAX_STOPS = 1;
+
+    /**
+     * Upper bound for {@code maxStops}; every extra stop widens the set of routes to fetch.
+     */
+    public static final int MAX_STOPS_LIMIT = 3;
+
     private final RoutesPort routesPort;
-    private final SchedulesPort schedulesPort;
+    private final ScheduleFetcher scheduleFetcher;
+    private final int minConnectionMinutes;
+    private final int maxLayoverMinutes;
+    private final ConnectionScanEngine connectionScan;
+    private final RouteDemand routeDemand;
+    private final SearchMetrics searchMetrics;
+    private final SearchResultCache resultCache;
+    private final OperatingDayIndex operatingDays;
+
+    // Graph built from the last routes list seen; rebuilt only when the snapshot changes
+    private volatile IndexedRoutes indexedRoutes;
+
+    /**
+     * @param minConnection time that must strictly elapse between landing at the stopover and the next departure
+     * @param maxLayover    longest accepted wait at the stopover, or null for no limit
+     */
+    @Autowired
+    public FlightService(RoutesPort routesPort,
+                         ScheduleFetcher scheduleFetcher,
+                         @Value("${search.min-connection:2h}") Duration minConnection,
+                         @Value("${search.max-layover:}") Duration maxLayover,
+                         RouteDemand routeDemand,
+                         SearchMetrics searchMetrics,
+                         SearchResultCache resultCache,
+                         OperatingDayIndex operatingDays) {
+        if (minConnection == null || minConnection.isNegative()) {
+            throw new IllegalArgumentException("search.min-connection must be zero or positive");
+        }
+        if (maxLayover != null && maxLayover.compareTo(minConnection) <= 0) {
+            throw new IllegalArgumentException("search.max-layover must be longer than search.min-connection");
+        }
+        this.routesPort = routesPort;
+        this.scheduleFetcher = scheduleFetcher;
+        this.minConnectionMinutes = Math.toIntExact(minConnection.toMinutes());
+        this.maxLayoverMinutes = maxLayover == null ? Integer.MAX_VALUE : Math.toIntExact(maxLayover.toMinutes());
+        this.connectionScan = new ConnectionScanEngine(minConnectionMinutes, maxLayoverMinutes);
+        this.routeDemand = routeDemand;
+        this.searchMetrics = searchMetrics;
+        this.resultCache = resultCache;
+        this.operatingDays = operatingDays;
+    }
+
+    /**
+     * Service whose route demand, metrics and operating days are kept to itself, without
+     * a result cache.
+     */
+    public FlightService(RoutesPort routesPort, ScheduleFetcher scheduleFetcher,
+                         Duration minConnection, Duration maxLayover) {
+        this(routesPort, scheduleFetcher, minConnection, maxLayover, new RouteDemand(), new SearchMetrics(),
+                SearchResultCache.disabled(), new OperatingDayIndex(Duration.ofHours(1)));
+    }
+
+    /**
+     * Service that fetches schedules one by one on the calling thread, with the
+     * default 2 hour minimum connection and no maximum layover.
+     */
+    public FlightService(RoutesPort routesPort, SchedulesPort schedulesPort) {
+        this(routesPort, ScheduleFetcher.sequential(schedulesPort), DEFAULT_MIN_CONNECTION, null);
+    }
 
     public List<FlightResponse> findFlights(
             String departure,
@@ -25,205 +112,751 @@ public class FlightService {
             LocalDateTime departureDateTime,
             LocalDateTime arrivalDateTime
     ) {
-        // Validation
-        if (departure == null || departure.isBlank()) {
-            throw new IllegalArgumentException("The 'departure' parameter cannot be null or empty");
-        }
-        if (arrival == null || arrival.isBlank()) {
-            throw new IllegalArgumentException("The 'arrival' parameter cannot be null or empty");
-        }
-        if (departureDateTime == null || arrivalDateTime == null) {
-            throw new IllegalArgumentException("Departure/arrival dates cannot be null");
-        }
-        if (!departureDateTime.isBefore(arrivalDateTime)) {
-            throw new IllegalArgumentException("departureDateTime must be earlier than arrivalDateTime");
-        }
-        if (departure.equals(arrival)) {
-            throw new IllegalArgumentException("departure and arrival cannot be the same");
+        return findFlights(departure, arrival, departureDateTime, arrivalDateTime, DEFAULT_MAX_STOPS);
+    }
+
+    /**
+     * Up to one stop, every valid combination in the window is returned. From two stops
+     * on, the search runs on the {@link ConnectionScanEngine} and returns the Pareto set:
+     * no other itinerary departs later, arrives earlier and makes fewer stops. Flights come
+     * in the same stable order as {@link #searchAsync}, direct first, each one once.
+     */
+    public List<FlightResponse> findFlights(
+            String departure,
+            String arrival,
+            LocalDateTime departureDateTime,
+            LocalDateTime arrivalDateTime,
+            int maxStops
+    ) {
+        validate(departure, arrival, departureDateTime, arrivalDateTime, maxStops);
+
+        List<Map<String, String>> routes = routesPort.getRoutes();
+        return Futures.await(collect(routes, departure, arrival, departureDateTime, arrivalDateTime, maxStops));
+    }
+
+    /**
+     * Non-blocking {@link #findFlights(String, String, LocalDateTime, LocalDateTime, int)}:
+     * routes and schedules are requested through the async ports and no thread waits
+     * for them.
+     *
+     * @throws IllegalArgumentException right away if the parameters are invalid
+     */
+    public CompletableFuture<List<FlightResponse>> findFlightsAsync(
+            String departure,
+            String arrival,
+            LocalDateTime departureDateTime,
+            LocalDateTime arrivalDateTime,
+            int maxStops
+    ) {
+        validate(departure, arrival, departureDateTime, arrivalDateTime, maxStops);
+
+        return routesPort.getRoutesAsync().thenCompose(routes ->
+                collect(routes, departure, arrival, departureDateTime, arrivalDateTime, maxStops));
+    }
+
+    /**
+     * Non-blocking search whose result is reused from the {@link SearchResultCache} while
+     * the routes and every schedule month it was built from are unchanged. Flights come
+     * in a stable order, direct first, so equal results have equal versions.
+     *
+     * @throws IllegalArgumentException right away if the parameters are invalid
+     */
+    public CompletableFuture<FlightSearchResult> searchAsync(
+            String departure,
+            String arrival,
+            LocalDateTime departureDateTime,
+            LocalDateTime arrivalDateTime,
+            int maxStops
+    ) {
+        return searchAsync(departure, arrival, departureDateTime, arrivalDateTime, maxStops, false);
+    }
+
+    /**
+     * Same as {@link #searchAsync(String, String, LocalDateTime, LocalDateTime, int)}. With
+     * {@code partial}, a schedule month the Schedules API fails to return before the fetch
+     * deadline no longer fails the search: the routes that needed it are skipped, listed in
+     * the result, and the rest is answered. Partial results are not cached.
+     *
+     * @throws IllegalArgumentException right away if the parameters are invalid
+     */
+    public CompletableFuture<FlightSearchResult> searchAsync(
+            String departure,
+            String arrival,
+            LocalDateTime departureDateTime,
+            LocalDateTime arrivalDateTime,
+            int maxStops,
+            boolean partial
+    ) {
+        return searchAsync(departure, arrival, departureDateTime, arrivalDateTime, maxStops, partial, null, 0);
+    }
+
+    /**
+     * Same as {@link #searchAsync(String, String, LocalDateTime, LocalDateTime, int, boolean)},
+     * returning the itineraries in {@code sort} order and only the first {@code limit} of
+     * them. Up to one stop, a stopover is not even paired once its earliest arrival,
+     * shortest duration or number of stops shows it cannot beat the current K-th result.
+     *
+     * @param sort  order of the flights, or null to keep plan order; defaults to
+     *              {@link FlightSort#EARLIEST_ARRIVAL} when only a limit is given
+     * @param limit most flights to return, or 0 for all of them
+     * @throws IllegalArgumentException right away if the parameters are invalid
+     */
+    public CompletableFuture<FlightSearchResult> searchAsync(
+            String departure,
+            String arrival,
+            LocalDateTime departureDateTime,
+            LocalDateTime arrivalDateTime,
+            int maxStops,
+            boolean partial,
+            FlightSort sort,
+            int limit
+    ) {
+        validate(departure, arrival, departureDateTime, arrivalDateTime, maxStops);
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must be zero or positive");
         }
+        FlightSort order = sort == null && limit > 0 ? FlightSort.EARLIEST_ARRIVAL : sort;
+
+        return routesPort.getRoutesAsync().thenCompose(routes -> {
+            SearchPlan plan = plan(routeGraph(routes), departure, arrival, departureDateTime, arrivalDateTime,
+                    maxStops);
+            plan.sort = order;
+            plan.limit = limit;
+            SearchResultCache.Key key = new SearchResultCache.Key(departure, arrival,
+                    plan.windowStart, plan.windowEnd, maxStops, order, limit);
+            if (!partial) {
+                return scheduleFetcher.fetchAllAsync(plan.keys, operatingDays::record)
+                        .thenApply(schedules -> resultCache.get(key, routes, schedules,
+                                () -> evaluateAll(plan, schedules)));
+            }
+            return scheduleFetcher.fetchEachAsync(plan.keys).thenApply(fetched -> {
+                operatingDays.recordAll(fetched.getSchedules());
+                if (fetched.getFailures().isEmpty()) {
+                    return resultCache.get(key, routes, fetched.getSchedules(),
+                            () -> evaluateAll(plan, fetched.getSchedules()));
+                }
+                return evaluatePartial(plan, fetched);
+            });
+        });
+    }
+
+    /**
+     * Same search as {@link #findFlights(String, String, LocalDateTime, LocalDateTime, int)},
+     * handing each itinerary to {@code sink} as soon as the schedules of its route (the
+     * direct one or one stopover) have arrived, instead of after the slowest one.
+     * <p>
+     * Stops fetching and returns normally once the sink reports the consumer is gone.
+     * Multi-stop results are a Pareto set only known at the end of the scan, so they
+     * are emitted together.
+     */
+    public void streamFlights(
+            String departure,
+            String arrival,
+            LocalDateTime departureDateTime,
+            LocalDateTime arrivalDateTime,
+            int maxStops,
+            FlightResultSink sink
+    ) {
+        validate(departure, arrival, departureDateTime, arrivalDateTime, maxStops);
 
         // Calling the Routes API via the abstraction
-        List<Map<String, String>> routes;
-        try {
-            routes = routesPort.getRoutes();
-        } catch (Exception ex) {
-            throw ex;
-        }
+        List<Map<String, String>> routes = routesPort.getRoutes();
 
-        // Filter routes that have no connecting airport
-        List<Map<String, String>> filteredRoutes = routes.stream()
-            .filter(route -> "RYANAIR".equals(route.get("operator")) &&
-                             route.get("connectingAirport") == null)
-            .collect(Collectors.toList());
+        Futures.await(search(routes, departure, arrival, departureDateTime, arrivalDateTime, maxStops, sink));
+    }
 
-        // Flight search
-        Set<FlightResponse> allFlights = new HashSet<>();
+    /**
+     * Non-blocking {@link #streamFlights}. The sink is called from the threads that
+     * complete the upstream calls.
+     *
+     * @throws IllegalArgumentException right away if the parameters are invalid
+     */
+    public CompletableFuture<Void> streamFlightsAsync(
+            String departure,
+            String arrival,
+            LocalDateTime departureDateTime,
+            LocalDateTime arrivalDateTime,
+            int maxStops,
+            FlightResultSink sink
+    ) {
+        validate(departure, arrival, departureDateTime, arrivalDateTime, maxStops);
 
-        // Direct flights
-        boolean hasDirect = filteredRoutes.stream()
-            .anyMatch(route ->
-                departure.equals(route.get("airportFrom")) &&
-                arrival.equals(route.get("airportTo"))
-            );
+        return routesPort.getRoutesAsync().thenCompose(routes ->
+                search(routes, departure, arrival, departureDateTime, arrivalDateTime, maxStops, sink));
+    }
 
-        if (hasDirect) {
-            List<FlightResponse> directFlights = findDirectFlights(departure, arrival,
-                    departureDateTime, arrivalDateTime);
-            allFlights.addAll(directFlights);
+    /**
+     * Answers many searches with one upstream round: the schedule months every query
+     * needs are planned up front and each distinct month is fetched once, concurrently,
+     * from {@link SchedulesPort}. Results come back in query order; a query that is
+     * invalid, or needs a month the Schedules API failed to return, gets an error
+     * instead of flights without affecting the others.
+     *
+     * @throws IllegalArgumentException right away if there are no queries
+     */
+    public CompletableFuture<List<FlightQueryResult>> findFlightsBatchAsync(List<FlightQuery> queries) {
+        if (queries == null || queries.isEmpty()) {
+            throw new IllegalArgumentException("At least one query is required");
         }
 
-        // Flights with a stopover
-        List<Map<String, String>> firstLegRoutes = filteredRoutes.stream()
-            .filter(route ->
-                departure.equals(route.get("airportFrom")) &&
-                !arrival.equals(route.get("airportTo"))
-            )
-            .collect(Collectors.toList());
-
-        for (Map<String, String> firstLegRoute : firstLegRoutes) {
-            String stopover = firstLegRoute.get("airportTo");
-
-            boolean hasSecondLeg = filteredRoutes.stream()
-                .anyMatch(route ->
-                    stopover.equals(route.get("airportFrom")) &&
-                    arrival.equals(route.get("airportTo"))
-                );
-
-            if (hasSecondLeg) {
-                List<FlightResponse> connecting = findConnectingFlights(
-                        departure, stopover, arrival,
-                        departureDateTime, arrivalDateTime
-                );
-
-                if (!connecting.isEmpty()) {
-                    System.out.println("Stopover route detected: " +
-                            departure + " -> " + stopover + " -> " + arrival);
-                    allFlights.addAll(connecting);
+        return routesPort.getRoutesAsync().thenCompose(routes -> {
+            RouteGraph graph = routeGraph(routes);
+            SearchPlan[] plans = new SearchPlan[queries.size()];
+            String[] errors = new String[queries.size()];
+            Set<ScheduleKey> keys = new LinkedHashSet<>();
+            for (int i = 0; i < queries.size(); i++) {
+                FlightQuery query = queries.get(i);
+                try {
+                    if (query == null) {
+                        throw new IllegalArgumentException("Query cannot be null");
+                    }
+                    validate(query.getDeparture(), query.getArrival(), query.getDepartureDateTime(),
+                            query.getArrivalDateTime(), query.getMaxStops());
+                    plans[i] = plan(graph, query.getDeparture(), query.getArrival(), query.getDepartureDateTime(),
+                            query.getArrivalDateTime(), query.getMaxStops());
+                    keys.addAll(plans[i].keys);
+                } catch (IllegalArgumentException ex) {
+                    errors[i] = ex.getMessage();
                 }
             }
-        }
 
-        return new ArrayList<>(allFlights);
+            return scheduleFetcher.fetchEachAsync(keys).thenApply(fetched -> {
+                operatingDays.recordAll(fetched.getSchedules());
+                List<FlightQueryResult> results = new ArrayList<>(queries.size());
+                for (int i = 0; i < queries.size(); i++) {
+                    results.add(errors[i] != null ? FlightQueryResult.failed(errors[i]) : answer(plans[i], fetched));
+                }
+                return results;
+            });
+        });
     }
 
-    private List<FlightResponse> findDirectFlights(
+    /**
+     * Every itinerary of a search once all its months are at hand, in plan order.
+     */
+    private CompletableFuture<List<FlightResponse>> collect(
+            List<Map<String, String>> routes,
             String departure,
             String arrival,
             LocalDateTime departureDateTime,
-            LocalDateTime arrivalDateTime
+            LocalDateTime arrivalDateTime,
+            int maxStops
     ) {
-        // Call the Schedules API via the abstraction
-        Map<String, Object> schedule;
-        try {
-            schedule = schedulesPort.getSchedule(
-                departure, arrival,
-                departureDateTime.getYear(),
-                departureDateTime.getMonthValue()
-            );
-        } catch (Exception ex) {
-            throw ex;
-        }
-
-        List<FlightResponse> flights = new ArrayList<>();
-
-        // If there are no "days" in the schedule, return an empty list
-        if (!schedule.containsKey("days")) {
-            return flights;
-        }
+        SearchPlan plan = plan(routeGraph(routes), departure, arrival, departureDateTime, arrivalDateTime, maxStops);
+        return scheduleFetcher.fetchAllAsync(plan.keys, operatingDays::record).thenApply(schedules ->
+                Itinerary.toFlightResponses(evaluateAll(plan, schedules)));
+    }
 
-        List<Map<String, Object>> days = (List<Map<String, Object>>) schedule.get("days");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+    private CompletableFuture<Void> search(
+            List<Map<String, String>> routes,
+            String departure,
+            String arrival,
+            LocalDateTime departureDateTime,
+            LocalDateTime arrivalDateTime,
+            int maxStops,
+            FlightResultSink sink
+    ) {
+        SearchPlan plan = plan(routeGraph(routes), departure, arrival, departureDateTime, arrivalDateTime, maxStops);
+        AtomicInteger emitted = new AtomicInteger();
+        // Itineraries only become FlightResponses on their way out to the sink
+        Predicate<Itinerary> counted = flight -> {
+            if (!sink.emit(flight.toFlightResponse())) {
+                return false;
+            }
+            emitted.incrementAndGet();
+            return true;
+        };
+        return evaluate(plan, counted).whenComplete((done, failure) -> {
+            if (failure == null) {
+                searchMetrics.completed(plan.maxStops, emitted.get(), plan.evaluationNanos.get());
+            }
+        });
+    }
 
-        for (Map<String, Object> dayEntry : days) {
-            List<Map<String, Object>> flightsInfo =
-                    (List<Map<String, Object>>) dayEntry.get("flights");
-            if (flightsInfo == null) continue;
+    private CompletableFuture<Void> evaluate(SearchPlan plan, Predicate<Itinerary> sink) {
+        if (plan.network != null) {
+            return scheduleFetcher.fetchAllAsync(plan.keys, operatingDays::record)
+                    .thenAccept(schedules -> {
+                        for (Itinerary flight : plan.scan(schedules)) {
+                            if (!sink.test(flight)) {
+                                return;
+                            }
+                        }
+                    });
+        }
 
-            int dayNumber = (int) dayEntry.get("day");
+        // Each month belongs to exactly one unit: a unit is evaluated as soon as its last month arrives
+        Map<ScheduleKey, SearchUnit> unitByKey = new LinkedHashMap<>();
+        for (SearchUnit unit : plan.units) {
+            for (ScheduleKey key : unit.keys) {
+                unitByKey.put(key, unit);
+            }
+        }
+        Map<ScheduleKey, MonthSchedule> schedules = new ConcurrentHashMap<>();
+        return scheduleFetcher.fetchAllAsync(unitByKey.keySet(), (key, schedule) -> {
+            operatingDays.record(key, schedule);
+            schedules.put(key, schedule);
+            SearchUnit unit = unitByKey.get(key);
+            if (unit.remaining.decrementAndGet() == 0 && !emitUnit(plan, unit, schedules, sink)) {
+                throw new CancellationException("Flight result consumer is gone");
+            }
+        }).handle((fetched, failure) -> {
+            if (failure != null && !(Futures.unwrap(failure) instanceof CancellationException)) {
+                // Anything but the consumer going away is a real failure
+                throw failure instanceof CompletionException
+                        ? (CompletionException) failure : new CompletionException(failure);
+            }
+            return null;
+        });
+    }
 
-            for (Map<String, Object> flight : flightsInfo) {
-                String depTimeStr = (String) flight.get("departureTime");
-                String arrTimeStr = (String) flight.get("arrivalTime");
+    /**
+     * Works out which routes a search has to look at and the schedule months they need.
+     * Routes the {@link OperatingDayIndex} knows not to fly inside the window are left out
+     * before anything is fetched.
+     */
+    private SearchPlan plan(RouteGraph graph, String departure, String arrival,
+                            LocalDateTime departureDateTime, LocalDateTime arrivalDateTime, int maxStops) {
+        List<YearMonth> months = monthsInWindow(departureDateTime, arrivalDateTime);
+        SearchPlan plan = new SearchPlan(departure, arrival, months,
+                EpochMinutes.ceil(departureDateTime), EpochMinutes.floor(arrivalDateTime), maxStops);
+
+        if (maxStops > 1) {
+            // Only routes that can be part of an itinerary with at most maxStops stops
+            plan.network = graph.routesOnPathsBetween(departure, arrival, maxStops + 1);
+            int pruned = 0;
+            for (Map.Entry<String, Set<String>> legs : plan.network.entrySet()) {
+                int before = legs.getValue().size();
+                legs.getValue().removeIf(to -> !mayOperate(plan, legs.getKey(), to));
+                pruned += before - legs.getValue().size();
+            }
+            plan.network.values().removeIf(Set::isEmpty);
+            plan.network.forEach((from, destinations) -> {
+                for (String to : destinations) {
+                    addScheduleKeys(plan.keys, from, to, months);
+                }
+            });
+            Set<String> stopovers = new HashSet<>(plan.network.keySet());
+            plan.network.values().forEach(stopovers::addAll);
+            stopovers.remove(departure);
+            stopovers.remove(arrival);
+            routeDemand.record(plan.keys);
+            searchMetrics.planned(maxStops, stopovers.size(), plan.keys.size());
+            searchMetrics.pruned(maxStops, pruned);
+            return plan;
+        }
 
-                if (depTimeStr != null && arrTimeStr != null) {
-                    try {
-                        LocalTime depTime = LocalTime.parse(depTimeStr, timeFormatter);
-                        LocalTime arrTime = LocalTime.parse(arrTimeStr, timeFormatter);
+        // One unit of work per route: the direct flight and each stopover
+        plan.units = new ArrayList<>();
+        int pruned = 0;
+        if (graph.hasRoute(departure, arrival)) {
+            if (mayOperate(plan, departure, arrival)) {
+                plan.units.add(new SearchUnit(null, months, departure, arrival));
+            } else {
+                pruned++;
+            }
+        }
+        if (maxStops > 0) {
+            for (String stopover : graph.stopoversBetween(departure, arrival)) {
+                if (mayOperate(plan, departure, stopover) && mayOperate(plan, stopover, arrival)) {
+                    plan.units.add(new SearchUnit(stopover, months, departure, arrival));
+                } else {
+                    pruned++;
+                }
+            }
+        }
+        int stopovers = 0;
+        for (SearchUnit unit : plan.units) {
+            plan.keys.addAll(unit.keys);
+            if (unit.stopover != null) {
+                stopovers++;
+            }
+        }
+        routeDemand.record(plan.keys);
+        searchMetrics.planned(maxStops, stopovers, plan.keys.size());
+        searchMetrics.pruned(maxStops, pruned);
+        return plan;
+    }
 
-                        LocalDateTime flightDeparture = LocalDateTime.of(
-                                departureDateTime.getYear(),
-                                departureDateTime.getMonthValue(),
-                                dayNumber,
-                                depTime.getHour(),
-                                depTime.getMinute()
-                        );
+    private boolean mayOperate(SearchPlan plan, String from, String to) {
+        return operatingDays.mayOperate(from, to, plan.months, plan.windowStart, plan.windowEnd);
+    }
 
-                        // If arrivalTime is before departureTime, it means the flight crosses midnight
-                        int arrivalDayNumber = dayNumber;
-                        if (arrTime.isBefore(depTime)) {
-                            arrivalDayNumber++;
-                        }
+    private FlightQueryResult answer(SearchPlan plan, ScheduleFetcher.FetchResult fetched) {
+        for (ScheduleKey key : plan.keys) {
+            Throwable failure = fetched.getFailures().get(key);
+            if (failure != null) {
+                return FlightQueryResult.failed(failure.getMessage());
+            }
+        }
+        return FlightQueryResult.of(Itinerary.toFlightResponses(evaluateAll(plan, fetched.getSchedules())));
+    }
+
+    /**
+     * Evaluates what can be answered without the months that failed. Up to one stop, a unit
+     * missing any month is skipped as a whole; from two stops on, the legs whose months
+     * failed are left out of the network.
+     */
+    private FlightSearchResult evaluatePartial(SearchPlan plan, ScheduleFetcher.FetchResult fetched) {
+        Map<ScheduleKey, Throwable> failures = fetched.getFailures();
+        Set<String> skipped = new LinkedHashSet<>();
+        List<SearchUnit> answerable = null;
+        if (plan.network != null) {
+            for (ScheduleKey key : plan.keys) {
+                if (failures.containsKey(key)) {
+                    skipped.add(key.getDeparture() + "-" + key.getArrival());
+                }
+            }
+        } else {
+            answerable = new ArrayList<>();
+            for (SearchUnit unit : plan.units) {
+                if (unit.keys.stream().anyMatch(failures::containsKey)) {
+                    skipped.add(unit.stopover == null
+                            ? plan.departure + "-" + plan.arrival
+                            : plan.departure + "-" + unit.stopover + "-" + plan.arrival);
+                } else {
+                    answerable.add(unit);
+                }
+            }
+        }
+        List<Itinerary> flights = flights(plan, answerable, fetched.getSchedules());
+        log.debug("Partial search {} -> {}: skipped {}", plan.departure, plan.arrival, skipped);
+        searchMetrics.completed(plan.maxStops, flights.size(), plan.evaluationNanos.get());
+        return new FlightSearchResult(flights, SearchResultCache.version(flights), new ArrayList<>(skipped));
+    }
 
-                        LocalDateTime flightArrival = LocalDateTime.of(
-                                departureDateTime.getYear(),
-                                departureDateTime.getMonthValue(),
-                                arrivalDayNumber,
-                                arrTime.getHour(),
-                                arrTime.getMinute()
-                        );
+    /**
+     * Evaluates a search once all its schedule months are at hand, unit by unit in plan order.
+     */
+    private List<Itinerary> evaluateAll(SearchPlan plan, Map<ScheduleKey, MonthSchedule> schedules) {
+        List<Itinerary> flights = flights(plan, plan.units, schedules);
+        searchMetrics.completed(plan.maxStops, flights.size(), plan.evaluationNanos.get());
+        return flights;
+    }
 
-                        if (!flightDeparture.isBefore(departureDateTime) &&
-                            !flightArrival.isAfter(arrivalDateTime)) {
+    /**
+     * Itineraries of the given units, or of the network from two stops on, in the order
+     * and up to the limit the plan asks for.
+     */
+    private List<Itinerary> flights(SearchPlan plan, List<SearchUnit> units,
+                                    Map<ScheduleKey, MonthSchedule> schedules) {
+        if (plan.network != null) {
+            List<Itinerary> flights = plan.scan(schedules);
+            if (plan.sort == null) {
+                return flights;
+            }
+            // The Pareto set is small: rank it as a whole
+            TopFlights top = new TopFlights(plan.sort, plan.limit);
+            flights.forEach(top::offer);
+            return top.toList();
+        }
+        if (plan.sort == null) {
+            List<Itinerary> flights = new ArrayList<>();
+            for (SearchUnit unit : units) {
+                emitUnit(plan, unit, schedules, flights::add);
+            }
+            return flights;
+        }
+        return rank(plan, units, schedules, new TopFlights(plan.sort, plan.limit));
+    }
 
-                            FlightLeg leg = new FlightLeg(departure, arrival,
-                                    flightDeparture, flightArrival);
-                            flights.add(new FlightResponse(0, List.of(leg)));
-                        }
+    /**
+     * Evaluates the units most promising first: each gets a lower bound for the rank of
+     * any itinerary it can produce, and once that bound cannot beat the current K-th
+     * result neither that unit nor any after it is paired.
+     */
+    private List<Itinerary> rank(SearchPlan plan, List<SearchUnit> units,
+                                 Map<ScheduleKey, MonthSchedule> schedules, TopFlights top) {
+        long start = System.nanoTime();
+        FlightSort sort = top.sort();
+        List<RankedUnit> candidates = new ArrayList<>(units.size());
+        for (SearchUnit unit : units) {
+            String firstArrival = unit.stopover == null ? plan.arrival : unit.stopover;
+            LegFlights firstLeg = LegFlights.collect(schedules, plan.months, plan.departure, firstArrival,
+                    plan.windowStart, plan.windowEnd);
+            if (firstLeg.isEmpty()) {
+                continue;
+            }
+            if (unit.stopover == null) {
+                candidates.add(new RankedUnit(firstLeg, null,
+                        sort.bound(earliestArrival(firstLeg), shortestDuration(firstLeg), 0)));
+                continue;
+            }
+            LegFlights secondLeg = LegFlights.collect(schedules, plan.months, unit.stopover, plan.arrival,
+                    plan.windowStart, plan.windowEnd);
+            if (secondLeg.isEmpty()) {
+                continue;
+            }
+            int shortest = shortestDuration(firstLeg) + minConnectionMinutes + shortestDuration(secondLeg);
+            candidates.add(new RankedUnit(firstLeg, secondLeg, sort.bound(earliestArrival(secondLeg), shortest, 1)));
+        }
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.bound));
 
-                    } catch (java.time.DateTimeException e) {
-                        // Example: Invalid date 'JUNE 31'
-                        System.out.println("Invalid date detected: " +
-                                dayNumber + " " + departureDateTime.getMonth() +
-                                " => " + e.getMessage());
-                        continue; // Discard this flight
+        for (RankedUnit candidate : candidates) {
+            if (!top.accepts(candidate.bound)) {
+                break;
+            }
+            LegFlights firstLeg = candidate.firstLeg;
+            if (candidate.secondLeg == null) {
+                for (int i = 0; i < firstLeg.size(); i++) {
+                    long rank = sort.rank(firstLeg.departureAt(i), firstLeg.arrivalAt(i), 0);
+                    if (top.accepts(rank)) {
+                        top.offer(rank, firstLeg.toItinerary(i));
                     }
                 }
+            } else {
+                rankConnectingFlights(firstLeg, candidate.secondLeg, top);
             }
         }
-        return flights;
+        plan.evaluated(start);
+        return top.toList();
+    }
+
+    /**
+     * {@link #findConnectingFlights} for a ranked search: a pair is only built into an
+     * {@link Itinerary} if it makes it into the top results.
+     */
+    private void rankConnectingFlights(LegFlights firstLeg, LegFlights secondLeg, TopFlights top) {
+        FlightSort sort = top.sort();
+        for (int i = 0; i < firstLeg.size(); i++) {
+            int landing = firstLeg.arrivalAt(i);
+            long latestDeparture = (long) landing + maxLayoverMinutes;
+
+            for (int j = secondLeg.firstDepartureAfter(landing + minConnectionMinutes);
+                 j < secondLeg.size() && secondLeg.departureAt(j) <= latestDeparture; j++) {
+                long rank = sort.rank(firstLeg.departureAt(i), secondLeg.arrivalAt(j), 1);
+                if (top.accepts(rank)) {
+                    top.offer(rank, firstLeg.connect(i, secondLeg, j));
+                }
+            }
+        }
+    }
+
+    private static int earliestArrival(LegFlights leg) {
+        int earliest = Integer.MAX_VALUE;
+        for (int i = 0; i < leg.size(); i++) {
+            earliest = Math.min(earliest, leg.arrivalAt(i));
+        }
+        return earliest;
+    }
+
+    private static int shortestDuration(LegFlights leg) {
+        int shortest = Integer.MAX_VALUE;
+        for (int i = 0; i < leg.size(); i++) {
+            shortest = Math.min(shortest, leg.arrivalAt(i) - leg.departureAt(i));
+        }
+        return shortest;
     }
 
-    private List<FlightResponse> findConnectingFlights(
+    /**
+     * Checks the search parameters.
+     *
+     * @throws IllegalArgumentException if any of them is invalid
+     */
+    public void validate(
             String departure,
-            String stopover,
             String arrival,
             LocalDateTime departureDateTime,
-            LocalDateTime arrivalDateTime
+            LocalDateTime arrivalDateTime,
+            int maxStops
     ) {
-        // First leg
-        List<FlightResponse> firstLegFlights = findDirectFlights(
-                departure, stopover, departureDateTime, arrivalDateTime
-        );
-        // Second leg
-        List<FlightResponse> secondLegFlights = findDirectFlights(
-                stopover, arrival, departureDateTime, arrivalDateTime
-        );
-
-        List<FlightResponse> connectedFlights = new ArrayList<>();
-
-        for (FlightResponse firstLeg : firstLegFlights) {
-            FlightLeg leg1 = firstLeg.getLegs().get(0);
-
-            for (FlightResponse secondLeg : secondLegFlights) {
-                FlightLeg leg2 = secondLeg.getLegs().get(0);
-
-                // Minimum of 2 hours between the arrival of the first leg and the departure of the second leg
-                if (leg1.getArrivalDateTime().plusHours(2).isBefore(leg2.getDepartureDateTime())) {
-                    FlightResponse connecting = new FlightResponse(1, List.of(leg1, leg2));
-                    connectedFlights.add(connecting);
+        if (departure == null || departure.isBlank()) {
+            throw new IllegalArgumentException("The 'departure' parameter cannot be null or empty");
+        }
+        if (arrival == null || arrival.isBlank()) {
+            throw new IllegalArgumentException("The 'arrival' parameter cannot be null or empty");
+        }
+        if (departureDateTime == null || arrivalDateTime == null) {
+            throw new IllegalArgumentException("Departure/arrival dates cannot be null");
+        }
+        if (!departureDateTime.isBefore(arrivalDateTime)) {
+            throw new IllegalArgumentException("departureDateTime must be earlier than arrivalDateTime");
+        }
+        if (departure.equals(arrival)) {
+            throw new IllegalArgumentException("departure and arrival cannot be the same");
+        }
+        if (maxStops < 0 || maxStops > MAX_STOPS_LIMIT) {
+            throw new IllegalArgumentException("maxStops must be between 0 and " + MAX_STOPS_LIMIT);
+        }
+    }
+
+    private boolean emitUnit(SearchPlan plan, SearchUnit unit, Map<ScheduleKey, MonthSchedule> schedules,
+                             Predicate<Itinerary> sink) {
+        long start = System.nanoTime();
+        // Direct flights
+        if (unit.stopover == null) {
+            LegFlights direct = LegFlights.collect(schedules, plan.months, plan.departure, plan.arrival,
+                    plan.windowStart, plan.windowEnd);
+            plan.evaluated(start);
+            for (int i = 0; i < direct.size(); i++) {
+                if (!sink.test(direct.toItinerary(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Flights with a stopover
+        LegFlights firstLeg = LegFlights.collect(schedules, plan.months, plan.departure, unit.stopover,
+                plan.windowStart, plan.windowEnd);
+        if (firstLeg.isEmpty()) {
+            plan.evaluated(start);
+            return true;
+        }
+        LegFlights secondLeg = LegFlights.collect(schedules, plan.months, unit.stopover, plan.arrival,
+                plan.windowStart, plan.windowEnd);
+        List<Itinerary> connecting = findConnectingFlights(firstLeg, secondLeg);
+        plan.evaluated(start);
+
+        if (!connecting.isEmpty()) {
+            log.debug("Stopover route detected: {} -> {} -> {}", plan.departure, unit.stopover, plan.arrival);
+            for (Itinerary flight : connecting) {
+                if (!sink.test(flight)) {
+                    return false;
                 }
             }
         }
+        return true;
+    }
+
+    private RouteGraph routeGraph(List<Map<String, String>> routes) {
+        IndexedRoutes current = indexedRoutes;
+        if (current == null || current.routes != routes) {
+            current = new IndexedRoutes(routes, RouteGraph.from(routes));
+            indexedRoutes = current;
+        }
+        return current.graph;
+    }
+
+    /**
+     * Every (year, month) a flight departing inside the window can belong to.
+     */
+    static List<YearMonth> monthsInWindow(LocalDateTime departureDateTime, LocalDateTime arrivalDateTime) {
+        List<YearMonth> months = new ArrayList<>();
+        YearMonth last = YearMonth.from(arrivalDateTime);
+        for (YearMonth month = YearMonth.from(departureDateTime); !month.isAfter(last); month = month.plusMonths(1)) {
+            months.add(month);
+        }
+        return months;
+    }
+
+    private static void addScheduleKeys(Collection<ScheduleKey> keys, String from, String to, List<YearMonth> months) {
+        for (YearMonth month : months) {
+            keys.add(new ScheduleKey(from, to, month.getYear(), month.getMonthValue()));
+        }
+    }
+
+    /**
+     * Pairs first and second legs with a sorted merge: for each first leg, binary-search
+     * the first second leg leaving more than the minimum connection after landing and
+     * walk forward only while the layover stays within the maximum.
+     */
+    private List<Itinerary> findConnectingFlights(LegFlights firstLeg, LegFlights secondLeg) {
+        List<Itinerary> connectedFlights = new ArrayList<>();
+        if (secondLeg.isEmpty()) {
+            return connectedFlights;
+        }
+
+        for (int i = 0; i < firstLeg.size(); i++) {
+            int landing = firstLeg.arrivalAt(i);
+            long latestDeparture = (long) landing + maxLayoverMinutes;
+
+            int j = secondLeg.firstDepartureAfter(landing + minConnectionMinutes);
+            if (j == secondLeg.size() || secondLeg.departureAt(j) > latestDeparture) {
+                continue;
+            }
+            for (; j < secondLeg.size() && secondLeg.departureAt(j) <= latestDeparture; j++) {
+                connectedFlights.add(firstLeg.connect(i, secondLeg, j));
+            }
+        }
         return connectedFlights;
     }
+
+    /**
+     * What a single search needs from upstream: up to one stop, the units of work to
+     * evaluate; from two stops on, the network handed to the {@link ConnectionScanEngine}.
+     */
+    private final class SearchPlan {
+        private final String departure;
+        private final String arrival;
+        private final List<YearMonth> months;
+        private final int windowStart;
+        private final int windowEnd;
+        private final int maxStops;
+        private final Set<ScheduleKey> keys = new LinkedHashSet<>();
+        // CPU time spent turning schedules into itineraries, summed over the units
+        private final AtomicLong evaluationNanos = new AtomicLong();
+        private List<SearchUnit> units;
+        private Map<String, Set<String>> network;
+        // Ranking asked for by searchAsync; null keeps plan order
+        private FlightSort sort;
+        private int limit;
+
+        private SearchPlan(String departure, String arrival, List<YearMonth> months,
+                           int windowStart, int windowEnd, int maxStops) {
+            this.departure = departure;
+            this.arrival = arrival;
+            this.months = months;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+            this.maxStops = maxStops;
+        }
+
+        private List<Itinerary> scan(Map<ScheduleKey, MonthSchedule> schedules) {
+            long start = System.nanoTime();
+            List<Itinerary> flights = connectionScan.search(schedules, months, network, departure, arrival,
+                    windowStart, windowEnd, maxStops);
+            evaluated(start);
+            return flights;
+        }
+
+        private void evaluated(long startNanos) {
+            evaluationNanos.addAndGet(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * The direct route ({@code stopover == null}) or one stopover, with the months it needs.
+     */
+    private static final class SearchUnit {
+        private final String stopover;
+        private final List<ScheduleKey> keys = new ArrayList<>();
+        private final AtomicInteger remaining;
+
+        private SearchUnit(String stopover, List<YearMonth> months, String departure, String arrival) {
+            this.stopover = stopover;
+            if (stopover == null) {
+                addScheduleKeys(keys, departure, arrival, months);
+            } else {
+                addScheduleKeys(keys, departure, stopover, months);
+                addScheduleKeys(keys, stopover, arrival, months);
+            }
+            this.remaining = new AtomicInteger(keys.size());
+        }
+    }
+
+    /**
+     * A unit whose legs are already collected, with the lowest rank it can produce.
+     */
+    private static final class RankedUnit {
+        private final LegFlights firstLeg;
+        private final LegFlights secondLeg;
+        private final long bound;
+
+        private RankedUnit(LegFlights firstLeg, LegFlights secondLeg, long bound) {
+            this.firstLeg = firstLeg;
+            this.secondLeg = secondLeg;
+            this.bound = bound;
+        }
+    }
+
+    private static final class IndexedRoutes {
+        private final List<Map<String, String>> routes;
+        private final RouteGraph graph;
+
+        private IndexedRoutes(List<Map<String, String>> routes, RouteGraph graph) {
+            this.routes = routes;
+            this.graph = graph;
+        }
+    }
 }
@@ -0,0 +1,121 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.AirportCode;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flights of one route that fit inside a search window, kept as parallel
+ * epoch-minute arrays sorted by departure.
+ * <p>
+ * The route is kept as an {@link AirportCode#route} id; {@link Itinerary} objects are
+ * only created for flights that end up in a result.
+ */
+final class LegFlights {
+
+    private final int route;
+    private final int[] departures;
+    private final int[] arrivals;
+    private final int size;
+
+    private LegFlights(int route, int[] departures, int[] arrivals, int size) {
+        this.route = route;
+        this.departures = departures;
+        this.arrivals = arrivals;
+        this.size = size;
+    }
+
+    /**
+     * Flights departing at or after {@code windowStart} and arriving at or before
+     * {@code windowEnd}, merged across every month of the window.
+     */
+    static LegFlights collect(Map<ScheduleKey, MonthSchedule> schedules, List<YearMonth> months,
+                              String departure, String arrival, int windowStart, int windowEnd) {
+        int[] departures = new int[8];
+        int[] arrivals = new int[8];
+        int size = 0;
+
+        // Months are consecutive and each month is sorted, so the result stays sorted
+        for (YearMonth month : months) {
+            MonthSchedule schedule = schedules.get(
+                    new ScheduleKey(departure, arrival, month.getYear(), month.getMonthValue()));
+            if (schedule == null) {
+                continue;
+            }
+            for (int i = schedule.firstDepartureAtOrAfter(windowStart);
+                 i < schedule.size() && schedule.departureAt(i) <= windowEnd; i++) {
+                if (schedule.arrivalAt(i) > windowEnd) {
+                    continue;
+                }
+                if (size == departures.length) {
+                    departures = Arrays.copyOf(departures, size * 2);
+                    arrivals = Arrays.copyOf(arrivals, size * 2);
+                }
+                departures[size] = schedule.departureAt(i);
+                arrivals[size] = schedule.arrivalAt(i);
+                size++;
+            }
+        }
+        return new LegFlights(AirportCode.route(departure, arrival), departures, arrivals, size);
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int departureAt(int index) {
+        return departures[index];
+    }
+
+    int arrivalAt(int index) {
+        return arrivals[index];
+    }
+
+    /**
+     * Index of the first flight departing strictly after {@code epochMinute},
+     * or {@link #size()} if there is none.
+     */
+    int firstDepartureAfter(int epochMinute) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departures[mid] <= epochMinute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int route() {
+        return route;
+    }
+
+    /**
+     * Direct itinerary made of flight {@code index}.
+     */
+    Itinerary toItinerary(int index) {
+        return Itinerary.direct(route, departures[index], arrivals[index]);
+    }
+
+    /**
+     * One-stop itinerary made of flight {@code index} followed by flight {@code next} of
+     * {@code onward}.
+     */
+    Itinerary connect(int index, LegFlights onward, int next) {
+        return Itinerary.oneStop(route, departures[index], arrivals[index],
+                onward.route, onward.departures[next], onward.arrivals[next]);
+    }
+}
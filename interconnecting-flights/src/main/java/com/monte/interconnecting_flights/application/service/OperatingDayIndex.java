@@ -0,0 +1,146 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Days of the month on which each route has departures, one 31-bit mask per schedule
+ * month, learnt from every month searches and the {@link ScheduleCrawler} fetch.
+ * <p>
+ * A search asks it before fetching anything: a route whose months are all known and
+ * none of whose operating days fall in the window cannot contribute a flight, so its
+ * schedules are not requested. Seasonal and weekly routes are the common case. A
+ * mask is forgotten {@code search.operating-days.ttl} after it was learnt, so a
+ * timetable change is picked up by the next fetch after that. The TTL defaults to,
+ * and is capped at, {@code schedules.cache.ttl}: a skipped route is never fetched, so
+ * trusting its mask any longer would hide a new flight longer than the cache would.
+ */
+@Component
+public class OperatingDayIndex {
+
+    private static final int MINUTES_PER_DAY = EpochMinutes.MINUTES_PER_DAY;
+
+    private final long ttlMillis;
+    private final Clock clock;
+    private final Map<ScheduleKey, Entry> masks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public OperatingDayIndex(@Value("${search.operating-days.ttl:${schedules.cache.ttl:1h}}") Duration ttl,
+                             @Value("${schedules.cache.ttl:1h}") Duration schedulesTtl) {
+        this(ttl, schedulesTtl, Clock.systemUTC());
+    }
+
+    public OperatingDayIndex(Duration ttl) {
+        this(ttl, ttl, Clock.systemUTC());
+    }
+
+    OperatingDayIndex(Duration ttl, Clock clock) {
+        this(ttl, ttl, clock);
+    }
+
+    OperatingDayIndex(Duration ttl, Duration schedulesTtl, Clock clock) {
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("search.operating-days.ttl must be zero or positive");
+        }
+        this.ttlMillis = Math.min(ttl.toMillis(), Math.max(0, schedulesTtl.toMillis()));
+        this.clock = clock;
+    }
+
+    /**
+     * Index that learns nothing: every route may operate.
+     */
+    public static OperatingDayIndex disabled() {
+        return new OperatingDayIndex(Duration.ZERO);
+    }
+
+    /**
+     * Remembers the days on which {@code schedule} has departures.
+     */
+    public void record(ScheduleKey key, MonthSchedule schedule) {
+        if (ttlMillis == 0) {
+            return;
+        }
+        int firstDay = firstEpochDay(key.getYear(), key.getMonth());
+        int days = 0;
+        for (int i = 0; i < schedule.size(); i++) {
+            int day = schedule.departureAt(i) / MINUTES_PER_DAY - firstDay;
+            if (day >= 0 && day < 31) {
+                days |= 1 << day;
+            }
+        }
+        masks.put(key, new Entry(days, clock.millis() + ttlMillis));
+    }
+
+    public void recordAll(Map<ScheduleKey, MonthSchedule> schedules) {
+        schedules.forEach(this::record);
+    }
+
+    /**
+     * Whether the route may have a flight departing between {@code windowStart} and
+     * {@code windowEnd}: false only when every month of the window is known and none
+     * of their operating days falls inside it.
+     */
+    public boolean mayOperate(String departure, String arrival, List<YearMonth> months,
+                              int windowStart, int windowEnd) {
+        if (ttlMillis == 0) {
+            return true;
+        }
+        long now = clock.millis();
+        int startDay = windowStart / MINUTES_PER_DAY;
+        int endDay = windowEnd / MINUTES_PER_DAY;
+        for (YearMonth month : months) {
+            ScheduleKey key = new ScheduleKey(departure, arrival, month.getYear(), month.getMonthValue());
+            Entry entry = masks.get(key);
+            if (entry == null || entry.expiresAt <= now) {
+                if (entry != null) {
+                    masks.remove(key, entry);
+                }
+                return true;
+            }
+            int firstDay = firstEpochDay(month.getYear(), month.getMonthValue());
+            int from = Math.max(0, startDay - firstDay);
+            int to = Math.min(month.lengthOfMonth() - 1, endDay - firstDay);
+            if (from <= to && (entry.days & daysBetween(from, to)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Months currently known, including ones not yet found expired.
+     */
+    public int size() {
+        return masks.size();
+    }
+
+    private static int daysBetween(int from, int to) {
+        // Bits from..to inclusive, for 0 <= from <= to <= 30
+        return (int) (((1L << (to + 1)) - 1) & ~((1L << from) - 1));
+    }
+
+    private static int firstEpochDay(int year, int month) {
+        return Math.toIntExact(YearMonth.of(year, month).atDay(1).toEpochDay());
+    }
+
+    private static final class Entry {
+        private final int days;
+        private final long expiresAt;
+
+        private Entry(int days, long expiresAt) {
+            this.days = days;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
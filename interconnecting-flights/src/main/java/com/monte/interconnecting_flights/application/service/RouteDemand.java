@@ -0,0 +1,44 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts how many searches needed the schedules of each route, so background work
+ * can start with the routes users actually ask for.
+ */
+@Component
+public class RouteDemand {
+
+    private final Map<String, Map<String, LongAdder>> searchesByRoute = new ConcurrentHashMap<>();
+
+    /**
+     * Counts one search for every route among {@code keys}, whatever the number of months.
+     */
+    public void record(Collection<ScheduleKey> keys) {
+        Set<String> seen = new HashSet<>();
+        for (ScheduleKey key : keys) {
+            if (seen.add(key.getDeparture() + '-' + key.getArrival())) {
+                searchesByRoute.computeIfAbsent(key.getDeparture(), from -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(key.getArrival(), to -> new LongAdder())
+                        .increment();
+            }
+        }
+    }
+
+    /**
+     * Searches that needed the route from {@code from} to {@code to} so far.
+     */
+    public long count(String from, String to) {
+        Map<String, LongAdder> destinations = searchesByRoute.get(from);
+        LongAdder count = destinations == null ? null : destinations.get(to);
+        return count == null ? 0 : count.sum();
+    }
+}
@@ -0,0 +1,310 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.RouteGraph;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.domain.port.outbound.RoutesPort;
+import com.monte.interconnecting_flights.domain.port.outbound.SchedulesPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks every route of the network and requests its next {@code crawler.months-ahead}
+ * schedule months, so searches find them already cached instead of paying for the
+ * upstream calls.
+ * <p>
+ * Routes searched most often ({@link RouteDemand}) are crawled first, and a pass stops
+ * at {@code crawler.max-months}, by default the schedules cache's
+ * {@code schedules.cache.max-entries}: crawling more than the cache holds would only
+ * evict the months of the most searched routes, which went in first. Requests are
+ * started at most {@code crawler.rate-limit} times per second with at most
+ * {@code crawler.max-concurrency} in flight; months that are already cached answer
+ * right away and do not count against the rate. A pass can be paused and resumed at
+ * any time; with {@code crawler.enabled} a new pass starts every {@code crawler.interval},
+ * by default {@code schedules.cache.ttl}, so months are fetched again as they expire.
+ * Every month crawled also teaches the {@link OperatingDayIndex} on which days its route flies.
+ */
+@Slf4j
+@Component
+public class ScheduleCrawler {
+
+    public enum State { IDLE, RUNNING, PAUSED }
+
+    private final RoutesPort routesPort;
+    private final SchedulesPort schedulesPort;
+    private final RouteDemand routeDemand;
+    private final OperatingDayIndex operatingDays;
+    private final int monthsAhead;
+    private final int maxMonths;
+    private final long dispatchIntervalNanos;
+    private final int maxConcurrency;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+
+    // Guarded by "this"
+    private Pass pass;
+    private boolean paused;
+    private int completedPasses;
+
+    @Autowired
+    public ScheduleCrawler(RoutesPort routesPort,
+                           SchedulesPort schedulesPort,
+                           RouteDemand routeDemand,
+                           OperatingDayIndex operatingDays,
+                           @Value("${crawler.enabled:false}") boolean enabled,
+                           @Value("${crawler.interval:${schedules.cache.ttl:1h}}") Duration interval,
+                           @Value("${crawler.months-ahead:3}") int monthsAhead,
+                           @Value("${crawler.max-months:${schedules.cache.max-entries:10000}}") int maxMonths,
+                           @Value("${crawler.rate-limit:20}") double requestsPerSecond,
+                           @Value("${crawler.max-concurrency:4}") int maxConcurrency) {
+        this(routesPort, schedulesPort, routeDemand, operatingDays, monthsAhead, maxMonths, requestsPerSecond,
+                maxConcurrency, Clock.systemUTC());
+        if (enabled) {
+            if (interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("crawler.interval must be positive");
+            }
+            // A pass still running when the next one is due simply skips it
+            scheduler.scheduleWithFixedDelay(this::start, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Crawler that only runs when {@link #start()} is called.
+     */
+    public ScheduleCrawler(RoutesPort routesPort, SchedulesPort schedulesPort, RouteDemand routeDemand,
+                           int monthsAhead, int maxMonths, double requestsPerSecond, int maxConcurrency,
+                           Clock clock) {
+        this(routesPort, schedulesPort, routeDemand, OperatingDayIndex.disabled(), monthsAhead, maxMonths,
+                requestsPerSecond, maxConcurrency, clock);
+    }
+
+    ScheduleCrawler(RoutesPort routesPort, SchedulesPort schedulesPort, RouteDemand routeDemand,
+                    OperatingDayIndex operatingDays, int monthsAhead, int maxMonths, double requestsPerSecond,
+                    int maxConcurrency, Clock clock) {
+        if (monthsAhead <= 0) {
+            throw new IllegalArgumentException("crawler.months-ahead must be positive");
+        }
+        if (maxMonths <= 0) {
+            throw new IllegalArgumentException("crawler.max-months must be positive");
+        }
+        if (!(requestsPerSecond > 0)) {
+            throw new IllegalArgumentException("crawler.rate-limit must be positive");
+        }
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("crawler.max-concurrency must be positive");
+        }
+        this.routesPort = routesPort;
+        this.schedulesPort = schedulesPort;
+        this.routeDemand = routeDemand;
+        this.operatingDays = operatingDays;
+        this.monthsAhead = monthsAhead;
+        this.maxMonths = maxMonths;
+        this.dispatchIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.maxConcurrency = maxConcurrency;
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-crawler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts a pass over the whole network. If the crawler is paused, the pass waits
+     * for {@link #resume()}.
+     *
+     * @return false if a pass is already running
+     */
+    public boolean start() {
+        Pass started;
+        synchronized (this) {
+            if (pass != null && pass.finishedAt == null) {
+                return false;
+            }
+            started = new Pass(clock.instant());
+            pass = started;
+        }
+
+        CompletableFuture<List<Map<String, String>>> routes;
+        try {
+            routes = routesPort.getRoutesAsync();
+        } catch (RuntimeException ex) {
+            routes = CompletableFuture.failedFuture(ex);
+        }
+        routes.whenComplete((loaded, failure) -> {
+            if (failure != null) {
+                log.warn("Schedule crawl aborted, routes unavailable: {}", failure.getMessage());
+                finish(started);
+                return;
+            }
+            Queue<ScheduleKey> keys = plan(loaded);
+            synchronized (this) {
+                started.pending = keys;
+                started.scheduleCount = keys.size();
+                started.ticker = scheduler.scheduleAtFixedRate(() -> dispatch(started), 0,
+                        dispatchIntervalNanos, TimeUnit.NANOSECONDS);
+            }
+            log.info("Schedule crawl started: {} schedule months", keys.size());
+        });
+        return true;
+    }
+
+    /**
+     * Stops starting requests; the ones in flight still complete.
+     */
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    public synchronized void resume() {
+        paused = false;
+    }
+
+    public synchronized CrawlProgress progress() {
+        State state = paused ? State.PAUSED
+                : pass != null && pass.finishedAt == null ? State.RUNNING : State.IDLE;
+        if (pass == null) {
+            return new CrawlProgress(state, completedPasses, 0, 0, 0, 0, null, null);
+        }
+        return new CrawlProgress(state, completedPasses, pass.scheduleCount, pass.fetched, pass.failed,
+                pass.inFlight, pass.startedAt, pass.finishedAt);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * The schedule months to crawl, most searched routes first, at most {@code maxMonths}.
+     */
+    private Queue<ScheduleKey> plan(List<Map<String, String>> routes) {
+        RouteGraph graph = RouteGraph.from(routes);
+        YearMonth firstMonth = YearMonth.now(clock);
+
+        List<ScheduleKey> byRoute = new ArrayList<>(graph.routeCount());
+        for (String from : graph.airports()) {
+            for (String to : graph.destinationsFrom(from)) {
+                byRoute.add(new ScheduleKey(from, to, firstMonth.getYear(), firstMonth.getMonthValue()));
+            }
+        }
+        // Stable sort: routes nobody searched yet keep the network order
+        byRoute.sort(Comparator.comparingLong(
+                (ScheduleKey key) -> routeDemand.count(key.getDeparture(), key.getArrival())).reversed());
+
+        Queue<ScheduleKey> keys = new ArrayDeque<>(Math.min(byRoute.size() * monthsAhead, maxMonths));
+        for (ScheduleKey route : byRoute) {
+            for (int i = 0; i < monthsAhead && keys.size() < maxMonths; i++) {
+                YearMonth month = firstMonth.plusMonths(i);
+                keys.add(new ScheduleKey(route.getDeparture(), route.getArrival(),
+                        month.getYear(), month.getMonthValue()));
+            }
+        }
+        if (keys.size() == maxMonths && byRoute.size() * (long) monthsAhead > maxMonths) {
+            log.info("Schedule crawl capped at {} of {} schedule months", maxMonths,
+                    byRoute.size() * (long) monthsAhead);
+        }
+        return keys;
+    }
+
+    /**
+     * Runs once per rate-limit slot: starts the next request, plus any number of
+     * requests answered without going upstream.
+     */
+    private void dispatch(Pass current) {
+        while (true) {
+            ScheduleKey key;
+            synchronized (this) {
+                if (paused || current.inFlight >= maxConcurrency) {
+                    return;
+                }
+                key = current.pending.poll();
+                if (key == null) {
+                    if (current.inFlight == 0) {
+                        finish(current);
+                    }
+                    return;
+                }
+                current.inFlight++;
+            }
+
+            CompletableFuture<MonthSchedule> call;
+            try {
+                call = schedulesPort.getScheduleAsync(key.getDeparture(), key.getArrival(),
+                        key.getYear(), key.getMonth());
+            } catch (RuntimeException ex) {
+                call = CompletableFuture.failedFuture(ex);
+            }
+            boolean answeredRightAway = call.isDone();
+            ScheduleKey requested = key;
+            call.whenComplete((schedule, failure) -> {
+                if (failure == null && schedule != null) {
+                    operatingDays.record(requested, schedule);
+                }
+                completed(current, requested, failure);
+            });
+            if (!answeredRightAway) {
+                return;
+            }
+        }
+    }
+
+    private synchronized void completed(Pass current, ScheduleKey key, Throwable failure) {
+        current.inFlight--;
+        if (failure == null) {
+            current.fetched++;
+        } else {
+            current.failed++;
+            log.debug("Schedule crawl could not fetch {}: {}", key, failure.getMessage());
+        }
+    }
+
+    private synchronized void finish(Pass current) {
+        if (current.finishedAt != null) {
+            return;
+        }
+        if (current.ticker != null) {
+            current.ticker.cancel(false);
+        }
+        current.finishedAt = clock.instant();
+        completedPasses++;
+        log.info("Schedule crawl finished: {} fetched, {} failed", current.fetched, current.failed);
+    }
+
+    /**
+     * One walk over the network. Guarded by the crawler.
+     */
+    private static final class Pass {
+        private final Instant startedAt;
+        private Queue<ScheduleKey> pending = new ArrayDeque<>();
+        private ScheduledFuture<?> ticker;
+        private int scheduleCount;
+        private int fetched;
+        private int failed;
+        private int inFlight;
+        private Instant finishedAt;
+
+        private Pass(Instant startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
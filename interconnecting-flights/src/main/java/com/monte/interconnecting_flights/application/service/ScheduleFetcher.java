@@ -0,0 +1,285 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
+import com.monte.interconnecting_flights.domain.port.outbound.SchedulesPort;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Fans out the schedule months a search needs to {@link SchedulesPort} concurrently.
+ * <p>
+ * Each fetch keeps at most {@code search.fetch.max-concurrency} upstream calls in
+ * flight and gives up once {@code search.fetch.deadline} has elapsed, so a search
+ * costs roughly one upstream round trip instead of the sum of all of them. Calls go
+ * through {@link SchedulesPort#getScheduleAsync}: no thread waits while they are in flight.
+ */
+@Component
+public class ScheduleFetcher {
+
+    private final Function<ScheduleKey, CompletableFuture<MonthSchedule>> loader;
+    private final int maxConcurrency;
+    private final Duration deadline;
+
+    @Autowired
+    public ScheduleFetcher(SchedulesPort schedulesPort,
+                           @Value("${search.fetch.max-concurrency:16}") int maxConcurrency,
+                           @Value("${search.fetch.deadline:10s}") Duration deadline) {
+        this(key -> schedulesPort.getScheduleAsync(
+                key.getDeparture(), key.getArrival(), key.getYear(), key.getMonth()), maxConcurrency, deadline);
+    }
+
+    /**
+     * Fetcher for a blocking port: each call runs on {@code executor}.
+     */
+    public ScheduleFetcher(SchedulesPort schedulesPort, Executor executor, int maxConcurrency, Duration deadline) {
+        this(key -> CompletableFuture.supplyAsync(() -> schedulesPort.getSchedule(
+                key.getDeparture(), key.getArrival(), key.getYear(), key.getMonth()), executor),
+                maxConcurrency, deadline);
+    }
+
+    private ScheduleFetcher(Function<ScheduleKey, CompletableFuture<MonthSchedule>> loader,
+                            int maxConcurrency, Duration deadline) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("search.fetch.max-concurrency must be positive");
+        }
+        this.loader = loader;
+        this.maxConcurrency = maxConcurrency;
+        this.deadline = deadline;
+    }
+
+    /**
+     * Fetcher that performs every call on the calling thread, one after another.
+     */
+    public static ScheduleFetcher sequential(SchedulesPort schedulesPort) {
+        return new ScheduleFetcher(schedulesPort, Runnable::run, 1, Duration.ofDays(1));
+    }
+
+    /**
+     * Fetches every key and returns the schedules by key.
+     *
+     * @throws ExternalApiException if the deadline expires before all months arrive
+     */
+    public Map<ScheduleKey, MonthSchedule> fetchAll(Collection<ScheduleKey> keys) {
+        return fetchAll(keys, (key, schedule) -> { });
+    }
+
+    /**
+     * Fetches every key like {@link #fetchAll(Collection)}, also passing each month to
+     * {@code onLoaded} on the thread that completed it as soon as it arrives. Months are
+     * requested in the iteration order of {@code keys}.
+     * <p>
+     * An exception thrown by {@code onLoaded} aborts the fetch and is rethrown.
+     */
+    public Map<ScheduleKey, MonthSchedule> fetchAll(Collection<ScheduleKey> keys,
+                                                    BiConsumer<ScheduleKey, MonthSchedule> onLoaded) {
+        try {
+            return Futures.await(fetchAllAsync(keys, onLoaded));
+        } catch (CompletionException ex) {
+            // Only a checked failure is still wrapped
+            throw new ExternalApiException("Error while querying the Schedules API", ex.getCause());
+        }
+    }
+
+    /**
+     * Non-blocking {@link #fetchAll(Collection, BiConsumer)}: the returned future fails
+     * with the first upstream or {@code onLoaded} error, or with an
+     * {@link ExternalApiException} once the deadline expires.
+     */
+    public CompletableFuture<Map<ScheduleKey, MonthSchedule>> fetchAllAsync(
+            Collection<ScheduleKey> keys, BiConsumer<ScheduleKey, MonthSchedule> onLoaded) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Map.of());
+        }
+
+        Fetch fetch = new Fetch(keys, onLoaded, true);
+        fetch.start();
+
+        CompletableFuture<Map<ScheduleKey, MonthSchedule>> result = new CompletableFuture<>();
+        fetch.done.orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS).whenComplete((schedules, failure) -> {
+            if (failure == null) {
+                result.complete(schedules);
+                return;
+            }
+            result.completeExceptionally(timeoutAsApiError(Futures.unwrap(failure)));
+        });
+        return result;
+    }
+
+    /**
+     * Fetches every key like {@link #fetchAllAsync}, except that a failed month does not
+     * stop the others: it is reported among the failures of the result, so callers that
+     * share one fetch only lose what depends on that month. Once the deadline expires,
+     * the months still missing are reported as failed and the ones received are kept.
+     * The returned future itself never fails.
+     */
+    public CompletableFuture<FetchResult> fetchEachAsync(Collection<ScheduleKey> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(new FetchResult(Map.of(), Map.of()));
+        }
+
+        Fetch fetch = new Fetch(keys, (key, schedule) -> { }, false);
+        fetch.start();
+
+        return fetch.done.orTimeout(deadline.toMillis(), TimeUnit.MILLISECONDS).handle((schedules, failure) -> {
+            Map<ScheduleKey, Throwable> failures = new HashMap<>(fetch.failures);
+            if (failure != null) {
+                Throwable cause = timeoutAsApiError(Futures.unwrap(failure));
+                for (ScheduleKey key : keys) {
+                    if (!fetch.schedules.containsKey(key)) {
+                        failures.putIfAbsent(key, cause);
+                    }
+                }
+            }
+            return new FetchResult(new HashMap<>(fetch.schedules), failures);
+        });
+    }
+
+    private Throwable timeoutAsApiError(Throwable cause) {
+        if (cause instanceof TimeoutException) {
+            return new ExternalApiException("Timed out after " + deadline.toMillis()
+                    + " ms waiting for the Schedules API", cause);
+        }
+        return cause;
+    }
+
+    /**
+     * Months received and months that failed in a {@link #fetchEachAsync} call.
+     */
+    public static final class FetchResult {
+        private final Map<ScheduleKey, MonthSchedule> schedules;
+        private final Map<ScheduleKey, Throwable> failures;
+
+        FetchResult(Map<ScheduleKey, MonthSchedule> schedules, Map<ScheduleKey, Throwable> failures) {
+            this.schedules = schedules;
+            this.failures = failures;
+        }
+
+        public Map<ScheduleKey, MonthSchedule> getSchedules() {
+            return schedules;
+        }
+
+        public Map<ScheduleKey, Throwable> getFailures() {
+            return failures;
+        }
+    }
+
+    /**
+     * State of one {@link #fetchAllAsync} or {@link #fetchEachAsync} call.
+     */
+    private final class Fetch {
+        private final Queue<ScheduleKey> pending;
+        private final BiConsumer<ScheduleKey, MonthSchedule> onLoaded;
+        private final Map<ScheduleKey, MonthSchedule> schedules = new ConcurrentHashMap<>();
+        // null when the first failure fails the whole fetch
+        private final Map<ScheduleKey, Throwable> failures;
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Map<ScheduleKey, MonthSchedule>> done = new CompletableFuture<>();
+
+        private Fetch(Collection<ScheduleKey> keys, BiConsumer<ScheduleKey, MonthSchedule> onLoaded,
+                      boolean failFast) {
+            this.pending = new ConcurrentLinkedQueue<>(keys);
+            this.onLoaded = onLoaded;
+            this.failures = failFast ? null : new ConcurrentHashMap<>();
+            this.remaining = new AtomicInteger(pending.size());
+        }
+
+        private void start() {
+            // maxConcurrency chains drain the queue: that is the per-request concurrency cap
+            for (int i = 0; i < Math.min(maxConcurrency, pending.size()); i++) {
+                launchNext();
+            }
+        }
+
+        /**
+         * Starts the next pending call. Calls that complete immediately (cache hits,
+         * blocking ports) are handled in a loop rather than by recursion.
+         */
+        private void launchNext() {
+            ScheduleKey key;
+            while (!done.isDone() && (key = pending.poll()) != null) {
+                CompletableFuture<MonthSchedule> call;
+                try {
+                    call = loader.apply(key);
+                } catch (RuntimeException ex) {
+                    call = CompletableFuture.failedFuture(ex);
+                }
+                if (!call.isDone()) {
+                    ScheduleKey inFlight = key;
+                    CompletableFuture<MonthSchedule> pendingCall = call;
+                    call.whenComplete((schedule, failure) -> {
+                        if (complete(inFlight, pendingCall)) {
+                            launchNext();
+                        }
+                    });
+                    return;
+                }
+                if (!complete(key, call)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Records a finished call.
+         *
+         * @return true if more calls should be started
+         */
+        private boolean complete(ScheduleKey key, CompletableFuture<MonthSchedule> call) {
+            try {
+                MonthSchedule schedule = call.join();
+                if (schedule == null) {
+                    schedule = MonthSchedule.empty(key.getYear(), key.getMonth());
+                }
+                schedules.put(key, schedule);
+                onLoaded.accept(key, schedule);
+            } catch (CompletionException | CancellationException ex) {
+                if (!recordFailure(key, Futures.unwrap(ex))) {
+                    return false;
+                }
+            } catch (RuntimeException ex) {
+                if (!recordFailure(key, ex)) {
+                    return false;
+                }
+            }
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(new HashMap<>(schedules));
+                return false;
+            }
+            return !done.isDone();
+        }
+
+        /**
+         * @return true if the fetch goes on without this month
+         */
+        private boolean recordFailure(ScheduleKey key, Throwable failure) {
+            if (failures == null) {
+                // Fail the whole fetch as soon as one month fails
+                done.completeExceptionally(failure);
+                return false;
+            }
+            failures.put(key, failure);
+            return true;
+        }
+    }
+}
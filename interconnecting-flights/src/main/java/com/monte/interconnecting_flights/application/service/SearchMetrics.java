@@ -0,0 +1,84 @@
+package com.monte.interconnecting_flights.application.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters describing each search, tagged by {@code maxStops}: how far it fans
+ * out, how long evaluating the fetched schedules takes and how many itineraries it
+ * returns. Together with the upstream timers they tell whether a slow search waited
+ * for the Ryanair APIs, asked for too many routes or spent its time computing.
+ */
+@Component
+public class SearchMetrics {
+
+    private final DistributionSummary[] stopovers = new DistributionSummary[FlightService.MAX_STOPS_LIMIT + 1];
+    private final DistributionSummary[] schedules = new DistributionSummary[FlightService.MAX_STOPS_LIMIT + 1];
+    private final DistributionSummary[] pruned = new DistributionSummary[FlightService.MAX_STOPS_LIMIT + 1];
+    private final DistributionSummary[] results = new DistributionSummary[FlightService.MAX_STOPS_LIMIT + 1];
+    private final Timer[] evaluation = new Timer[FlightService.MAX_STOPS_LIMIT + 1];
+
+    @Autowired
+    public SearchMetrics(MeterRegistry registry) {
+        for (int maxStops = 0; maxStops <= FlightService.MAX_STOPS_LIMIT; maxStops++) {
+            String tag = String.valueOf(maxStops);
+            stopovers[maxStops] = DistributionSummary.builder("flights.search.stopovers")
+                    .description("Stopover airports evaluated per search")
+                    .tag("maxStops", tag)
+                    .register(registry);
+            schedules[maxStops] = DistributionSummary.builder("flights.search.schedules")
+                    .description("Schedule months fetched per search")
+                    .tag("maxStops", tag)
+                    .register(registry);
+            pruned[maxStops] = DistributionSummary.builder("flights.search.pruned")
+                    .description("Routes left out per search because they do not operate in the window")
+                    .tag("maxStops", tag)
+                    .register(registry);
+            results[maxStops] = DistributionSummary.builder("flights.search.results")
+                    .description("Itineraries returned per search")
+                    .tag("maxStops", tag)
+                    .register(registry);
+            evaluation[maxStops] = Timer.builder("flights.search.evaluation")
+                    .description("Time spent matching the fetched schedules into itineraries, per search")
+                    .tag("maxStops", tag)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Meters kept in a private registry, for services built outside Spring.
+     */
+    public SearchMetrics() {
+        this(new SimpleMeterRegistry());
+    }
+
+    /**
+     * Records the fan-out of a search once its routes are known.
+     */
+    public void planned(int maxStops, int stopoverCount, int scheduleCount) {
+        stopovers[maxStops].record(stopoverCount);
+        schedules[maxStops].record(scheduleCount);
+    }
+
+    /**
+     * Records the routes (stopovers, or network legs from two stops on) a search left out
+     * without fetching them.
+     */
+    public void pruned(int maxStops, int routeCount) {
+        pruned[maxStops].record(routeCount);
+    }
+
+    /**
+     * Records a search that finished, including one whose consumer went away early.
+     */
+    public void completed(int maxStops, int resultCount, long evaluationNanos) {
+        results[maxStops].record(resultCount);
+        evaluation[maxStops].record(evaluationNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,177 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.FlightSearchResult;
+import com.monte.interconnecting_flights.domain.model.FlightSort;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * LRU cache of evaluated searches, keyed by the normalized query: airports, stops and
+ * the window rounded to the minute the way the search itself rounds it.
+ * <p>
+ * An entry remembers the routes list and the schedule months it was computed from. It
+ * is only reused while the search gets back the very same instances from the caches
+ * in front of the Ryanair APIs, so a routes refresh or a reloaded month invalidates it
+ * without any explicit eviction. Both are held weakly: an entry never keeps a month
+ * alive once the schedule cache has dropped it, so that cache's weight bound still holds.
+ */
+@Component
+public class SearchResultCache implements MeterBinder {
+
+    private final int maxEntries;
+
+    // Access-ordered, guarded by "this"
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public SearchResultCache(@Value("${search.result-cache.max-entries:10000}") int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("search.result-cache.max-entries must be zero or positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Cache that keeps nothing: every search is evaluated.
+     */
+    public static SearchResultCache disabled() {
+        return new SearchResultCache(0);
+    }
+
+    /**
+     * Returns the cached result for {@code key} if it was computed from exactly
+     * {@code routes} and {@code schedules}; otherwise evaluates and caches a new one.
+     */
+    public FlightSearchResult get(Key key, Object routes, Map<ScheduleKey, MonthSchedule> schedules,
+                                  Supplier<List<Itinerary>> evaluation) {
+        if (maxEntries > 0) {
+            Entry entry;
+            synchronized (this) {
+                entry = entries.get(key);
+            }
+            if (entry != null && entry.isBuiltFrom(routes, schedules)) {
+                hits.increment();
+                return entry.result;
+            }
+        }
+        misses.increment();
+
+        List<Itinerary> flights = evaluation.get();
+        FlightSearchResult result = new FlightSearchResult(flights, version(flights), List.of());
+        if (maxEntries > 0) {
+            synchronized (this) {
+                entries.put(key, new Entry(routes, schedules, result));
+                Iterator<Entry> eldest = entries.values().iterator();
+                while (entries.size() > maxEntries) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Clears what every entry holds weakly, as the collector does once the caches in front
+     * of the APIs have dropped it. For tests.
+     */
+    synchronized void clearReferences() {
+        entries.values().forEach(Entry::clear);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "search-results", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "search-results", "result", "miss")
+                .register(registry);
+    }
+
+    /**
+     * 64-bit hash of the flights, in order.
+     */
+    static String version(List<Itinerary> flights) {
+        long hash = 1125899906842597L;
+        for (Itinerary flight : flights) {
+            hash = 31 * hash + flight.legCount();
+            for (int leg = 0; leg < flight.legCount(); leg++) {
+                hash = 31 * hash + flight.routeAt(leg);
+                hash = 31 * hash + flight.departureAt(leg);
+                hash = 31 * hash + flight.arrivalAt(leg);
+            }
+        }
+        return Long.toHexString(hash) + "-" + flights.size();
+    }
+
+    /**
+     * A search as the engine sees it; window bounds are in epoch minutes.
+     */
+    @lombok.Value
+    @lombok.AllArgsConstructor
+    public static class Key {
+        String departure;
+        String arrival;
+        int windowStart;
+        int windowEnd;
+        int maxStops;
+        // Null and 0 for every flight in plan order
+        FlightSort sort;
+        int limit;
+
+        public Key(String departure, String arrival, int windowStart, int windowEnd, int maxStops) {
+            this(departure, arrival, windowStart, windowEnd, maxStops, null, 0);
+        }
+    }
+
+    private static final class Entry {
+        private final WeakReference<Object> routes;
+        private final Map<ScheduleKey, WeakReference<MonthSchedule>> schedules;
+        private final FlightSearchResult result;
+
+        private Entry(Object routes, Map<ScheduleKey, MonthSchedule> schedules, FlightSearchResult result) {
+            this.routes = new WeakReference<>(routes);
+            this.schedules = new HashMap<>(schedules.size() * 4 / 3 + 1);
+            schedules.forEach((month, schedule) -> this.schedules.put(month, new WeakReference<>(schedule)));
+            this.result = result;
+        }
+
+        private void clear() {
+            routes.clear();
+            schedules.values().forEach(WeakReference::clear);
+        }
+
+        // A collected referent reads as null, which no current instance matches
+        private boolean isBuiltFrom(Object currentRoutes, Map<ScheduleKey, MonthSchedule> current) {
+            if (routes.get() != currentRoutes || schedules.size() != current.size()) {
+                return false;
+            }
+            for (Map.Entry<ScheduleKey, WeakReference<MonthSchedule>> used : schedules.entrySet()) {
+                if (current.get(used.getKey()) != used.getValue().get()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.FlightSort;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The best {@code limit} itineraries offered so far under a {@link FlightSort}, or all of
+ * them when there is no limit.
+ * <p>
+ * Kept in a max-heap whose head is the current K-th result, so a candidate that cannot
+ * beat it is turned away with one comparison and before any {@link Itinerary} is built
+ * for it. Equal ranks keep the order in which they were offered.
+ */
+final class TopFlights {
+
+    private static final Comparator<Ranked> BEST_FIRST =
+            Comparator.comparingLong((Ranked ranked) -> ranked.rank).thenComparingLong(ranked -> ranked.sequence);
+
+    private final FlightSort sort;
+    private final int limit;
+    private final PriorityQueue<Ranked> heap;
+    private long sequence;
+
+    /**
+     * @param limit results to keep, or 0 for all of them
+     */
+    TopFlights(FlightSort sort, int limit) {
+        this.sort = sort;
+        this.limit = limit;
+        this.heap = new PriorityQueue<>(limit > 0 ? limit + 1 : 16, BEST_FIRST.reversed());
+    }
+
+    FlightSort sort() {
+        return sort;
+    }
+
+    /**
+     * Whether an itinerary ranked {@code rank} would make it into the result now.
+     */
+    boolean accepts(long rank) {
+        return limit == 0 || heap.size() < limit || rank < heap.peek().rank;
+    }
+
+    void offer(long rank, Itinerary flight) {
+        if (!accepts(rank)) {
+            return;
+        }
+        heap.add(new Ranked(rank, sequence++, flight));
+        if (limit > 0 && heap.size() > limit) {
+            heap.poll();
+        }
+    }
+
+    void offer(Itinerary flight) {
+        offer(sort.rank(flight), flight);
+    }
+
+    /**
+     * The kept itineraries, best first.
+     */
+    List<Itinerary> toList() {
+        List<Ranked> ranked = new ArrayList<>(heap);
+        ranked.sort(BEST_FIRST);
+        List<Itinerary> flights = new ArrayList<>(ranked.size());
+        for (Ranked entry : ranked) {
+            flights.add(entry.flight);
+        }
+        return flights;
+    }
+
+    private static final class Ranked {
+        private final long rank;
+        private final long sequence;
+        private final Itinerary flight;
+
+        private Ranked(long rank, long sequence, Itinerary flight) {
+            this.rank = rank;
+            this.sequence = sequence;
+            this.flight = flight;
+        }
+    }
+}
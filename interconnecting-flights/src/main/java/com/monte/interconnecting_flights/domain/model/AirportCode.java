@@ -0,0 +1,86 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * IATA airport codes as small ints: three letters A-Z take 5 bits each, so every code
+ * fits in 15 bits and a route (origin, destination) in one int.
+ * <p>
+ * Decoding always returns the same interned {@code String} per code, so the airport
+ * names held by the route graph and the answers share one instance each instead of
+ * one per parsed route or flight.
+ */
+public final class AirportCode {
+
+    public static final int BITS = 15;
+
+    private static final int LETTER_BITS = 5;
+    private static final int ID_MASK = (1 << BITS) - 1;
+    private static final AtomicReferenceArray<String> CODES = new AtomicReferenceArray<>(1 << BITS);
+
+    private AirportCode() {
+    }
+
+    /**
+     * Whether {@code code} is three uppercase letters.
+     */
+    public static boolean isValid(String code) {
+        return code != null && code.length() == 3
+                && isLetter(code.charAt(0)) && isLetter(code.charAt(1)) && isLetter(code.charAt(2));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code code} is not three uppercase letters
+     */
+    public static int id(String code) {
+        if (!isValid(code)) {
+            throw new IllegalArgumentException("Not an IATA airport code: " + code);
+        }
+        return (code.charAt(0) - 'A') << 2 * LETTER_BITS
+                | (code.charAt(1) - 'A') << LETTER_BITS
+                | (code.charAt(2) - 'A');
+    }
+
+    /**
+     * The interned code of {@code id}.
+     */
+    public static String code(int id) {
+        String code = CODES.get(id);
+        if (code == null) {
+            char[] letters = {
+                    (char) ('A' + (id >>> 2 * LETTER_BITS & 31)),
+                    (char) ('A' + (id >>> LETTER_BITS & 31)),
+                    (char) ('A' + (id & 31))};
+            CODES.compareAndSet(id, null, new String(letters));
+            code = CODES.get(id);
+        }
+        return code;
+    }
+
+    /**
+     * The shared instance of {@code code}, or {@code code} itself if it is not a valid code.
+     */
+    public static String intern(String code) {
+        return isValid(code) ? code(id(code)) : code;
+    }
+
+    public static int route(int from, int to) {
+        return from << BITS | to;
+    }
+
+    public static int route(String from, String to) {
+        return route(id(from), id(to));
+    }
+
+    public static int routeOrigin(int route) {
+        return route >>> BITS;
+    }
+
+    public static int routeDestination(int route) {
+        return route & ID_MASK;
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+}
@@ -0,0 +1,27 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Answer to a conditional fetch: either a new value, or word that the copy the caller
+ * holds is still current. Both carry the validators to send next time.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Conditional<T> {
+
+    private final boolean modified;
+    // Null when not modified
+    private final T value;
+    private final Validators validators;
+
+    public static <T> Conditional<T> modified(T value, Validators validators) {
+        return new Conditional<>(true, value, validators);
+    }
+
+    public static <T> Conditional<T> notModified(Validators validators) {
+        return new Conditional<>(false, null, validators);
+    }
+}
@@ -0,0 +1,37 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Conversions between local date-times and minutes since 1970-01-01T00:00.
+ * <p>
+ * Schedules are published in airport local time, so the values are plain
+ * "wall clock" minutes with no time zone attached. An int covers ~4000 years.
+ */
+public final class EpochMinutes {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private EpochMinutes() {
+    }
+
+    /**
+     * Minute containing the given date-time (seconds are truncated).
+     */
+    public static int floor(LocalDateTime dateTime) {
+        return (int) Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * First whole minute at or after the given date-time.
+     */
+    public static int ceil(LocalDateTime dateTime) {
+        return (int) -Math.floorDiv(-dateTime.toEpochSecond(ZoneOffset.UTC)
+                - (dateTime.getNano() > 0 ? 1 : 0), 60);
+    }
+
+    public static LocalDateTime toLocalDateTime(int epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60L, 0, ZoneOffset.UTC);
+    }
+}
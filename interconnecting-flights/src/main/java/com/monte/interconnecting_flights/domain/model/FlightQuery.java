@@ -0,0 +1,24 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One search of a batch: the parameters of {@code GET /interconnections}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightQuery {
+    private String departure;
+    private String arrival;
+    private LocalDateTime departureDateTime;
+    private LocalDateTime arrivalDateTime;
+    // Direct and one-stop flights unless the query asks for more
+    private int maxStops = 1;
+}
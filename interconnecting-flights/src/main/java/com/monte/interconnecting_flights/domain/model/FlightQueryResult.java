@@ -0,0 +1,27 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of one query of a batch: its flights, or the reason it could not be answered.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FlightQueryResult {
+    private List<FlightResponse> flights;
+    private String error;
+
+    public static FlightQueryResult of(List<FlightResponse> flights) {
+        return new FlightQueryResult(flights, null);
+    }
+
+    public static FlightQueryResult failed(String error) {
+        return new FlightQueryResult(null, error);
+    }
+}
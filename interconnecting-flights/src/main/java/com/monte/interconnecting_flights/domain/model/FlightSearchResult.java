@@ -0,0 +1,22 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Flights of one search, with a version that only changes when the flights do.
+ */
+@Getter
+@AllArgsConstructor
+public class FlightSearchResult {
+    private List<Itinerary> flights;
+    private String version;
+    // Routes left out of a partial search, e.g. "DUB-STN-WRO"; empty when complete
+    private List<String> skippedRoutes;
+
+    public boolean isPartial() {
+        return !skippedRoutes.isEmpty();
+    }
+}
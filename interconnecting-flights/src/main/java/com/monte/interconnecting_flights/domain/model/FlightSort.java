@@ -0,0 +1,83 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import java.util.Locale;
+
+/**
+ * Order in which a search returns its itineraries.
+ * <p>
+ * Each order reduces an itinerary to a single {@code long} rank, smaller is better, built
+ * from its first departure and last arrival in epoch minutes and its number of stops; the
+ * lower half breaks ties on the main criterion.
+ */
+public enum FlightSort {
+    EARLIEST_ARRIVAL {
+        @Override
+        public long rank(int departure, int arrival, int stops) {
+            return pack(arrival, arrival - departure);
+        }
+
+        @Override
+        public long bound(int earliestArrival, int shortestDuration, int stops) {
+            return pack(earliestArrival, 0);
+        }
+    },
+    SHORTEST_DURATION {
+        @Override
+        public long rank(int departure, int arrival, int stops) {
+            return pack(arrival - departure, arrival);
+        }
+
+        @Override
+        public long bound(int earliestArrival, int shortestDuration, int stops) {
+            return pack(shortestDuration, 0);
+        }
+    },
+    FEWEST_STOPS {
+        @Override
+        public long rank(int departure, int arrival, int stops) {
+            return pack(stops, arrival);
+        }
+
+        @Override
+        public long bound(int earliestArrival, int shortestDuration, int stops) {
+            return pack(stops, 0);
+        }
+    };
+
+    /**
+     * Rank of an itinerary; a lower rank comes first.
+     */
+    public abstract long rank(int departure, int arrival, int stops);
+
+    /**
+     * Lowest rank any itinerary can have if it arrives no earlier than
+     * {@code earliestArrival}, lasts at least {@code shortestDuration} minutes and makes
+     * {@code stops} stops.
+     */
+    public abstract long bound(int earliestArrival, int shortestDuration, int stops);
+
+    public long rank(Itinerary itinerary) {
+        return rank(itinerary.departure(), itinerary.arrival(), itinerary.getStops());
+    }
+
+    /**
+     * Parses a {@code sort} request parameter such as {@code earliest-arrival} or
+     * {@code SHORTEST_DURATION}.
+     *
+     * @throws IllegalArgumentException if it names no order
+     */
+    public static FlightSort parse(String value) {
+        String name = value.trim().replace('-', '_').toUpperCase(Locale.ROOT);
+        for (FlightSort sort : values()) {
+            if (sort.name().equals(name)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("sort must be one of earliest-arrival, shortest-duration, fewest-stops");
+    }
+
+    private static long pack(int primary, int secondary) {
+        // Both halves are non-negative epoch minutes or durations
+        return ((long) primary << 32) | (secondary & 0xFFFFFFFFL);
+    }
+}
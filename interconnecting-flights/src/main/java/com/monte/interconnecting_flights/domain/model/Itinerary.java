@@ -0,0 +1,132 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, immutable itinerary used inside the search: for every leg its
+ * {@link AirportCode#route route} and its departure and arrival in
+ * {@link EpochMinutes epoch minutes}, all in a single int array.
+ * <p>
+ * A one-stop itinerary costs one small object and a six-int array, against a
+ * {@link FlightResponse} with two {@link FlightLeg}s and four {@code LocalDateTime}s.
+ * Itineraries with the same legs are equal. They only become {@link FlightResponse}s
+ * when an answer is written.
+ */
+public final class Itinerary {
+
+    private static final int FIELDS = 3;
+
+    private final int[] legs;
+    private final int hash;
+
+    private Itinerary(int[] legs) {
+        this.legs = legs;
+        this.hash = Arrays.hashCode(legs);
+    }
+
+    public static Itinerary direct(int route, int departure, int arrival) {
+        return new Itinerary(new int[]{route, departure, arrival});
+    }
+
+    public static Itinerary oneStop(int firstRoute, int firstDeparture, int firstArrival,
+                                    int secondRoute, int secondDeparture, int secondArrival) {
+        return new Itinerary(new int[]{
+                firstRoute, firstDeparture, firstArrival,
+                secondRoute, secondDeparture, secondArrival});
+    }
+
+    /**
+     * Itinerary of {@code legs} (route, departure, arrival) triples; the array is copied.
+     */
+    public static Itinerary of(int... legs) {
+        if (legs.length == 0 || legs.length % FIELDS != 0) {
+            throw new IllegalArgumentException("Legs must be (route, departure, arrival) triples");
+        }
+        return new Itinerary(legs.clone());
+    }
+
+    public int legCount() {
+        return legs.length / FIELDS;
+    }
+
+    public int getStops() {
+        return legCount() - 1;
+    }
+
+    public int routeAt(int leg) {
+        return legs[leg * FIELDS];
+    }
+
+    public int departureAt(int leg) {
+        return legs[leg * FIELDS + 1];
+    }
+
+    public int arrivalAt(int leg) {
+        return legs[leg * FIELDS + 2];
+    }
+
+    /**
+     * Departure of the first leg.
+     */
+    public int departure() {
+        return legs[1];
+    }
+
+    /**
+     * Arrival of the last leg.
+     */
+    public int arrival() {
+        return legs[legs.length - 1];
+    }
+
+    public FlightResponse toFlightResponse() {
+        List<FlightLeg> flightLegs = new ArrayList<>(legCount());
+        for (int leg = 0; leg < legCount(); leg++) {
+            int route = routeAt(leg);
+            flightLegs.add(new FlightLeg(
+                    AirportCode.code(AirportCode.routeOrigin(route)),
+                    AirportCode.code(AirportCode.routeDestination(route)),
+                    EpochMinutes.toLocalDateTime(departureAt(leg)),
+                    EpochMinutes.toLocalDateTime(arrivalAt(leg))));
+        }
+        return new FlightResponse(getStops(), flightLegs);
+    }
+
+    public static List<FlightResponse> toFlightResponses(List<Itinerary> itineraries) {
+        List<FlightResponse> responses = new ArrayList<>(itineraries.size());
+        for (Itinerary itinerary : itineraries) {
+            responses.add(itinerary.toFlightResponse());
+        }
+        return responses;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other
+                || other instanceof Itinerary && hash == ((Itinerary) other).hash
+                && Arrays.equals(legs, ((Itinerary) other).legs);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int leg = 0; leg < legCount(); leg++) {
+            int route = routeAt(leg);
+            if (leg > 0) {
+                text.append(", ");
+            }
+            text.append(AirportCode.code(AirportCode.routeOrigin(route))).append('-')
+                    .append(AirportCode.code(AirportCode.routeDestination(route))).append(' ')
+                    .append(EpochMinutes.toLocalDateTime(departureAt(leg))).append('/')
+                    .append(EpochMinutes.toLocalDateTime(arrivalAt(leg)));
+        }
+        return text.toString();
+    }
+}
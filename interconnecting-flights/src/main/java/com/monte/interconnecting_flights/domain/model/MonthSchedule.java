@@ -0,0 +1,193 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * Flights of one route for one month, stored as parallel arrays of
+ * departure/arrival {@link EpochMinutes epoch-minutes} sorted by departure, then
+ * arrival. A flight the API lists twice is kept once.
+ * <p>
+ * Instances are immutable and allocation-light: one schedule month costs two
+ * int arrays regardless of how many days or flights it holds.
+ */
+public final class MonthSchedule {
+
+    private static final int[] NO_FLIGHTS = new int[0];
+
+    private final int year;
+    private final int month;
+    private final int[] departures;
+    private final int[] arrivals;
+
+    private MonthSchedule(int year, int month, int[] departures, int[] arrivals) {
+        this.year = year;
+        this.month = month;
+        this.departures = departures;
+        this.arrivals = arrivals;
+    }
+
+    public static MonthSchedule empty(int year, int month) {
+        return new MonthSchedule(year, month, NO_FLIGHTS, NO_FLIGHTS);
+    }
+
+    /**
+     * Wraps arrays that are already sorted by departure, such as ones read back from
+     * storage. The arrays are used as they are, not copied.
+     */
+    public static MonthSchedule ofSorted(int year, int month, int[] departures, int[] arrivals) {
+        if (departures.length != arrivals.length) {
+            throw new IllegalArgumentException("departures and arrivals must have the same length");
+        }
+        return departures.length == 0 ? empty(year, month) : new MonthSchedule(year, month, departures, arrivals);
+    }
+
+    public static Builder builder(int year, int month) {
+        return new Builder(year, month);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public int size() {
+        return departures.length;
+    }
+
+    public boolean isEmpty() {
+        return departures.length == 0;
+    }
+
+    public int departureAt(int index) {
+        return departures[index];
+    }
+
+    public int arrivalAt(int index) {
+        return arrivals[index];
+    }
+
+    /**
+     * Whether {@code other} is the same month with exactly the same flights.
+     */
+    public boolean hasSameFlights(MonthSchedule other) {
+        return other != null && year == other.year && month == other.month
+                && Arrays.equals(departures, other.departures) && Arrays.equals(arrivals, other.arrivals);
+    }
+
+    /**
+     * Index of the first flight departing at or after {@code epochMinute},
+     * or {@link #size()} if there is none.
+     */
+    public int firstDepartureAtOrAfter(int epochMinute) {
+        int low = 0;
+        int high = departures.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (departures[mid] < epochMinute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Collects flights of a month as (day, minute-of-day) pairs.
+     */
+    public static final class Builder {
+        private final int year;
+        private final int month;
+        private final int firstDayEpochMinute;
+        private final int daysInMonth;
+
+        private int[] departures = new int[16];
+        private int[] arrivals = new int[16];
+        private int size;
+        private boolean sorted = true;
+
+        private Builder(int year, int month) {
+            YearMonth yearMonth = YearMonth.of(year, month);
+            this.year = year;
+            this.month = month;
+            this.firstDayEpochMinute = Math.toIntExact(
+                    yearMonth.atDay(1).toEpochDay() * EpochMinutes.MINUTES_PER_DAY);
+            this.daysInMonth = yearMonth.lengthOfMonth();
+        }
+
+        /**
+         * Adds a flight. An arrival earlier than the departure is taken to be on
+         * the next day.
+         *
+         * @return false (and nothing is added) if the day or a time is out of range
+         */
+        public boolean add(int day, int departureMinuteOfDay, int arrivalMinuteOfDay) {
+            if (day < 1 || day > daysInMonth
+                    || !isMinuteOfDay(departureMinuteOfDay) || !isMinuteOfDay(arrivalMinuteOfDay)) {
+                return false;
+            }
+            int dayStart = firstDayEpochMinute + (day - 1) * EpochMinutes.MINUTES_PER_DAY;
+            int departure = dayStart + departureMinuteOfDay;
+            int arrival = dayStart + arrivalMinuteOfDay;
+            if (arrivalMinuteOfDay < departureMinuteOfDay) {
+                arrival += EpochMinutes.MINUTES_PER_DAY;
+            }
+
+            if (size == departures.length) {
+                departures = Arrays.copyOf(departures, size * 2);
+                arrivals = Arrays.copyOf(arrivals, size * 2);
+            }
+            if (size > 0 && (departure < departures[size - 1]
+                    || departure == departures[size - 1] && arrival < arrivals[size - 1])) {
+                sorted = false;
+            }
+            departures[size] = departure;
+            arrivals[size] = arrival;
+            size++;
+            return true;
+        }
+
+        public MonthSchedule build() {
+            if (size == 0) {
+                return empty(year, month);
+            }
+            int[] sortedDepartures = Arrays.copyOf(departures, size);
+            int[] sortedArrivals = Arrays.copyOf(arrivals, size);
+            if (!sorted) {
+                // Sort both arrays by departure then arrival, packed in one long per flight
+                long[] packed = new long[size];
+                for (int i = 0; i < size; i++) {
+                    packed[i] = ((long) departures[i] << 32) | (arrivals[i] & 0xFFFFFFFFL);
+                }
+                Arrays.sort(packed);
+                for (int i = 0; i < size; i++) {
+                    sortedDepartures[i] = (int) (packed[i] >> 32);
+                    sortedArrivals[i] = (int) packed[i];
+                }
+            }
+            // Identical flights are now next to each other
+            int distinct = 1;
+            for (int i = 1; i < size; i++) {
+                if (sortedDepartures[i] != sortedDepartures[distinct - 1]
+                        || sortedArrivals[i] != sortedArrivals[distinct - 1]) {
+                    sortedDepartures[distinct] = sortedDepartures[i];
+                    sortedArrivals[distinct] = sortedArrivals[i];
+                    distinct++;
+                }
+            }
+            if (distinct < size) {
+                sortedDepartures = Arrays.copyOf(sortedDepartures, distinct);
+                sortedArrivals = Arrays.copyOf(sortedArrivals, distinct);
+            }
+            return new MonthSchedule(year, month, sortedDepartures, sortedArrivals);
+        }
+
+        private static boolean isMinuteOfDay(int minute) {
+            return minute >= 0 && minute < EpochMinutes.MINUTES_PER_DAY;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable adjacency index over the Ryanair route network.
+ * <p>
+ * Only routes operated by RYANAIR without a {@code connectingAirport} are kept,
+ * so every edge is a bookable direct flight, and only between valid IATA codes, held
+ * as the shared {@link AirportCode} instances. The graph is built once per routes
+ * snapshot and answers neighbour queries in O(degree) instead of scanning the
+ * full routes list.
+ */
+public final class RouteGraph {
+
+    private static final String OPERATOR = "RYANAIR";
+    private static final RouteGraph EMPTY = new RouteGraph(Map.of(), Map.of(), 0);
+
+    private final Map<String, Set<String>> destinationsByOrigin;
+    private final Map<String, Set<String>> originsByDestination;
+    private final int routeCount;
+
+    private RouteGraph(Map<String, Set<String>> destinationsByOrigin,
+                       Map<String, Set<String>> originsByDestination,
+                       int routeCount) {
+        this.destinationsByOrigin = destinationsByOrigin;
+        this.originsByDestination = originsByDestination;
+        this.routeCount = routeCount;
+    }
+
+    public static RouteGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the graph from the raw Routes API payload.
+     */
+    public static RouteGraph from(List<Map<String, String>> routes) {
+        if (routes == null || routes.isEmpty()) {
+            return EMPTY;
+        }
+
+        Map<String, Set<String>> byOrigin = new HashMap<>();
+        Map<String, Set<String>> byDestination = new HashMap<>();
+        int count = 0;
+
+        for (Map<String, String> route : routes) {
+            if (!OPERATOR.equals(route.get("operator")) || route.get("connectingAirport") != null) {
+                continue;
+            }
+            String from = route.get("airportFrom");
+            String to = route.get("airportTo");
+            if (!AirportCode.isValid(from) || !AirportCode.isValid(to) || from.equals(to)) {
+                continue;
+            }
+            from = AirportCode.intern(from);
+            to = AirportCode.intern(to);
+            if (byOrigin.computeIfAbsent(from, k -> new LinkedHashSet<>()).add(to)) {
+                byDestination.computeIfAbsent(to, k -> new LinkedHashSet<>()).add(from);
+                count++;
+            }
+        }
+
+        return new RouteGraph(freeze(byOrigin), freeze(byDestination), count);
+    }
+
+    private static Map<String, Set<String>> freeze(Map<String, Set<String>> adjacency) {
+        Map<String, Set<String>> frozen = new HashMap<>(adjacency.size() * 2);
+        adjacency.forEach((airport, neighbours) ->
+                frozen.put(airport, Collections.unmodifiableSet(neighbours)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    public boolean hasRoute(String from, String to) {
+        return destinationsFrom(from).contains(to);
+    }
+
+    public Set<String> destinationsFrom(String origin) {
+        return destinationsByOrigin.getOrDefault(origin, Set.of());
+    }
+
+    public Set<String> originsTo(String destination) {
+        return originsByDestination.getOrDefault(destination, Set.of());
+    }
+
+    /**
+     * Airports X such that both {@code from -> X} and {@code X -> to} exist.
+     * Iterates the smaller of the two neighbour sets.
+     */
+    public List<String> stopoversBetween(String from, String to) {
+        Set<String> outgoing = destinationsFrom(from);
+        Set<String> incoming = originsTo(to);
+        Set<String> smaller = outgoing.size() <= incoming.size() ? outgoing : incoming;
+        Set<String> larger = smaller == outgoing ? incoming : outgoing;
+
+        List<String> stopovers = new ArrayList<>();
+        for (String airport : smaller) {
+            if (!airport.equals(from) && !airport.equals(to) && larger.contains(airport)) {
+                stopovers.add(airport);
+            }
+        }
+        return stopovers;
+    }
+
+    /**
+     * Routes that lie on at least one path from {@code from} to {@code to} of at most
+     * {@code maxLegs} flights, as an origin -> destinations map.
+     * <p>
+     * Computed with a forward BFS from {@code from} and a backward BFS from {@code to}:
+     * a route {@code u -> v} is kept when {@code dist(from, u) + 1 + dist(v, to) <= maxLegs}.
+     */
+    public Map<String, Set<String>> routesOnPathsBetween(String from, String to, int maxLegs) {
+        Map<String, Integer> fromOrigin = distances(from, maxLegs, this::destinationsFrom);
+        Map<String, Integer> toDestination = distances(to, maxLegs, this::originsTo);
+
+        Map<String, Set<String>> routes = new LinkedHashMap<>();
+        fromOrigin.forEach((airport, distance) -> {
+            if (airport.equals(to)) {
+                return;
+            }
+            for (String next : destinationsFrom(airport)) {
+                Integer remaining = toDestination.get(next);
+                if (remaining != null && !next.equals(from) && distance + 1 + remaining <= maxLegs) {
+                    routes.computeIfAbsent(airport, k -> new LinkedHashSet<>()).add(next);
+                }
+            }
+        });
+        return routes;
+    }
+
+    private static Map<String, Integer> distances(String start, int maxDepth,
+                                                  Function<String, Set<String>> neighbours) {
+        Map<String, Integer> distances = new LinkedHashMap<>();
+        distances.put(start, 0);
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            String airport = queue.poll();
+            int distance = distances.get(airport);
+            if (distance == maxDepth) {
+                continue;
+            }
+            for (String next : neighbours.apply(airport)) {
+                if (distances.putIfAbsent(next, distance + 1) == null) {
+                    queue.add(next);
+                }
+            }
+        }
+        return distances;
+    }
+
+    public Set<String> airports() {
+        Set<String> airports = new LinkedHashSet<>(destinationsByOrigin.keySet());
+        airports.addAll(originsByDestination.keySet());
+        return airports;
+    }
+
+    public int routeCount() {
+        return routeCount;
+    }
+}
@@ -0,0 +1,15 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import lombok.Value;
+
+/**
+ * Identifies one month of the schedule of a single route, which is the unit the
+ * Schedules API serves.
+ */
+@Value
+public class ScheduleKey {
+    String departure;
+    String arrival;
+    int year;
+    int month;
+}
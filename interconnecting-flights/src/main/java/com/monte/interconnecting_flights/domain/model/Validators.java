@@ -0,0 +1,20 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import lombok.Value;
+
+/**
+ * What an upstream sent to identify the version of a payload ({@code ETag} and
+ * {@code Last-Modified}), kept with the payload to later ask whether it changed.
+ */
+@Value
+public class Validators {
+
+    public static final Validators NONE = new Validators(null, null);
+
+    String etag;
+    String lastModified;
+
+    public boolean isEmpty() {
+        return etag == null && lastModified == null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.monte.interconnecting_flights.domain.port.outbound;
+
+/**
+ * Failure of an outbound port: the upstream API errored, answered garbage or did not
+ * answer in time. Adapters raise it (or a subclass); the REST layer maps it to 502.
+ */
+public class ExternalApiException extends RuntimeException {
+    public ExternalApiException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,36 @@
+package com.monte.interconnecting_flights.domain.port.outbound;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Helpers for the futures the outbound ports return.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Waits for {@code call}, rethrowing an unchecked failure as is instead of wrapped in
+     * a {@link CompletionException}.
+     */
+    public static <T> T await(CompletableFuture<T> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * The failure behind a {@link CompletionException}, or {@code failure} itself.
+     */
+    public static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+    }
+}
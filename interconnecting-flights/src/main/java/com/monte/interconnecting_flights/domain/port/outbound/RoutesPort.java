@@ -1,8 +1,32 @@
 package com.monte.interconnecting_flights.domain.port.outbound;
 
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.Validators;
+
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 public interface RoutesPort {
     List<Map<String, String>> getRoutes();
+
+    /**
+     * Non-blocking variant of {@link #getRoutes()}. Blocking adapters get a default
+     * that runs the call on the caller thread and returns an already completed future.
+     */
+    default CompletableFuture<List<Map<String, String>>> getRoutesAsync() {
+        try {
+            return CompletableFuture.completedFuture(getRoutes());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Fetches the routes unless they are unchanged since the copy identified by {@code validators}.
+     * Adapters without validators get a default that always fetches.
+     */
+    default CompletableFuture<Conditional<List<Map<String, String>>>> getRoutesIfModifiedAsync(Validators validators) {
+        return getRoutesAsync().thenApply(routes -> Conditional.modified(routes, Validators.NONE));
+    }
 }
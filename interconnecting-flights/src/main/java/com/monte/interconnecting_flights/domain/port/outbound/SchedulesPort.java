@@ -1,7 +1,33 @@
 package com.monte.interconnecting_flights.domain.port.outbound;
 
-import java.util.Map;
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.Validators;
+
+import java.util.concurrent.CompletableFuture;
 
 public interface SchedulesPort {
-    Map<String, Object> getSchedule(String departure, String arrival, int year, int month);
+    MonthSchedule getSchedule(String departure, String arrival, int year, int month);
+
+    /**
+     * Non-blocking variant of {@link #getSchedule}. Blocking adapters get a default
+     * that runs the call on the caller thread and returns an already completed future.
+     */
+    default CompletableFuture<MonthSchedule> getScheduleAsync(String departure, String arrival, int year, int month) {
+        try {
+            return CompletableFuture.completedFuture(getSchedule(departure, arrival, year, month));
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Fetches the month unless it is unchanged since the copy identified by {@code validators}.
+     * Adapters without validators get a default that always fetches.
+     */
+    default CompletableFuture<Conditional<MonthSchedule>> getScheduleIfModifiedAsync(
+            String departure, String arrival, int year, int month, Validators validators) {
+        return getScheduleAsync(departure, arrival, year, month)
+                .thenApply(schedule -> Conditional.modified(schedule, Validators.NONE));
+    }
 }
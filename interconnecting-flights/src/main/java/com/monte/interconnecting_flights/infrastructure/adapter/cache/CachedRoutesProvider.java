@@ -0,0 +1,263 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.cache;
+
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.Validators;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
+import com.monte.interconnecting_flights.domain.port.outbound.RoutesPort;
+import com.monte.interconnecting_flights.infrastructure.adapter.client.RoutesClient;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.TimetableSnapshot;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.TimetableSnapshotStore;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Routes provider that keeps the last routes snapshot in memory.
+ * <p>
+ * The first call loads the snapshot synchronously; afterwards it is refreshed in
+ * the background every {@code routes.cache.refresh-interval}. Readers always get
+ * the current snapshot, even while a refresh is running or after it failed
+ * (stale-while-revalidate).
+ * <p>
+ * Refreshes are conditional requests with the {@code ETag} / {@code Last-Modified} of the
+ * current snapshot. On a {@code 304}, or when the same routes come back, the snapshot keeps
+ * its list instance and only its fetch time moves, so the route graph and the cached
+ * searches built on it stay valid.
+ * <p>
+ * When a {@link TimetableSnapshotStore timetable snapshot} exists, its routes are the
+ * starting snapshot: the first search is answered from disk and, if they are older
+ * than the refresh interval, refreshed in the background like any stale snapshot.
+ */
+@Slf4j
+@Primary
+@Component
+public class CachedRoutesProvider implements RoutesPort {
+
+    private final RoutesPort delegate;
+    private final Duration refreshInterval;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final Object loadLock = new Object();
+    private final AtomicReference<CompletableFuture<List<Map<String, String>>>> initialLoad = new AtomicReference<>();
+
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CachedRoutesProvider(RoutesClient routesClient,
+                                @Value("${routes.cache.refresh-interval:30m}") Duration refreshInterval,
+                                TimetableSnapshotStore snapshots) {
+        this(routesClient, refreshInterval, Clock.systemUTC(),
+                Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "routes-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                }), snapshots);
+        long intervalMillis = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::refresh, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    CachedRoutesProvider(RoutesPort delegate, Duration refreshInterval, Clock clock,
+                         ScheduledExecutorService scheduler) {
+        this(delegate, refreshInterval, clock, scheduler, TimetableSnapshotStore.disabled());
+    }
+
+    CachedRoutesProvider(RoutesPort delegate, Duration refreshInterval, Clock clock,
+                         ScheduledExecutorService scheduler, TimetableSnapshotStore snapshots) {
+        if (refreshInterval.isNegative() || refreshInterval.isZero()) {
+            throw new IllegalArgumentException("routes.cache.refresh-interval must be positive");
+        }
+        this.delegate = delegate;
+        this.refreshInterval = refreshInterval;
+        this.clock = clock;
+        this.scheduler = scheduler;
+
+        TimetableSnapshot persisted = snapshots.current();
+        if (persisted != null && !persisted.getRoutes().isEmpty()) {
+            snapshot = new Snapshot(persisted.getRoutes(), Instant.ofEpochMilli(persisted.getRoutesFetchedAt()),
+                    Validators.NONE);
+        }
+    }
+
+    @Override
+    public List<Map<String, String>> getRoutes() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return loadInitialSnapshot();
+        }
+        if (isStale(current)) {
+            // Serve what we have and revalidate in the background
+            triggerRefresh();
+        }
+        return current.routes;
+    }
+
+    /**
+     * Served from memory like {@link #getRoutes()}. Concurrent initial loads share one
+     * non-blocking upstream call.
+     */
+    @Override
+    public CompletableFuture<List<Map<String, String>>> getRoutesAsync() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return loadInitialSnapshotAsync();
+        }
+        if (isStale(current)) {
+            triggerRefresh();
+        }
+        return CompletableFuture.completedFuture(current.routes);
+    }
+
+    /**
+     * Revalidates the snapshot with upstream. On failure the previous snapshot is kept.
+     *
+     * @return true if the snapshot was refreshed, whether or not the routes changed
+     */
+    public boolean refresh() {
+        Snapshot current = snapshot;
+        try {
+            Conditional<List<Map<String, String>>> answer =
+                    Futures.await(delegate.getRoutesIfModifiedAsync(current != null ? current.validators : Validators.NONE));
+            if (current != null && (!answer.isModified() || answer.getValue().equals(current.routes))) {
+                snapshot = new Snapshot(current.routes, clock.instant(), answer.getValidators());
+                log.debug("Routes snapshot unchanged: {} routes", current.routes.size());
+            } else {
+                List<Map<String, String>> routes = routes(answer);
+                snapshot = new Snapshot(routes, clock.instant(), answer.getValidators());
+                log.debug("Routes snapshot refreshed: {} routes", routes.size());
+            }
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Routes refresh failed, keeping previous snapshot: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Time at which the current snapshot was fetched, or null if nothing was loaded yet.
+     */
+    public Instant lastRefresh() {
+        Snapshot current = snapshot;
+        return current == null ? null : current.fetchedAt;
+    }
+
+    /**
+     * Current snapshot without triggering any load or refresh, or null if nothing was loaded yet.
+     */
+    public List<Map<String, String>> cachedRoutes() {
+        Snapshot current = snapshot;
+        return current == null ? null : current.routes;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private List<Map<String, String>> loadInitialSnapshot() {
+        synchronized (loadLock) {
+            Snapshot current = snapshot;
+            if (current == null) {
+                // Nothing to fall back to yet: upstream errors reach the caller
+                Conditional<List<Map<String, String>>> answer = Futures.await(delegate.getRoutesIfModifiedAsync(Validators.NONE));
+                current = new Snapshot(routes(answer), clock.instant(), answer.getValidators());
+                snapshot = current;
+            }
+            return current.routes;
+        }
+    }
+
+    private CompletableFuture<List<Map<String, String>>> loadInitialSnapshotAsync() {
+        CompletableFuture<List<Map<String, String>>> load = new CompletableFuture<>();
+        CompletableFuture<List<Map<String, String>>> existing = initialLoad.compareAndExchange(null, load);
+        if (existing != null) {
+            return existing;
+        }
+        Snapshot current = snapshot;
+        if (current != null) {
+            initialLoad.set(null);
+            load.complete(current.routes);
+            return load;
+        }
+
+        CompletableFuture<Conditional<List<Map<String, String>>>> call;
+        try {
+            call = delegate.getRoutesIfModifiedAsync(Validators.NONE);
+        } catch (RuntimeException ex) {
+            call = CompletableFuture.failedFuture(ex);
+        }
+        call.whenComplete((answer, failure) -> {
+            if (failure == null && !answer.isModified()) {
+                failure = notModifiedWithoutSnapshot();
+            }
+            if (failure == null) {
+                snapshot = new Snapshot(answer.getValue(), clock.instant(), answer.getValidators());
+                load.complete(answer.getValue());
+            } else {
+                // Nothing to fall back to yet: upstream errors reach the caller
+                load.completeExceptionally(Futures.unwrap(failure));
+            }
+            initialLoad.set(null);
+        });
+        return load;
+    }
+
+    private static List<Map<String, String>> routes(Conditional<List<Map<String, String>>> answer) {
+        if (!answer.isModified()) {
+            throw notModifiedWithoutSnapshot();
+        }
+        return answer.getValue();
+    }
+
+    private static IllegalStateException notModifiedWithoutSnapshot() {
+        return new IllegalStateException("Routes API answered 304 without a snapshot to keep");
+    }
+
+    private boolean isStale(Snapshot current) {
+        return !current.fetchedAt.plus(refreshInterval).isAfter(clock.instant());
+    }
+
+    private void triggerRefresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                try {
+                    refresh();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            refreshing.set(false);
+        }
+    }
+
+    private static final class Snapshot {
+        private final List<Map<String, String>> routes;
+        private final Instant fetchedAt;
+        private final Validators validators;
+
+        private Snapshot(List<Map<String, String>> routes, Instant fetchedAt, Validators validators) {
+            this.routes = routes;
+            this.fetchedAt = fetchedAt;
+            this.validators = validators;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.cache;
+
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.domain.model.Validators;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
+import com.monte.interconnecting_flights.domain.port.outbound.SchedulesPort;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+import com.monte.interconnecting_flights.infrastructure.adapter.client.SchedulesClient;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.StoredSchedule;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.TimetableSnapshot;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.TimetableSnapshotStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size-bounded, TTL-based cache in front of the Schedules API.
+ * <p>
+ * Entries are keyed by (departure, arrival, year, month) and evicted in LRU order
+ * once either {@code schedules.cache.max-entries} or {@code schedules.cache.max-weight}
+ * (total number of flights held) is exceeded. Concurrent misses on the same key are
+ * coalesced into a single upstream call, and waiting for it never blocks a thread when
+ * going through {@link #getScheduleAsync}.
+ * <p>
+ * Misses are first looked up in the {@link TimetableSnapshotStore timetable snapshot}: a
+ * month fetched less than a TTL ago is served from it without calling upstream, which is
+ * what makes a restarted node fast right away. Older snapshot months are only served
+ * when the Schedules API fails.
+ * <p>
+ * Expired months stay until replaced or evicted, so that reloading one is a conditional
+ * request with the {@code ETag} / {@code Last-Modified} it was served with. On a
+ * {@code 304}, or when upstream sends the very same flights again, the cached instance
+ * is kept and only its TTL is renewed: nothing is parsed again for a 304, and searches
+ * cached on that month stay valid. Only months that really changed get a new instance.
+ * <p>
+ * Hits, misses, loads, evictions and size are published as the standard Micrometer
+ * {@code cache.*} meters, tagged {@code cache=schedules}.
+ */
+@Slf4j
+@Primary
+@Component
+public class CachedSchedulesProvider implements SchedulesPort, MeterBinder {
+
+    private final SchedulesPort delegate;
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long maxWeight;
+    private final Clock clock;
+    private final TimetableSnapshotStore snapshots;
+
+    // Access-ordered, guarded by "this"
+    private final LinkedHashMap<ScheduleKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalWeight;
+
+    private final Map<ScheduleKey, CompletableFuture<MonthSchedule>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder snapshotHits = new LongAdder();
+    private final LongAdder snapshotFallbacks = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder unchanged = new LongAdder();
+    private final LongAdder changed = new LongAdder();
+
+    @Autowired
+    public CachedSchedulesProvider(SchedulesClient schedulesClient,
+                                   @Value("${schedules.cache.ttl:1h}") Duration ttl,
+                                   @Value("${schedules.cache.max-entries:10000}") int maxEntries,
+                                   @Value("${schedules.cache.max-weight:2000000}") long maxWeight,
+                                   TimetableSnapshotStore snapshots) {
+        this(schedulesClient, ttl, maxEntries, maxWeight, Clock.systemUTC(), snapshots);
+    }
+
+    CachedSchedulesProvider(SchedulesPort delegate, Duration ttl, int maxEntries, long maxWeight, Clock clock) {
+        this(delegate, ttl, maxEntries, maxWeight, clock, TimetableSnapshotStore.disabled());
+    }
+
+    CachedSchedulesProvider(SchedulesPort delegate, Duration ttl, int maxEntries, long maxWeight, Clock clock,
+                            TimetableSnapshotStore snapshots) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("schedules.cache.ttl must be positive");
+        }
+        if (maxEntries <= 0 || maxWeight <= 0) {
+            throw new IllegalArgumentException("schedules.cache max-entries/max-weight must be positive");
+        }
+        this.delegate = delegate;
+        this.ttlMillis = ttl.toMillis();
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.clock = clock;
+        this.snapshots = snapshots;
+    }
+
+    @Override
+    public MonthSchedule getSchedule(String departure, String arrival, int year, int month) {
+        return Futures.await(getScheduleAsync(departure, arrival, year, month));
+    }
+
+    @Override
+    public CompletableFuture<MonthSchedule> getScheduleAsync(String departure, String arrival, int year, int month) {
+        ScheduleKey key = new ScheduleKey(departure, arrival, year, month);
+
+        MonthSchedule cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached);
+        }
+        misses.increment();
+
+        CompletableFuture<MonthSchedule> load = new CompletableFuture<>();
+        CompletableFuture<MonthSchedule> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            // Someone else is already fetching this month: share their result
+            coalesced.increment();
+            return existing;
+        }
+
+        // A previous leader may have stored the value between our lookup and putIfAbsent
+        MonthSchedule schedule = lookup(key);
+        if (schedule != null) {
+            inFlight.remove(key, load);
+            load.complete(schedule);
+            return load;
+        }
+
+        StoredSchedule persisted = persisted(key);
+        if (persisted != null && persisted.getFetchedAt() + ttlMillis > clock.millis()) {
+            // Still fresh in the on-disk snapshot: no need to ask upstream
+            store(key, persisted.getSchedule(), persisted.getFetchedAt(), Validators.NONE);
+            snapshotHits.increment();
+            inFlight.remove(key, load);
+            load.complete(persisted.getSchedule());
+            return load;
+        }
+
+        Entry expired = expired(key);
+        CompletableFuture<Conditional<MonthSchedule>> call;
+        try {
+            call = delegate.getScheduleIfModifiedAsync(departure, arrival, year, month,
+                    expired != null ? expired.validators : Validators.NONE);
+        } catch (RuntimeException ex) {
+            call = CompletableFuture.failedFuture(ex);
+        }
+        call.whenComplete((answer, failure) -> {
+            if (failure == null && !answer.isModified() && expired == null) {
+                failure = new ExternalApiException("Schedules API answered 304 to an unconditional request", null);
+            }
+            if (failure != null) {
+                loadFailures.increment();
+                inFlight.remove(key, load);
+                if (persisted != null) {
+                    // Stale but better than an error; not cached, so the next miss retries upstream
+                    snapshotFallbacks.increment();
+                    log.debug("Schedules API failed for {}, serving the snapshot copy", key);
+                    load.complete(persisted.getSchedule());
+                    return;
+                }
+                load.completeExceptionally(Futures.unwrap(failure));
+                return;
+            }
+            MonthSchedule result = reloaded(key, expired, answer, year, month);
+            store(key, result, clock.millis(), answer.getValidators());
+            loadSuccesses.increment();
+            // Stored before leaving inFlight, so later callers always find it somewhere
+            inFlight.remove(key, load);
+            load.complete(result);
+        });
+        return load;
+    }
+
+    public ScheduleCacheStats stats() {
+        int size;
+        long weight;
+        synchronized (this) {
+            size = entries.size();
+            weight = totalWeight;
+        }
+        return new ScheduleCacheStats(hits.sum(), misses.sum(), coalesced.sum(),
+                loadSuccesses.sum(), loadFailures.sum(), evictions.sum(), expirations.sum(),
+                snapshotHits.sum(), snapshotFallbacks.sum(), notModified.sum(), unchanged.sum(), changed.sum(),
+                size, weight);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::sum)
+                .tags("cache", "schedules", "result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::sum)
+                .tags("cache", "schedules", "result", "miss")
+                .register(registry);
+        FunctionCounter.builder("cache.loads", loadSuccesses, LongAdder::sum)
+                .tags("cache", "schedules", "result", "success")
+                .register(registry);
+        FunctionCounter.builder("cache.loads", loadFailures, LongAdder::sum)
+                .tags("cache", "schedules", "result", "failure")
+                .register(registry);
+        FunctionCounter.builder("cache.revalidations", notModified, LongAdder::sum)
+                .tags("cache", "schedules", "result", "not-modified")
+                .register(registry);
+        FunctionCounter.builder("cache.revalidations", unchanged, LongAdder::sum)
+                .tags("cache", "schedules", "result", "unchanged")
+                .register(registry);
+        FunctionCounter.builder("cache.revalidations", changed, LongAdder::sum)
+                .tags("cache", "schedules", "result", "changed")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::sum)
+                .tags("cache", "schedules")
+                .register(registry);
+        Gauge.builder("cache.size", this, cache -> cache.stats().getSize())
+                .tags("cache", "schedules")
+                .register(registry);
+    }
+
+    /**
+     * Copy of the live entries with the time each was fetched, for the timetable snapshot.
+     */
+    public synchronized Map<ScheduleKey, StoredSchedule> export() {
+        long now = clock.millis();
+        Map<ScheduleKey, StoredSchedule> live = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> {
+            if (entry.expiresAt > now) {
+                live.put(key, new StoredSchedule(entry.schedule, entry.fetchedAt));
+            }
+        });
+        return live;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    private synchronized MonthSchedule lookup(ScheduleKey key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= clock.millis()) {
+            // Kept for revalidation until reloaded or evicted
+            if (!entry.expired) {
+                entry.expired = true;
+                expirations.increment();
+            }
+            return null;
+        }
+        return entry.schedule;
+    }
+
+    private synchronized Entry expired(ScheduleKey key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.expiresAt <= clock.millis() ? entry : null;
+    }
+
+    /**
+     * The schedule to cache after a reload: the expired instance when upstream says or
+     * shows it is unchanged, so whatever was derived from it stays valid.
+     */
+    private MonthSchedule reloaded(ScheduleKey key, Entry expired, Conditional<MonthSchedule> answer,
+                                   int year, int month) {
+        if (!answer.isModified()) {
+            notModified.increment();
+            return expired.schedule;
+        }
+        MonthSchedule loaded = answer.getValue() != null ? answer.getValue() : MonthSchedule.empty(year, month);
+        if (expired == null) {
+            return loaded;
+        }
+        if (expired.schedule.hasSameFlights(loaded)) {
+            unchanged.increment();
+            return expired.schedule;
+        }
+        changed.increment();
+        log.debug("Schedule month {} changed upstream", key);
+        return loaded;
+    }
+
+    private StoredSchedule persisted(ScheduleKey key) {
+        TimetableSnapshot snapshot = snapshots.current();
+        return snapshot == null ? null : snapshot.schedule(key);
+    }
+
+    private synchronized void store(ScheduleKey key, MonthSchedule schedule, long fetchedAt, Validators validators) {
+        Entry entry = new Entry(schedule, weigh(schedule), fetchedAt, fetchedAt + ttlMillis, validators);
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        totalWeight += entry.weight;
+
+        Iterator<Map.Entry<ScheduleKey, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || totalWeight > maxWeight) && eldest.hasNext()) {
+            Map.Entry<ScheduleKey, Entry> victim = eldest.next();
+            if (victim.getKey().equals(key)) {
+                // Never evict the entry we are about to return
+                continue;
+            }
+            eldest.remove();
+            totalWeight -= victim.getValue().weight;
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Weight of a schedule month: number of flights it holds (at least 1).
+     */
+    private static long weigh(MonthSchedule schedule) {
+        return Math.max(1, schedule.size());
+    }
+
+    private static final class Entry {
+        private final MonthSchedule schedule;
+        private final long weight;
+        private final long fetchedAt;
+        private final long expiresAt;
+        private final Validators validators;
+        // Counted in the expirations once, guarded by the cache
+        private boolean expired;
+
+        private Entry(MonthSchedule schedule, long weight, long fetchedAt, long expiresAt, Validators validators) {
+            this.schedule = schedule;
+            this.weight = weight;
+            this.fetchedAt = fetchedAt;
+            this.expiresAt = expiresAt;
+            this.validators = validators;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Point-in-time counters of {@link CachedSchedulesProvider}.
+ */
+@Getter
+@AllArgsConstructor
+public class ScheduleCacheStats {
+    private long hitCount;
+    private long missCount;
+    private long coalescedCount;
+    private long loadSuccessCount;
+    private long loadFailureCount;
+    private long evictionCount;
+    private long expirationCount;
+    // Misses answered from the timetable snapshot while still fresh / after an upstream failure
+    private long snapshotHitCount;
+    private long snapshotFallbackCount;
+    // Reloads of an expired month: upstream answered 304 / sent the same flights / sent different flights
+    private long notModifiedCount;
+    private long unchangedCount;
+    private long changedCount;
+    private int size;
+    private long weight;
+}
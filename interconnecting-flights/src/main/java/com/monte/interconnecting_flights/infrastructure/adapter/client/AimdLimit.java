@@ -0,0 +1,49 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limit for one upstream host.
+ * <p>
+ * Every answered call is a sample. A 429, a 5xx, an I/O error or a call slower than
+ * {@code slowCall} means the host is saturated: the limit is multiplied by the backoff
+ * ratio. Any other sample taken while at least half the limit was in use grows it by
+ * {@code 1 / limit}, which is about one more call per round trip. Samples taken with the
+ * limit mostly unused say nothing about capacity and leave it alone.
+ * <p>
+ * Not thread-safe: the owning pool updates it under its own lock.
+ */
+final class AimdLimit {
+
+    private final boolean adaptive;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long slowCallNanos;
+    private double limit;
+
+    AimdLimit(ConcurrencyLimitSettings settings, int maxLimit) {
+        this.adaptive = settings.isAdaptive();
+        this.minLimit = Math.min(settings.getMinLimit(), maxLimit);
+        this.maxLimit = maxLimit;
+        this.backoffRatio = settings.getBackoffRatio();
+        this.slowCallNanos = settings.getSlowCall().toNanos();
+        this.limit = adaptive ? Math.min(settings.getInitialLimit(), maxLimit) : maxLimit;
+    }
+
+    int current() {
+        return (int) limit;
+    }
+
+    /**
+     * @param inFlight calls in flight when this one was answered, itself included
+     */
+    void onSample(long latencyNanos, boolean dropped, int inFlight) {
+        if (!adaptive) {
+            return;
+        }
+        if (dropped || latencyNanos > slowCallNanos) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight * 2 >= current()) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+
+/**
+ * Thrown without calling upstream while the circuit breaker of a host is open.
+ */
+public class CircuitOpenException extends ExternalApiException {
+    public CircuitOpenException(String api, String host) {
+        super("Error while querying the " + api + " API: " + host + " is failing, not calling it for now", null);
+    }
+}
@@ -0,0 +1,55 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * How {@link OutboundHttpClient} adapts the number of concurrent calls per host; the
+ * upper bound is {@code http.client.max-connections-per-host}.
+ */
+@Getter
+@Component
+public class ConcurrencyLimitSettings {
+
+    private final boolean adaptive;
+    private final int initialLimit;
+    private final int minLimit;
+    private final double backoffRatio;
+    private final Duration slowCall;
+    private final int maxQueued;
+
+    @Autowired
+    public ConcurrencyLimitSettings(@Value("${http.client.limiter.adaptive:true}") boolean adaptive,
+                                    @Value("${http.client.limiter.initial-limit:8}") int initialLimit,
+                                    @Value("${http.client.limiter.min-limit:1}") int minLimit,
+                                    @Value("${http.client.limiter.backoff-ratio:0.9}") double backoffRatio,
+                                    @Value("${http.client.limiter.slow-call:2s}") Duration slowCall,
+                                    @Value("${http.client.limiter.max-queued:500}") int maxQueued) {
+        if (minLimit <= 0 || initialLimit < minLimit) {
+            throw new IllegalArgumentException("http.client.limiter limits must be positive, initial >= min");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("http.client.limiter.backoff-ratio must be between 0 and 1");
+        }
+        if (maxQueued < 0) {
+            throw new IllegalArgumentException("http.client.limiter.max-queued must be zero or positive");
+        }
+        this.adaptive = adaptive;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.backoffRatio = backoffRatio;
+        this.slowCall = slowCall;
+        this.maxQueued = maxQueued;
+    }
+
+    /**
+     * Always {@code http.client.max-connections-per-host} concurrent calls, with an unbounded queue.
+     */
+    public static ConcurrencyLimitSettings fixed() {
+        return new ConcurrencyLimitSettings(false, 1, 1, 0.5, Duration.ZERO, 0);
+    }
+}
@@ -1,7 +0,0 @@
-package com.monte.interconnecting_flights.infrastructure.adapter.client;
-
-public class ExternalApiException extends RuntimeException {
-    public ExternalApiException(String message, Throwable cause) {
-        super(message, cause);
-    }
-}
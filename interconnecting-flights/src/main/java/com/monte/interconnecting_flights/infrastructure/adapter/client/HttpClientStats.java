@@ -0,0 +1,29 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Point-in-time counters of {@link OutboundHttpClient} for one upstream host.
+ */
+@Getter
+@AllArgsConstructor
+public class HttpClientStats {
+    private int inFlight;
+    private int queued;
+    // Current concurrency limit, at most http.client.max-connections-per-host
+    private int concurrencyLimit;
+    private long requestCount;
+    private long failureCount;
+    private long timeoutCount;
+    private long bytesReceived;
+    // Calls sent a second time because the first attempt straggled
+    private long hedgedCount;
+    // Calls failed without being sent because the circuit was open
+    private long rejectedCount;
+    // Calls failed without being sent because too many were already queued
+    private long shedCount;
+    // Conditional calls answered 304: the cached copy was still current
+    private long notModifiedCount;
+    private boolean circuitOpen;
+}
@@ -0,0 +1,12 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+
+/**
+ * Thrown without calling upstream when too many calls are already waiting for a host.
+ */
+public class LoadShedException extends ExternalApiException {
+    public LoadShedException(String api, String host) {
+        super("Error while querying the " + api + " API: too many calls waiting for " + host, null);
+    }
+}
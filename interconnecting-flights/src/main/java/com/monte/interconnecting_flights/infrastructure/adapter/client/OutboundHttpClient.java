@@ -0,0 +1,643 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.Validators;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Non-blocking HTTP GET client shared by the Ryanair API adapters.
+ * <p>
+ * Built on {@link java.net.http.HttpClient}: requests are multiplexed on the client's
+ * selector thread, so an in-flight upstream call does not hold any thread while waiting
+ * for the response. Connections are kept alive and reused, which saves a TLS handshake
+ * per call. The requests running against one host at a time are capped by an adaptive
+ * {@link AimdLimit}, bounded by {@code http.client.max-connections-per-host}: it backs off
+ * when the host answers 429, 5xx or slowly and grows while it keeps up, so fan-out follows
+ * the host's real capacity. Requests over the limit wait in a queue, and once
+ * {@code http.client.limiter.max-queued} are waiting new ones are shed with
+ * {@link LoadShedException}. Responses are requested gzip-encoded.
+ * <p>
+ * {@link #getIfModified} sends the validators of a copy the caller already holds, and an
+ * upstream {@code 304 Not Modified} completes the call without any body to read or decode.
+ * <p>
+ * Each host has a circuit breaker: after {@code http.client.circuit-breaker.failure-threshold}
+ * consecutive I/O errors, timeouts, 5xx or 429 responses, calls fail right away with
+ * {@link CircuitOpenException} for {@code http.client.circuit-breaker.open-duration}; then
+ * a single trial call decides whether it closes again. A call still unanswered after the
+ * host's {@code http.client.hedge.percentile} latency is sent a second time, and the first
+ * response wins, so one straggling connection does not set the latency of a whole search.
+ * <p>
+ * Every call is timed as {@code upstream.requests}, tagged with the API and its outcome,
+ * from the moment it is submitted, so time spent queued for a connection is included.
+ */
+@Component
+public class OutboundHttpClient {
+
+    // Recent latencies per host the hedge delay is computed from
+    private static final int LATENCY_WINDOW = 256;
+    private static final int MIN_LATENCY_SAMPLES = 32;
+    private static final int HEDGE_RECOMPUTE_EVERY = 16;
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final int maxConnectionsPerHost;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final int hedgePercentile;
+    private final long hedgeMinDelayNanos;
+    private final ConcurrencyLimitSettings limitSettings;
+    private final Map<String, HostPool> pools = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public OutboundHttpClient(@Value("${http.client.connect-timeout:2s}") Duration connectTimeout,
+                              @Value("${http.client.request-timeout:5s}") Duration requestTimeout,
+                              @Value("${http.client.max-connections-per-host:32}") int maxConnectionsPerHost,
+                              @Value("${http.client.http2:false}") boolean http2,
+                              @Value("${http.client.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                              @Value("${http.client.circuit-breaker.open-duration:30s}") Duration openDuration,
+                              @Value("${http.client.hedge.percentile:95}") int hedgePercentile,
+                              @Value("${http.client.hedge.min-delay:100ms}") Duration hedgeMinDelay,
+                              ConcurrencyLimitSettings limitSettings,
+                              MeterRegistry meterRegistry) {
+        this(newHttpClient(connectTimeout, http2), requestTimeout, maxConnectionsPerHost,
+                failureThreshold, openDuration, hedgePercentile, hedgeMinDelay, limitSettings, meterRegistry);
+    }
+
+    /**
+     * Client with a fixed per-host limit, without circuit breaker or hedging.
+     */
+    OutboundHttpClient(HttpClient httpClient, Duration requestTimeout, int maxConnectionsPerHost) {
+        this(httpClient, requestTimeout, maxConnectionsPerHost, new SimpleMeterRegistry());
+    }
+
+    OutboundHttpClient(HttpClient httpClient, Duration requestTimeout, int maxConnectionsPerHost,
+                       MeterRegistry meterRegistry) {
+        this(httpClient, requestTimeout, maxConnectionsPerHost, 0, Duration.ZERO, 0, Duration.ZERO,
+                ConcurrencyLimitSettings.fixed(), meterRegistry);
+    }
+
+    /**
+     * @param failureThreshold consecutive failures that open a host's circuit, 0 to never open it
+     * @param hedgePercentile  latency percentile after which a call is sent again, 0 to never hedge
+     */
+    OutboundHttpClient(HttpClient httpClient, Duration requestTimeout, int maxConnectionsPerHost,
+                       int failureThreshold, Duration openDuration, int hedgePercentile, Duration hedgeMinDelay,
+                       ConcurrencyLimitSettings limitSettings, MeterRegistry meterRegistry) {
+        if (maxConnectionsPerHost <= 0) {
+            throw new IllegalArgumentException("http.client.max-connections-per-host must be positive");
+        }
+        if (failureThreshold < 0) {
+            throw new IllegalArgumentException(
+                    "http.client.circuit-breaker.failure-threshold must be zero or positive");
+        }
+        if (hedgePercentile < 0 || hedgePercentile >= 100) {
+            throw new IllegalArgumentException("http.client.hedge.percentile must be between 0 and 99");
+        }
+        this.httpClient = httpClient;
+        this.requestTimeout = requestTimeout;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelayNanos = hedgeMinDelay.toNanos();
+        this.limitSettings = limitSettings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Sends a GET and decodes the body once it has been fully received.
+     *
+     * @param api name used in error messages, e.g. "Schedules"
+     * @return a future failed with {@link ExternalApiException} on I/O errors, timeouts,
+     * non-2xx statuses or undecodable bodies, with {@link CircuitOpenException} while the
+     * host's circuit is open, or with {@link LoadShedException} if its queue is full
+     */
+    public <T> CompletableFuture<T> get(String url, Map<String, String> headers, String api,
+                                        ResponseDecoder<T> decoder) {
+        return send(url, headers, api, false, response -> decode(response, decoder));
+    }
+
+    /**
+     * Conditional GET: sends {@code validators} as {@code If-None-Match} and
+     * {@code If-Modified-Since}, and completes with "not modified" when the host answers
+     * {@code 304}. The result carries the validators of the response, to send next time.
+     *
+     * @return a future failed like {@link #get}'s
+     */
+    public <T> CompletableFuture<Conditional<T>> getIfModified(String url, Map<String, String> headers, String api,
+                                                               Validators validators, ResponseDecoder<T> decoder) {
+        Map<String, String> conditionalHeaders = new LinkedHashMap<>(headers);
+        if (validators.getEtag() != null) {
+            conditionalHeaders.put("If-None-Match", validators.getEtag());
+        }
+        if (validators.getLastModified() != null) {
+            conditionalHeaders.put("If-Modified-Since", validators.getLastModified());
+        }
+        return send(url, conditionalHeaders, api, true, response -> {
+            Validators received = validators(response, validators);
+            return response.statusCode() == 304
+                    ? Conditional.notModified(received)
+                    : Conditional.modified(decode(response, decoder), received);
+        });
+    }
+
+    private <T> CompletableFuture<T> send(String url, Map<String, String> headers, String api, boolean conditional,
+                                          ResponseReader<T> reader) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .GET()
+                .timeout(requestTimeout)
+                .header("Accept-Encoding", "gzip");
+        headers.forEach(builder::header);
+        HttpRequest request = builder.build();
+
+        String host = hostKey(uri);
+        HostPool pool = pools.computeIfAbsent(host, this::newHostPool);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        long submittedAt = System.nanoTime();
+        result.whenComplete((value, failure) -> Timer.builder("upstream.requests")
+                .description("Calls to the Ryanair APIs, including time queued for a connection")
+                .tag("api", api.toLowerCase(Locale.ROOT))
+                .tag("outcome", outcome(failure))
+                .register(meterRegistry)
+                .record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS));
+
+        long admission = pool.tryAcquire();
+        if (admission == HostPool.REJECTED) {
+            pool.rejected.increment();
+            result.completeExceptionally(new CircuitOpenException(api, host));
+            return result;
+        }
+        if (admission != HostPool.ADMITTED) {
+            // However the trial call ends (answered, cancelled, shed), the next one may go
+            result.whenComplete((value, failure) -> pool.endTrial(admission));
+        }
+        Call<T> call = new Call<>(request, api, host, conditional, reader, pool, result);
+        call.attempt();
+        long hedgeDelay = pool.hedgeDelayNanos;
+        if (hedgeDelay > 0) {
+            CompletableFuture.delayedExecutor(hedgeDelay, TimeUnit.NANOSECONDS).execute(call::hedge);
+        }
+        return result;
+    }
+
+    /**
+     * Point-in-time counters per host ({@code host:port}).
+     */
+    public Map<String, HttpClientStats> stats() {
+        Map<String, HttpClientStats> stats = new TreeMap<>();
+        pools.forEach((host, pool) -> stats.put(host, pool.stats()));
+        return stats;
+    }
+
+    private static <T> T handle(HttpResponse<byte[]> response, Throwable failure, String api, boolean conditional,
+                                ResponseReader<T> reader, HostPool pool) {
+        if (failure != null) {
+            Throwable cause = Futures.unwrap(failure);
+            pool.failures.increment();
+            pool.failed();
+            if (cause instanceof HttpTimeoutException) {
+                pool.timeouts.increment();
+            }
+            throw new ExternalApiException("Error while querying the " + api + " API: "
+                    + (cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName()),
+                    cause);
+        }
+        pool.bytesReceived.add(response.body().length);
+        if (response.statusCode() / 100 == 5 || response.statusCode() == 429) {
+            pool.failed();
+        } else {
+            pool.succeeded();
+        }
+        boolean notModified = conditional && response.statusCode() == 304;
+        if (response.statusCode() / 100 != 2 && !notModified) {
+            pool.failures.increment();
+            throw new ExternalApiException("Error while querying the " + api + " API: "
+                    + HttpStatusCode.valueOf(response.statusCode()), null);
+        }
+        if (notModified) {
+            pool.notModified.increment();
+        }
+        try {
+            return reader.read(response);
+        } catch (IOException ex) {
+            pool.failures.increment();
+            throw new ExternalApiException("Invalid response from the " + api + " API: "
+                    + ex.getMessage(), ex);
+        }
+    }
+
+    private HostPool newHostPool(String host) {
+        HostPool pool = new HostPool(new AimdLimit(limitSettings, maxConnectionsPerHost),
+                limitSettings.getMaxQueued(), failureThreshold, openNanos, hedgePercentile, hedgeMinDelayNanos);
+        Gauge.builder("upstream.connections.active", pool, HostPool::active)
+                .description("Requests in flight to an upstream host")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("upstream.connections.queued", pool, HostPool::queued)
+                .description("Requests waiting for a connection to an upstream host")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("upstream.concurrency.limit", pool, HostPool::limit)
+                .description("Concurrent requests currently allowed to an upstream host")
+                .tag("host", host)
+                .register(meterRegistry);
+        Gauge.builder("upstream.circuit.open", pool, open -> open.isClosed() ? 0 : 1)
+                .description("1 while calls to an upstream host are rejected by its circuit breaker")
+                .tag("host", host)
+                .register(meterRegistry);
+        return pool;
+    }
+
+    private static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "SUCCESS";
+        }
+        if (failure instanceof CircuitOpenException) {
+            return "REJECTED";
+        }
+        if (failure instanceof LoadShedException) {
+            return "SHED";
+        }
+        return failure.getCause() instanceof HttpTimeoutException ? "TIMEOUT" : "ERROR";
+    }
+
+    /**
+     * Validators of {@code response}; a 304 that omits one keeps the one that was sent.
+     */
+    private static Validators validators(HttpResponse<byte[]> response, Validators sent) {
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (response.statusCode() == 304) {
+            etag = etag != null ? etag : sent.getEtag();
+            lastModified = lastModified != null ? lastModified : sent.getLastModified();
+        }
+        return etag == null && lastModified == null ? Validators.NONE : new Validators(etag, lastModified);
+    }
+
+    private static <T> T decode(HttpResponse<byte[]> response, ResponseDecoder<T> decoder) throws IOException {
+        try (InputStream body = body(response)) {
+            return decoder.decode(body);
+        }
+    }
+
+    private static InputStream body(HttpResponse<byte[]> response) throws IOException {
+        InputStream raw = new ByteArrayInputStream(response.body());
+        boolean gzip = response.headers().firstValue("Content-Encoding")
+                .map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+        return gzip ? new GZIPInputStream(raw) : raw;
+    }
+
+    private static String hostKey(URI uri) {
+        int port = uri.getPort() != -1 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        return uri.getHost() + ":" + port;
+    }
+
+    // Idle connections are kept for http.client.keep-alive, set JVM-wide at startup
+    private static HttpClient newHttpClient(Duration connectTimeout, boolean http2) {
+        return HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    /**
+     * Turns a response body into a value.
+     */
+    @FunctionalInterface
+    public interface ResponseDecoder<T> {
+        T decode(InputStream body) throws IOException;
+    }
+
+    /**
+     * Turns a whole response, status and headers included, into a value.
+     */
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        T read(HttpResponse<byte[]> response) throws IOException;
+    }
+
+    /**
+     * One upstream call: the original attempt and, if it straggles, a hedged one. The first
+     * response completes {@code result} and cancels the other attempt; the call only fails
+     * once every attempt has.
+     */
+    private final class Call<T> {
+        private final HttpRequest request;
+        private final String api;
+        private final String host;
+        // Whether a 304 answers the call
+        private final boolean conditional;
+        private final ResponseReader<T> reader;
+        private final HostPool pool;
+        private final CompletableFuture<T> result;
+        private final AtomicInteger running = new AtomicInteger();
+        private final List<CompletableFuture<HttpResponse<byte[]>>> sent = new CopyOnWriteArrayList<>();
+
+        private Call(HttpRequest request, String api, String host, boolean conditional, ResponseReader<T> reader,
+                     HostPool pool, CompletableFuture<T> result) {
+            this.request = request;
+            this.api = api;
+            this.host = host;
+            this.conditional = conditional;
+            this.reader = reader;
+            this.pool = pool;
+            this.result = result;
+            result.whenComplete((value, failure) -> sent.forEach(attempt -> attempt.cancel(true)));
+        }
+
+        private void attempt() {
+            running.incrementAndGet();
+            boolean accepted = pool.submit(() -> {
+                if (result.isDone()) {
+                    // Answered by the other attempt while this one waited for a connection
+                    running.decrementAndGet();
+                    pool.release();
+                    return;
+                }
+                long sentAt = System.nanoTime();
+                CompletableFuture<HttpResponse<byte[]>> call;
+                try {
+                    call = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray());
+                } catch (RuntimeException ex) {
+                    call = CompletableFuture.failedFuture(ex);
+                }
+                sent.add(call);
+                call.whenComplete((response, failure) -> {
+                    if (failure instanceof CancellationException) {
+                        // The losing attempt of a hedged call says nothing about the host
+                        pool.release();
+                    } else {
+                        pool.release(System.nanoTime() - sentAt, failure != null
+                                || response.statusCode() / 100 == 5 || response.statusCode() == 429);
+                    }
+                    boolean last = running.decrementAndGet() == 0;
+                    if (result.isDone()) {
+                        return;
+                    }
+                    try {
+                        T value = handle(response, failure, api, conditional, reader, pool);
+                        pool.recordLatency(System.nanoTime() - sentAt);
+                        result.complete(value);
+                    } catch (RuntimeException ex) {
+                        if (last) {
+                            result.completeExceptionally(ex);
+                        }
+                    }
+                });
+            });
+            if (!accepted && running.decrementAndGet() == 0) {
+                pool.shed.increment();
+                result.completeExceptionally(new LoadShedException(api, host));
+            }
+        }
+
+        private void hedge() {
+            // Only into a free slot: hedging a congested host would add to the congestion
+            if (!result.isDone() && running.get() > 0 && pool.isClosed() && pool.hasFreeSlot()) {
+                pool.hedged.increment();
+                attempt();
+            }
+        }
+    }
+
+    /**
+     * Caps concurrent requests to one host; requests over the cap wait in FIFO order
+     * without holding a thread. Also holds the host's circuit breaker and latency window.
+     */
+    private static final class HostPool {
+        private static final long REJECTED = -1;
+        private static final long ADMITTED = 0;
+
+        private final AimdLimit limit;
+        private final int maxQueued;
+        private final Queue<Runnable> waiting = new ArrayDeque<>();
+        private int active;
+
+        // Circuit breaker, guarded by "this"
+        private final int failureThreshold;
+        private final long openNanos;
+        private int consecutiveFailures;
+        private boolean open;
+        private boolean probing;
+        // Id of the current or last trial call
+        private long trial;
+        private long openedAt;
+
+        // Latency window, guarded by "latencies"
+        private final int hedgePercentile;
+        private final long hedgeMinDelayNanos;
+        private final long[] latencies = new long[LATENCY_WINDOW];
+        private long samples;
+        // 0 until there are enough samples
+        private volatile long hedgeDelayNanos;
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final LongAdder hedged = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder shed = new LongAdder();
+        private final LongAdder notModified = new LongAdder();
+
+        private HostPool(AimdLimit limit, int maxQueued, int failureThreshold, long openNanos,
+                         int hedgePercentile, long hedgeMinDelayNanos) {
+            this.limit = limit;
+            this.maxQueued = maxQueued;
+            this.failureThreshold = failureThreshold;
+            this.openNanos = openNanos;
+            this.hedgePercentile = hedgePercentile;
+            this.hedgeMinDelayNanos = hedgeMinDelayNanos;
+        }
+
+        /**
+         * Whether a call may go out: always while closed; once open, a single trial call
+         * after the open duration.
+         *
+         * @return {@link #REJECTED}, {@link #ADMITTED}, or the id of the trial call to pass
+         * to {@link #endTrial} once it is over
+         */
+        private synchronized long tryAcquire() {
+            if (!open) {
+                return ADMITTED;
+            }
+            if (probing || System.nanoTime() - openedAt < openNanos) {
+                return REJECTED;
+            }
+            probing = true;
+            return ++trial;
+        }
+
+        /**
+         * Lets another trial call go if trial {@code id} ended without an answer that
+         * closed or reopened the circuit, e.g. because it was cancelled or shed.
+         */
+        private synchronized void endTrial(long id) {
+            if (probing && trial == id) {
+                probing = false;
+            }
+        }
+
+        private synchronized boolean isClosed() {
+            return !open;
+        }
+
+        private synchronized void succeeded() {
+            consecutiveFailures = 0;
+            open = false;
+            probing = false;
+        }
+
+        private synchronized void failed() {
+            consecutiveFailures++;
+            if (failureThreshold > 0 && (probing || consecutiveFailures >= failureThreshold)) {
+                open = true;
+                probing = false;
+                openedAt = System.nanoTime();
+            }
+        }
+
+        private void recordLatency(long nanos) {
+            if (hedgePercentile == 0) {
+                return;
+            }
+            synchronized (latencies) {
+                latencies[(int) (samples++ % LATENCY_WINDOW)] = nanos;
+                if (samples >= MIN_LATENCY_SAMPLES && samples % HEDGE_RECOMPUTE_EVERY == 0) {
+                    long[] window = Arrays.copyOf(latencies, (int) Math.min(samples, LATENCY_WINDOW));
+                    Arrays.sort(window);
+                    long percentile = window[(int) Math.ceil(hedgePercentile / 100.0 * window.length) - 1];
+                    hedgeDelayNanos = Math.max(percentile, hedgeMinDelayNanos);
+                }
+            }
+        }
+
+        /**
+         * Runs {@code send} now, or once a slot frees up.
+         *
+         * @return false, without running it, if the queue is full
+         */
+        private boolean submit(Runnable send) {
+            synchronized (this) {
+                if (active >= limit.current()) {
+                    if (maxQueued > 0 && waiting.size() >= maxQueued) {
+                        return false;
+                    }
+                    requests.increment();
+                    waiting.add(send);
+                    return true;
+                }
+                requests.increment();
+                active++;
+            }
+            send.run();
+            return true;
+        }
+
+        /**
+         * Frees the slot of a call that was not answered by the host.
+         */
+        private void release() {
+            List<Runnable> ready;
+            synchronized (this) {
+                active--;
+                ready = startable();
+            }
+            ready.forEach(Runnable::run);
+        }
+
+        /**
+         * Frees the slot of an answered call, adapting the limit to how the host coped.
+         */
+        private void release(long latencyNanos, boolean dropped) {
+            List<Runnable> ready;
+            synchronized (this) {
+                limit.onSample(latencyNanos, dropped, active);
+                active--;
+                ready = startable();
+            }
+            ready.forEach(Runnable::run);
+        }
+
+        // Guarded by "this"; the limit may have grown or shrunk since the last call
+        private List<Runnable> startable() {
+            if (waiting.isEmpty() || active >= limit.current()) {
+                return List.of();
+            }
+            List<Runnable> ready = new ArrayList<>();
+            while (active < limit.current() && !waiting.isEmpty()) {
+                active++;
+                ready.add(waiting.poll());
+            }
+            return ready;
+        }
+
+        private synchronized boolean hasFreeSlot() {
+            return active < limit.current();
+        }
+
+        private synchronized int limit() {
+            return limit.current();
+        }
+
+        private synchronized int active() {
+            return active;
+        }
+
+        private synchronized int queued() {
+            return waiting.size();
+        }
+
+        private HttpClientStats stats() {
+            int inFlight;
+            int queued;
+            synchronized (this) {
+                inFlight = active;
+                queued = waiting.size();
+            }
+            return new HttpClientStats(inFlight, queued, limit(), requests.sum(), failures.sum(),
+                    timeouts.sum(), bytesReceived.sum(), hedged.sum(), rejected.sum(), shed.sum(), notModified.sum(),
+                    !isClosed());
+        }
+    }
+}
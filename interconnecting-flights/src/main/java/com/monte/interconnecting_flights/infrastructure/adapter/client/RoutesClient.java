@@ -1,58 +1,62 @@
 package com.monte.interconnecting_flights.infrastructure.adapter.client;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.Validators;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
 import com.monte.interconnecting_flights.domain.port.outbound.RoutesPort;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Component
 public class RoutesClient implements RoutesPort {
 
-    private final RestTemplate restTemplate;
+    private static final Map<String, String> HEADERS = Map.of(
+        "User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64)",
+        "Accept", "application/json, text/javascript, */*; q=0.01",
+        "Referer", "https://www.ryanair.com"
+    );
+
+    private final OutboundHttpClient httpClient;
+    private final ObjectMapper objectMapper;
     private final String routesUrl;
 
-    public RoutesClient(@Value("${routes.url}") String routesUrl) {
-        this.restTemplate = new RestTemplate();
+    public RoutesClient(@Value("${routes.url}") String routesUrl, OutboundHttpClient httpClient) {
+        this.httpClient = httpClient;
+        this.objectMapper = new ObjectMapper();
         this.routesUrl = routesUrl; 
     }
 
     @Override
     public List<Map<String, String>> getRoutes() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64)");
-        headers.set("Accept", "application/json, text/javascript, */*; q=0.01");
-        headers.set("Referer", "https://www.ryanair.com");
-
-        HttpEntity<String> entity = new HttpEntity<>(headers);
-
-        try {
-            ResponseEntity<Map[]> response = restTemplate.exchange(
-                routesUrl, HttpMethod.GET, entity, Map[].class
-            );
-
-            // Log response
-            try {
-                ObjectMapper objectMapper = new ObjectMapper();
-                String jsonResponse = objectMapper
-                                      .writerWithDefaultPrettyPrinter()
-                                      .writeValueAsString(response.getBody());
-                System.out.println("Ryanair API response (Routes):");
-                System.out.println(jsonResponse);
-            } catch (Exception e) {
-                System.out.println("Error printing API response");
-            }
-
-            return List.of(response.getBody());
-
-        } catch (HttpClientErrorException e) {
-            throw new ExternalApiException("Error while querying the Routes API: " 
-                                            + e.getStatusCode(), e);
+        return Futures.await(getRoutesAsync());
+    }
+
+    @Override
+    public CompletableFuture<List<Map<String, String>>> getRoutesAsync() {
+        return httpClient.get(routesUrl, HEADERS, "Routes", this::decode);
+    }
+
+    @Override
+    public CompletableFuture<Conditional<List<Map<String, String>>>> getRoutesIfModifiedAsync(Validators validators) {
+        return httpClient.getIfModified(routesUrl, HEADERS, "Routes", validators, this::decode);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, String>> decode(InputStream body) throws IOException {
+        Map[] routes = objectMapper.readValue(body, Map[].class);
+        if (routes == null) {
+            return List.of();
         }
+        log.debug("Routes API returned {} routes", routes.length);
+        return List.of((Map<String, String>[]) routes);
     }
 }
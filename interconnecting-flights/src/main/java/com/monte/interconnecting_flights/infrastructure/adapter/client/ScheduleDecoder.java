@@ -0,0 +1,151 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Streaming decoder for the Schedules API payload:
+ * <pre>
+ * {"month":3,"days":[{"day":1,"flights":[{"departureTime":"17:50","arrivalTime":"21:25",...}]}]}
+ * </pre>
+ * Flights go straight from the token stream into a {@link MonthSchedule} without
+ * building an intermediate tree. Unknown fields are skipped, and flights with an
+ * invalid day or time are dropped without throwing.
+ */
+public class ScheduleDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public ScheduleDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public MonthSchedule decode(InputStream body, int year, int month) throws IOException {
+        MonthSchedule.Builder builder = MonthSchedule.builder(year, month);
+        if (body == null) {
+            return builder.build();
+        }
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return builder.build();
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("days".equals(field) && value == JsonToken.START_ARRAY) {
+                    readDays(parser, builder);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private void readDays(JsonParser parser, MonthSchedule.Builder builder) throws IOException {
+        DayFlights dayFlights = new DayFlights();
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            // "day" may come after "flights": buffer the times until the object ends
+            dayFlights.clear();
+            int day = -1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("day".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    day = parser.getIntValue();
+                } else if ("flights".equals(field) && value == JsonToken.START_ARRAY) {
+                    readFlights(parser, dayFlights);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            for (int i = 0; i < dayFlights.size; i++) {
+                builder.add(day, dayFlights.departures[i], dayFlights.arrivals[i]);
+            }
+        }
+    }
+
+    private void readFlights(JsonParser parser, DayFlights dayFlights) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            int departure = -1;
+            int arrival = -1;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_STRING && "departureTime".equals(field)) {
+                    departure = parseMinuteOfDay(parser);
+                } else if (value == JsonToken.VALUE_STRING && "arrivalTime".equals(field)) {
+                    arrival = parseMinuteOfDay(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (departure >= 0 && arrival >= 0) {
+                dayFlights.add(departure, arrival);
+            }
+        }
+    }
+
+    /**
+     * Parses "HH:mm" from the parser's character buffer; -1 if malformed.
+     */
+    private static int parseMinuteOfDay(JsonParser parser) throws IOException {
+        if (parser.getTextLength() != 5) {
+            return -1;
+        }
+        char[] text = parser.getTextCharacters();
+        int offset = parser.getTextOffset();
+        if (text[offset + 2] != ':') {
+            return -1;
+        }
+        int hours = twoDigits(text[offset], text[offset + 1]);
+        int minutes = twoDigits(text[offset + 3], text[offset + 4]);
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59) {
+            return -1;
+        }
+        return hours * 60 + minutes;
+    }
+
+    private static int twoDigits(char tens, char units) {
+        if (tens < '0' || tens > '9' || units < '0' || units > '9') {
+            return -1;
+        }
+        return (tens - '0') * 10 + (units - '0');
+    }
+
+    private static final class DayFlights {
+        private int[] departures = new int[8];
+        private int[] arrivals = new int[8];
+        private int size;
+
+        void add(int departure, int arrival) {
+            if (size == departures.length) {
+                departures = Arrays.copyOf(departures, size * 2);
+                arrivals = Arrays.copyOf(arrivals, size * 2);
+            }
+            departures[size] = departure;
+            arrivals[size] = arrival;
+            size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+}
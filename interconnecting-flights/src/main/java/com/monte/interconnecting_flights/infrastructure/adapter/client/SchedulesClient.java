@@ -1,35 +1,51 @@
 package com.monte.interconnecting_flights.infrastructure.adapter.client;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.Validators;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
 import com.monte.interconnecting_flights.domain.port.outbound.SchedulesPort;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class SchedulesClient implements SchedulesPort {
 
-    private final RestTemplate restTemplate;
+    private final OutboundHttpClient httpClient;
     private final String schedulesBaseUrl;
+    private final ScheduleDecoder decoder;
 
-    public SchedulesClient(@Value("${schedules.url}") String schedulesBaseUrl) {
-        this.restTemplate = new RestTemplate();
+    public SchedulesClient(@Value("${schedules.url}") String schedulesBaseUrl, OutboundHttpClient httpClient) {
+        this.httpClient = httpClient;
         this.schedulesBaseUrl = schedulesBaseUrl;
+        this.decoder = new ScheduleDecoder(new JsonFactory());
     }
 
     @Override
-    public Map<String, Object> getSchedule(String departure, String arrival, int year, int month) {
+    public MonthSchedule getSchedule(String departure, String arrival, int year, int month) {
+        return Futures.await(getScheduleAsync(departure, arrival, year, month));
+    }
+
+    @Override
+    public CompletableFuture<MonthSchedule> getScheduleAsync(String departure, String arrival, int year, int month) {
+        return httpClient.get(url(departure, arrival, year, month), Map.of(), "Schedules",
+                body -> decoder.decode(body, year, month));
+    }
+
+    @Override
+    public CompletableFuture<Conditional<MonthSchedule>> getScheduleIfModifiedAsync(
+            String departure, String arrival, int year, int month, Validators validators) {
+        return httpClient.getIfModified(url(departure, arrival, year, month), Map.of(), "Schedules", validators,
+                body -> decoder.decode(body, year, month));
+    }
+
+    private String url(String departure, String arrival, int year, int month) {
         // Build URL with: departure/arrival/year/month
-        String url = String.format("%s/%s/%s/years/%d/months/%d",
+        return String.format("%s/%s/%s/years/%d/months/%d",
             schedulesBaseUrl, departure, arrival, year, month);
-
-        try {
-            return restTemplate.getForObject(url, Map.class);
-        } catch (HttpClientErrorException e) {
-            throw new ExternalApiException("Error while querying the Schedules API: " 
-                                            + e.getStatusCode(), e);
-        }
     }
 }
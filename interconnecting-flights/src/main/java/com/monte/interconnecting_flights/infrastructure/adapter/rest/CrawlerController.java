@@ -0,0 +1,47 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.rest;
+
+import com.monte.interconnecting_flights.application.service.CrawlProgress;
+import com.monte.interconnecting_flights.application.service.ScheduleCrawler;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Controls the background {@link ScheduleCrawler}.
+ */
+@RestController
+@RequestMapping("/crawler")
+public class CrawlerController {
+
+    private final ScheduleCrawler crawler;
+
+    public CrawlerController(ScheduleCrawler crawler) {
+        this.crawler = crawler;
+    }
+
+    @GetMapping
+    public CrawlProgress getProgress() {
+        return crawler.progress();
+    }
+
+    /**
+     * Starts a pass now; 409 if one is already running.
+     */
+    @PostMapping("/start")
+    public ResponseEntity<CrawlProgress> start() {
+        HttpStatus status = crawler.start() ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(crawler.progress());
+    }
+
+    @PostMapping("/pause")
+    public CrawlProgress pause() {
+        crawler.pause();
+        return crawler.progress();
+    }
+
+    @PostMapping("/resume")
+    public CrawlProgress resume() {
+        crawler.resume();
+        return crawler.progress();
+    }
+}
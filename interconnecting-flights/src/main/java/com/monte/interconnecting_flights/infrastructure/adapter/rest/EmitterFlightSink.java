@@ -0,0 +1,76 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.rest;
+
+import com.monte.interconnecting_flights.application.service.FlightResultSink;
+import com.monte.interconnecting_flights.domain.model.FlightResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Writes itineraries to an HTTP stream, either as Server-Sent Events ({@code flight}
+ * events) or as newline-delimited JSON.
+ * <p>
+ * Sends are serialised and block while the client is slow to read, which throttles the
+ * fetch threads of that search. Once the client disconnects or the stream times out,
+ * {@link #emit} returns false so the search stops.
+ */
+class EmitterFlightSink implements FlightResultSink {
+
+    private static final String NEWLINE = "\n";
+
+    private final ResponseBodyEmitter emitter;
+    private volatile boolean closed;
+
+    EmitterFlightSink(ResponseBodyEmitter emitter) {
+        this.emitter = emitter;
+        emitter.onCompletion(() -> closed = true);
+        emitter.onTimeout(() -> closed = true);
+        emitter.onError(ex -> closed = true);
+    }
+
+    @Override
+    public synchronized boolean emit(FlightResponse flight) {
+        return send("flight", flight);
+    }
+
+    /**
+     * Ends the stream normally.
+     */
+    synchronized void complete() {
+        if (!closed) {
+            closed = true;
+            emitter.complete();
+        }
+    }
+
+    /**
+     * Ends the stream with a final {@code error} message, same body as the non-streaming errors.
+     */
+    synchronized void fail(String message) {
+        if (send("error", Map.of("error", String.valueOf(message)))) {
+            complete();
+        }
+    }
+
+    private boolean send(String eventName, Object body) {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (emitter instanceof SseEmitter) {
+                ((SseEmitter) emitter).send(SseEmitter.event().name(eventName).data(body, MediaType.APPLICATION_JSON));
+            } else {
+                emitter.send(body, MediaType.APPLICATION_JSON);
+                emitter.send(NEWLINE, MediaType.TEXT_PLAIN);
+            }
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            // Client disconnected or the emitter already completed
+            closed = true;
+            return false;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.monte.interconnecting_flights.infrastructure.adapter.rest;
 
-import com.monte.interconnecting_flights.infrastructure.adapter.client.ExternalApiException;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -1,31 +1,169 @@
 package com.monte.interconnecting_flights.infrastructure.adapter.rest;
 
 import com.monte.interconnecting_flights.application.service.FlightService;
+import com.monte.interconnecting_flights.domain.model.FlightQuery;
+import com.monte.interconnecting_flights.domain.model.FlightQueryResult;
 import com.monte.interconnecting_flights.domain.model.FlightResponse;
-
+import com.monte.interconnecting_flights.domain.model.FlightSort;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/interconnections")
 public class InterconnectionsController {
 
+    private static final String SKIPPED_ROUTES_HEADER = "X-Skipped-Routes";
+
     private final FlightService flightService;
+    private final long streamTimeoutMillis;
+    private final int maxBatchQueries;
+    private final CacheControl cacheControl;
 
-    public InterconnectionsController(FlightService flightService) {
+    public InterconnectionsController(FlightService flightService,
+                                      @Value("${search.stream.timeout:60s}") Duration streamTimeout,
+                                      @Value("${search.batch.max-queries:100}") int maxBatchQueries,
+                                      @Value("${search.http.max-age:60s}") Duration maxAge) {
         this.flightService = flightService;
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        this.maxBatchQueries = maxBatchQueries;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
     }
 
+    /**
+     * Answers with an {@code ETag} that only changes with the flights, and with
+     * {@code 304 Not Modified} when the client already holds them.
+     * <p>
+     * With {@code partial=true}, routes whose schedules the Schedules API failed to return
+     * are skipped instead of failing the search; they are listed in the
+     * {@code X-Skipped-Routes} header and such a response is not cacheable.
+     * <p>
+     * {@code sort} ({@code earliest-arrival}, {@code shortest-duration} or
+     * {@code fewest-stops}) orders the flights and {@code limit} keeps only the first ones;
+     * a limit alone sorts by earliest arrival.
+     * <p>
+     * Flights are written by the {@link ItineraryJsonConverter}, straight from the search results.
+     */
     @GetMapping
-    public List<FlightResponse> getInterconnections(
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = FlightResponse.class))))
+    public CompletableFuture<ResponseEntity<Itineraries>> getInterconnections(
+            @RequestParam String departure,
+            @RequestParam String arrival,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureDateTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime arrivalDateTime,
+            @RequestParam(defaultValue = "1") int maxStops,
+            @RequestParam(defaultValue = "false") boolean partial,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "0") int limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        FlightSort order = sort == null || sort.isBlank() ? null : FlightSort.parse(sort);
+        // Completed by the upstream calls: the servlet thread is released meanwhile
+        return flightService.searchAsync(departure, arrival, departureDateTime, arrivalDateTime, maxStops, partial,
+                        order, limit)
+                .thenApply(result -> {
+                    if (result.isPartial()) {
+                        return ResponseEntity.ok()
+                                .cacheControl(CacheControl.noStore())
+                                .header(SKIPPED_ROUTES_HEADER, String.join(",", result.getSkippedRoutes()))
+                                .body(new Itineraries(result.getFlights()));
+                    }
+                    String etag = '"' + result.getVersion() + '"';
+                    if (matches(ifNoneMatch, etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(etag)
+                                .cacheControl(cacheControl)
+                                .build();
+                    }
+                    return ResponseEntity.ok()
+                            .eTag(etag)
+                            .cacheControl(cacheControl)
+                            .body(new Itineraries(result.getFlights()));
+                });
+    }
+
+    /**
+     * Same search, streamed as each route is resolved: Server-Sent Events by default,
+     * NDJSON when the client accepts {@code application/x-ndjson}.
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<ResponseBodyEmitter> streamInterconnections(
             @RequestParam String departure,
             @RequestParam String arrival,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureDateTime,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime arrivalDateTime
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime arrivalDateTime,
+            @RequestParam(defaultValue = "1") int maxStops,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
-        return flightService.findFlights(departure, arrival, departureDateTime, arrivalDateTime);
+        // Invalid parameters are still a plain 400, before the stream is opened
+        flightService.validate(departure, arrival, departureDateTime, arrivalDateTime, maxStops);
+
+        boolean ndjson = accept != null && accept.contains(MediaType.APPLICATION_NDJSON_VALUE);
+        ResponseBodyEmitter emitter = ndjson
+                ? new ResponseBodyEmitter(streamTimeoutMillis)
+                : new SseEmitter(streamTimeoutMillis);
+        EmitterFlightSink sink = new EmitterFlightSink(emitter);
+
+        flightService.streamFlightsAsync(departure, arrival, departureDateTime, arrivalDateTime, maxStops, sink)
+                .whenComplete((done, failure) -> {
+                    if (failure == null) {
+                        sink.complete();
+                    } else {
+                        sink.fail(Futures.unwrap(failure).getMessage());
+                    }
+                });
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.TEXT_EVENT_STREAM)
+                .body(emitter);
+    }
+
+    /**
+     * Runs many searches at once, fetching each schedule month they share only once.
+     * Answers with one result per query, in the same order: its flights or its error.
+     */
+    @PostMapping("/batch")
+    public CompletableFuture<List<FlightQueryResult>> getInterconnectionsBatch(@RequestBody List<FlightQuery> queries) {
+        if (queries.size() > maxBatchQueries) {
+            throw new IllegalArgumentException("A batch cannot have more than " + maxBatchQueries + " queries");
+        }
+        return flightService.findFlightsBatchAsync(queries);
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header lists {@code etag}, weak or not, or is {@code *}.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
     }
 }
@@ -0,0 +1,22 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.rest;
+
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+
+import java.util.List;
+
+/**
+ * Response body of a search, written as a JSON array of flights by the
+ * {@link ItineraryJsonConverter} instead of Jackson.
+ */
+public final class Itineraries {
+
+    private final List<Itinerary> flights;
+
+    public Itineraries(List<Itinerary> flights) {
+        this.flights = flights;
+    }
+
+    public List<Itinerary> getFlights() {
+        return flights;
+    }
+}
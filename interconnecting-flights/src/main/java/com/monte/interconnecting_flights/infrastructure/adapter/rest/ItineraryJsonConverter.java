@@ -0,0 +1,43 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.rest;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link Itineraries} with the {@link ItineraryJsonWriter}: same JSON as Jackson
+ * gives for a list of {@link com.monte.interconnecting_flights.domain.model.FlightResponse},
+ * without building one. Spring Boot registers converter beans ahead of the default ones.
+ */
+@Component
+public class ItineraryJsonConverter extends AbstractHttpMessageConverter<Itineraries> {
+
+    public ItineraryJsonConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Itineraries.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Itineraries readInternal(Class<? extends Itineraries> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Itineraries are write-only", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Itineraries itineraries, HttpOutputMessage outputMessage) throws IOException {
+        new ItineraryJsonWriter(outputMessage.getBody()).write(itineraries.getFlights());
+    }
+}
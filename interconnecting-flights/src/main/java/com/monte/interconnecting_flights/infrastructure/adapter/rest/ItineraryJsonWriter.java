@@ -0,0 +1,186 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.rest;
+
+import com.monte.interconnecting_flights.domain.model.AirportCode;
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Writes itineraries as the same JSON Jackson produces for {@code List<FlightResponse>},
+ * straight from their int legs into a byte buffer flushed to the output stream.
+ * <p>
+ * Property names and airport codes are pre-encoded bytes, and timestamps
+ * ({@code yyyy-MM-ddTHH:mm:ss}) are written digit by digit; the date part is only
+ * recomputed when the day changes. No {@link com.monte.interconnecting_flights.domain.model.FlightResponse},
+ * {@code LocalDateTime} or {@code String} is created per itinerary.
+ */
+final class ItineraryJsonWriter {
+
+    private static final byte[] STOPS = ascii("{\"stops\":");
+    private static final byte[] LEGS = ascii(",\"legs\":[");
+    private static final byte[] DEPARTURE_AIRPORT = ascii("{\"departureAirport\":");
+    private static final byte[] ARRIVAL_AIRPORT = ascii(",\"arrivalAirport\":");
+    private static final byte[] DEPARTURE_DATE_TIME = ascii(",\"departureDateTime\":");
+    private static final byte[] ARRIVAL_DATE_TIME = ascii(",\"arrivalDateTime\":");
+
+    // Quoted airport codes by id, filled on first use; racing writers store equal arrays
+    private static final AtomicReferenceArray<byte[]> QUOTED_CODES = new AtomicReferenceArray<>(1 << AirportCode.BITS);
+
+    private static final int BUFFER_SIZE = 8192;
+    // Longest single write: a quoted timestamp
+    private static final int MAX_TOKEN = 32;
+
+    private final OutputStream out;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    // "yyyy-MM-dd" of the last day written
+    private final byte[] date = new byte[10];
+    private int dateEpochDay = Integer.MIN_VALUE;
+
+    ItineraryJsonWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes {@code itineraries} as a JSON array and flushes the stream.
+     */
+    void write(List<Itinerary> itineraries) throws IOException {
+        put((byte) '[');
+        for (int i = 0; i < itineraries.size(); i++) {
+            if (i > 0) {
+                put((byte) ',');
+            }
+            write(itineraries.get(i));
+        }
+        put((byte) ']');
+        flush();
+    }
+
+    private void write(Itinerary itinerary) throws IOException {
+        put(STOPS);
+        putInt(itinerary.getStops());
+        put(LEGS);
+        for (int leg = 0; leg < itinerary.legCount(); leg++) {
+            if (leg > 0) {
+                put((byte) ',');
+            }
+            int route = itinerary.routeAt(leg);
+            put(DEPARTURE_AIRPORT);
+            put(quoted(AirportCode.routeOrigin(route)));
+            put(ARRIVAL_AIRPORT);
+            put(quoted(AirportCode.routeDestination(route)));
+            put(DEPARTURE_DATE_TIME);
+            putTimestamp(itinerary.departureAt(leg));
+            put(ARRIVAL_DATE_TIME);
+            putTimestamp(itinerary.arrivalAt(leg));
+            put((byte) '}');
+        }
+        put((byte) ']');
+        put((byte) '}');
+    }
+
+    private void putTimestamp(int epochMinute) throws IOException {
+        ensure(MAX_TOKEN);
+        int epochDay = Math.floorDiv(epochMinute, EpochMinutes.MINUTES_PER_DAY);
+        int minuteOfDay = epochMinute - epochDay * EpochMinutes.MINUTES_PER_DAY;
+        if (epochDay != dateEpochDay) {
+            encodeDate(epochDay);
+        }
+        byte[] bytes = buffer;
+        int p = position;
+        bytes[p++] = '"';
+        System.arraycopy(date, 0, bytes, p, date.length);
+        p += date.length;
+        bytes[p++] = 'T';
+        p = putTwoDigits(bytes, p, minuteOfDay / 60);
+        bytes[p++] = ':';
+        p = putTwoDigits(bytes, p, minuteOfDay % 60);
+        bytes[p++] = ':';
+        bytes[p++] = '0';
+        bytes[p++] = '0';
+        bytes[p++] = '"';
+        position = p;
+    }
+
+    /**
+     * Civil date of an epoch day (proleptic Gregorian, years 0-9999).
+     */
+    private void encodeDate(int epochDay) {
+        // Days since 0000-03-01, split in 400-year eras, as in java.time.LocalDate.ofEpochDay
+        long zeroDay = epochDay + 719468L;
+        long era = Math.floorDiv(zeroDay, 146097);
+        long dayOfEra = zeroDay - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * monthIndex + 2) / 5 + 1);
+        int month = (int) (monthIndex < 10 ? monthIndex + 3 : monthIndex - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        putTwoDigits(date, 0, year / 100);
+        putTwoDigits(date, 2, year % 100);
+        date[4] = '-';
+        putTwoDigits(date, 5, month);
+        date[7] = '-';
+        putTwoDigits(date, 8, day);
+        dateEpochDay = epochDay;
+    }
+
+    private void putInt(int value) throws IOException {
+        ensure(MAX_TOKEN);
+        if (value >= 0 && value < 10) {
+            buffer[position++] = (byte) ('0' + value);
+            return;
+        }
+        put(ascii(Integer.toString(value)));
+    }
+
+    private void put(byte value) throws IOException {
+        ensure(1);
+        buffer[position++] = value;
+    }
+
+    private void put(byte[] bytes) throws IOException {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int length) throws IOException {
+        if (position + length > buffer.length) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer, 0, position);
+        position = 0;
+        out.flush();
+    }
+
+    private static int putTwoDigits(byte[] bytes, int p, int value) {
+        bytes[p] = (byte) ('0' + value / 10);
+        bytes[p + 1] = (byte) ('0' + value % 10);
+        return p + 2;
+    }
+
+    private static byte[] quoted(int airport) {
+        byte[] quoted = QUOTED_CODES.get(airport);
+        if (quoted == null) {
+            quoted = ascii('"' + AirportCode.code(airport) + '"');
+            QUOTED_CODES.set(airport, quoted);
+        }
+        return quoted;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
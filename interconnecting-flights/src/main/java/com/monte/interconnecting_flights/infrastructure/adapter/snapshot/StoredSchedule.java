@@ -0,0 +1,14 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.snapshot;
+
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import lombok.Value;
+
+/**
+ * A schedule month together with the time it was fetched from the Schedules API
+ * (epoch millis), so its freshness survives a restart.
+ */
+@Value
+public class StoredSchedule {
+    MonthSchedule schedule;
+    long fetchedAt;
+}
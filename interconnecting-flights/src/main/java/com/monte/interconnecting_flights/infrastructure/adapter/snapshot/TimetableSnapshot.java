@@ -0,0 +1,292 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.snapshot;
+
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only view over a binary timetable file: the routes list and schedule months,
+ * memory-mapped so opening it costs one pass over a small directory and the flights
+ * themselves are paged in only when a month is asked for.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header     int magic "RTTS", int version, long writtenAt, long routesFetchedAt
+ * strings    int count, then per string: u16 length, UTF-8 bytes
+ * routes     int count, then per route: u16 from, u16 to, u16 connectingAirport, u16 operator
+ * directory  int count, then per month: u16 from, u16 to, u16 year, u8 month, u8 unused,
+ *            long fetchedAt, int flights, int offset
+ * flights    per month, at its offset (in ints): int[flights] departures, int[flights] arrivals
+ * </pre>
+ * Airports and operators are interned into the string table and referenced by index;
+ * {@code 0xFFFF} stands for a missing value. Flight times are
+ * {@link com.monte.interconnecting_flights.domain.model.EpochMinutes epoch-minutes},
+ * exactly as held by {@link MonthSchedule}.
+ */
+public final class TimetableSnapshot {
+
+    private static final int MAGIC = 0x52545453;
+    private static final int VERSION = 1;
+    private static final int NONE = 0xFFFF;
+
+    private final long writtenAt;
+    private final long routesFetchedAt;
+    private final List<Map<String, String>> routes;
+    private final Map<ScheduleKey, MonthRef> directory;
+    private final IntBuffer flights;
+
+    private TimetableSnapshot(long writtenAt, long routesFetchedAt, List<Map<String, String>> routes,
+                              Map<ScheduleKey, MonthRef> directory, IntBuffer flights) {
+        this.writtenAt = writtenAt;
+        this.routesFetchedAt = routesFetchedAt;
+        this.routes = routes;
+        this.directory = directory;
+        this.flights = flights;
+    }
+
+    /**
+     * Maps a snapshot file.
+     *
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static TimetableSnapshot open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            return read(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException ex) {
+            throw new IOException("Corrupt timetable snapshot " + path + ": " + ex, ex);
+        }
+    }
+
+    /**
+     * Writes a snapshot file in one go. Routes keep only the fields the search uses.
+     *
+     * @param routesFetchedAt epoch millis at which {@code routes} were fetched
+     */
+    public static void write(Path path, long writtenAt, List<Map<String, String>> routes, long routesFetchedAt,
+                             Map<ScheduleKey, StoredSchedule> schedules) throws IOException {
+        StringTable strings = new StringTable();
+        for (Map<String, String> route : routes) {
+            strings.add(route.get("airportFrom"));
+            strings.add(route.get("airportTo"));
+            strings.add(route.get("connectingAirport"));
+            strings.add(route.get("operator"));
+        }
+        for (ScheduleKey key : schedules.keySet()) {
+            strings.add(key.getDeparture());
+            strings.add(key.getArrival());
+        }
+
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(writtenAt);
+            out.writeLong(routesFetchedAt);
+
+            out.writeInt(strings.values.size());
+            for (String value : strings.values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+
+            out.writeInt(routes.size());
+            for (Map<String, String> route : routes) {
+                out.writeShort(strings.id(route.get("airportFrom")));
+                out.writeShort(strings.id(route.get("airportTo")));
+                out.writeShort(strings.id(route.get("connectingAirport")));
+                out.writeShort(strings.id(route.get("operator")));
+            }
+
+            out.writeInt(schedules.size());
+            int offset = 0;
+            for (Map.Entry<ScheduleKey, StoredSchedule> entry : schedules.entrySet()) {
+                ScheduleKey key = entry.getKey();
+                int size = entry.getValue().getSchedule().size();
+                out.writeShort(strings.id(key.getDeparture()));
+                out.writeShort(strings.id(key.getArrival()));
+                out.writeShort(key.getYear());
+                out.writeByte(key.getMonth());
+                out.writeByte(0);
+                out.writeLong(entry.getValue().getFetchedAt());
+                out.writeInt(size);
+                out.writeInt(offset);
+                offset = Math.addExact(offset, 2 * size);
+            }
+
+            for (StoredSchedule stored : schedules.values()) {
+                MonthSchedule schedule = stored.getSchedule();
+                for (int i = 0; i < schedule.size(); i++) {
+                    out.writeInt(schedule.departureAt(i));
+                }
+                for (int i = 0; i < schedule.size(); i++) {
+                    out.writeInt(schedule.arrivalAt(i));
+                }
+            }
+        }
+    }
+
+    /**
+     * Time at which the file was written, in epoch millis.
+     */
+    public long getWrittenAt() {
+        return writtenAt;
+    }
+
+    /**
+     * Time at which the stored routes were fetched, in epoch millis.
+     */
+    public long getRoutesFetchedAt() {
+        return routesFetchedAt;
+    }
+
+    /**
+     * Routes in the shape returned by the Routes API: airportFrom, airportTo,
+     * connectingAirport and operator.
+     */
+    public List<Map<String, String>> getRoutes() {
+        return routes;
+    }
+
+    public Set<ScheduleKey> scheduleKeys() {
+        return directory.keySet();
+    }
+
+    public int scheduleCount() {
+        return directory.size();
+    }
+
+    /**
+     * Reads one month from the mapped file, or returns null if the snapshot does not have it.
+     */
+    public StoredSchedule schedule(ScheduleKey key) {
+        MonthRef ref = directory.get(key);
+        if (ref == null) {
+            return null;
+        }
+        int[] departures = new int[ref.flights];
+        int[] arrivals = new int[ref.flights];
+        // Absolute bulk reads: safe to run concurrently on the shared buffer
+        flights.get(ref.offset, departures);
+        flights.get(ref.offset + ref.flights, arrivals);
+        return new StoredSchedule(MonthSchedule.ofSorted(key.getYear(), key.getMonth(), departures, arrivals),
+                ref.fetchedAt);
+    }
+
+    private static TimetableSnapshot read(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a timetable snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported timetable snapshot version " + version);
+        }
+        long writtenAt = buffer.getLong();
+        long routesFetchedAt = buffer.getLong();
+
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int routeCount = buffer.getInt();
+        List<Map<String, String>> routes = new ArrayList<>(routeCount);
+        for (int i = 0; i < routeCount; i++) {
+            Map<String, String> route = new HashMap<>(8);
+            route.put("airportFrom", string(strings, buffer.getShort()));
+            route.put("airportTo", string(strings, buffer.getShort()));
+            route.put("connectingAirport", string(strings, buffer.getShort()));
+            route.put("operator", string(strings, buffer.getShort()));
+            routes.add(Collections.unmodifiableMap(route));
+        }
+
+        int monthCount = buffer.getInt();
+        Map<ScheduleKey, MonthRef> directory = new HashMap<>(monthCount * 2);
+        for (int i = 0; i < monthCount; i++) {
+            ScheduleKey key = new ScheduleKey(string(strings, buffer.getShort()), string(strings, buffer.getShort()),
+                    Short.toUnsignedInt(buffer.getShort()), Byte.toUnsignedInt(buffer.get()));
+            buffer.get();
+            directory.put(key, new MonthRef(buffer.getLong(), buffer.getInt(), buffer.getInt()));
+        }
+
+        IntBuffer flights = buffer.slice().asIntBuffer();
+        for (MonthRef ref : directory.values()) {
+            // Fail now rather than on the first request for a truncated month
+            if (ref.offset < 0 || ref.flights < 0 || (long) ref.offset + 2L * ref.flights > flights.limit()) {
+                throw new IOException("Timetable snapshot is truncated");
+            }
+        }
+        return new TimetableSnapshot(writtenAt, routesFetchedAt, Collections.unmodifiableList(routes),
+                directory, flights);
+    }
+
+    private static String string(String[] strings, short id) {
+        int index = Short.toUnsignedInt(id);
+        return index == NONE ? null : strings[index];
+    }
+
+    private static final class MonthRef {
+        private final long fetchedAt;
+        private final int flights;
+        private final int offset;
+
+        private MonthRef(long fetchedAt, int flights, int offset) {
+            this.fetchedAt = fetchedAt;
+            this.flights = flights;
+            this.offset = offset;
+        }
+    }
+
+    /**
+     * Interns strings to u16 ids in first-seen order.
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> ids = new LinkedHashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        private void add(String value) {
+            if (value == null || ids.containsKey(value)) {
+                return;
+            }
+            if (values.size() == NONE) {
+                throw new IllegalStateException("Too many distinct airports for a timetable snapshot");
+            }
+            if (value.getBytes(StandardCharsets.UTF_8).length > 0xFFFF) {
+                throw new IllegalArgumentException("String too long for a timetable snapshot");
+            }
+            ids.put(value, values.size());
+            values.add(value);
+        }
+
+        private int id(String value) {
+            return value == null ? NONE : ids.get(value);
+        }
+    }
+}
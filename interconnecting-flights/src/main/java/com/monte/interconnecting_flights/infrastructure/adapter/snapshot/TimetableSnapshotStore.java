@@ -0,0 +1,177 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.snapshot;
+
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Holds the on-disk {@link TimetableSnapshot} at {@code timetable.snapshot.path}.
+ * <p>
+ * The newest file is mapped when the application starts, so the caches can serve
+ * routes and schedules before the first upstream call. Each snapshot is a new
+ * generation, {@code <path>.<n>}: it is written to a temporary file, moved to its
+ * final name and only then becomes current, so a crash mid-write never leaves a
+ * truncated snapshot behind and a file that may still be mapped is never overwritten
+ * (which Windows refuses). Older generations are deleted once replaced; one that
+ * cannot be deleted yet is retried after the next write. A file at the bare path is
+ * read as generation 0. An empty path disables the snapshot.
+ */
+@Slf4j
+@Component
+public class TimetableSnapshotStore {
+
+    private static final TimetableSnapshotStore DISABLED = new TimetableSnapshotStore((Path) null);
+
+    private final Path path;
+    private volatile TimetableSnapshot current;
+    // Generation of the current snapshot, guarded by "this"
+    private long generation;
+
+    @Autowired
+    public TimetableSnapshotStore(@Value("${timetable.snapshot.path:}") String path) {
+        this(path == null || path.isBlank() ? null : Path.of(path));
+    }
+
+    TimetableSnapshotStore(Path path) {
+        this.path = path;
+        if (path == null) {
+            return;
+        }
+        NavigableMap<Long, Path> generations;
+        try {
+            generations = generations();
+        } catch (IOException ex) {
+            log.warn("Ignoring timetable snapshots at {}: {}", path, ex.getMessage());
+            return;
+        }
+        // Newest readable generation wins; the older ones are still deleted on the next write
+        for (Map.Entry<Long, Path> file : generations.descendingMap().entrySet()) {
+            try {
+                current = TimetableSnapshot.open(file.getValue());
+                generation = file.getKey();
+                log.info("Timetable snapshot loaded from {}: {} routes, {} schedule months",
+                        file.getValue(), current.getRoutes().size(), current.scheduleCount());
+                return;
+            } catch (IOException ex) {
+                log.warn("Ignoring unreadable timetable snapshot {}: {}", file.getValue(), ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Store that never has a snapshot and never writes one.
+     */
+    public static TimetableSnapshotStore disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    /**
+     * Last snapshot read or written, or null if there is none.
+     */
+    public TimetableSnapshot current() {
+        return current;
+    }
+
+    /**
+     * Writes a new generation and maps it in place of the current one.
+     *
+     * @throws IOException if the file cannot be written; the current snapshot is kept
+     */
+    public synchronized void write(long writtenAt, List<Map<String, String>> routes, long routesFetchedAt,
+                                   Map<ScheduleKey, StoredSchedule> schedules) throws IOException {
+        if (path == null) {
+            return;
+        }
+        Path parent = parent();
+        Files.createDirectories(parent);
+        NavigableMap<Long, Path> existing = generations();
+        long next = Math.max(generation, existing.isEmpty() ? 0 : existing.lastKey()) + 1;
+        Path target = generationPath(next);
+        Path temporary = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            TimetableSnapshot.write(temporary, writtenAt, routes, routesFetchedAt, schedules);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        current = TimetableSnapshot.open(target);
+        generation = next;
+        deleteOlderThan(next);
+    }
+
+    private void deleteOlderThan(long newest) {
+        try {
+            for (Path old : generations().headMap(newest).values()) {
+                try {
+                    Files.deleteIfExists(old);
+                } catch (IOException ex) {
+                    // Typically still mapped on Windows; the next write tries again
+                    log.debug("Could not delete old timetable snapshot {}: {}", old, ex.getMessage());
+                }
+            }
+        } catch (IOException ex) {
+            log.debug("Could not list old timetable snapshots at {}: {}", path, ex.getMessage());
+        }
+    }
+
+    /**
+     * Snapshot files by generation: the bare path is 0, {@code <path>.<n>} is n.
+     */
+    private NavigableMap<Long, Path> generations() throws IOException {
+        NavigableMap<Long, Path> generations = new TreeMap<>();
+        Path parent = parent();
+        if (!Files.isDirectory(parent)) {
+            return generations;
+        }
+        String bare = path.getFileName().toString();
+        String prefix = bare + ".";
+        try (Stream<Path> files = Files.list(parent)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.equals(bare)) {
+                    generations.put(0L, file);
+                } else if (name.startsWith(prefix) && isNumber(name.substring(prefix.length()))) {
+                    generations.put(Long.parseLong(name.substring(prefix.length())), file);
+                }
+            });
+        }
+        return generations;
+    }
+
+    private Path generationPath(long generation) {
+        return parent().resolve(path.getFileName().toString() + "." + generation);
+    }
+
+    private Path parent() {
+        return path.toAbsolutePath().getParent();
+    }
+
+    private static boolean isNumber(String text) {
+        if (text.isEmpty() || text.length() > 18) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
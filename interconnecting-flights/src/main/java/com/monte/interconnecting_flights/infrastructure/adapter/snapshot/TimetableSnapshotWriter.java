@@ -0,0 +1,136 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.snapshot;
+
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.infrastructure.adapter.cache.CachedRoutesProvider;
+import com.monte.interconnecting_flights.infrastructure.adapter.cache.CachedSchedulesProvider;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists what the caches hold to the {@link TimetableSnapshotStore} every
+ * {@code timetable.snapshot.write-interval}, and once more on shutdown.
+ * <p>
+ * Months from the previous snapshot within the crawler's horizon, the current month and
+ * the {@code crawler.months-ahead} - 1 after it, are carried over even if they have left
+ * the cache, so the file keeps covering the searches seen before the last restart without
+ * growing past what the crawler would fetch anyway. Does nothing when the snapshot is
+ * disabled.
+ */
+@Slf4j
+@Component
+public class TimetableSnapshotWriter {
+
+    private final TimetableSnapshotStore store;
+    private final CachedRoutesProvider routesProvider;
+    private final CachedSchedulesProvider schedulesProvider;
+    private final int monthsAhead;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+
+    @Autowired
+    public TimetableSnapshotWriter(TimetableSnapshotStore store,
+                                   CachedRoutesProvider routesProvider,
+                                   CachedSchedulesProvider schedulesProvider,
+                                   @Value("${timetable.snapshot.write-interval:10m}") Duration writeInterval,
+                                   @Value("${crawler.months-ahead:3}") int monthsAhead) {
+        this(store, routesProvider, schedulesProvider, writeInterval, monthsAhead, Clock.systemUTC());
+    }
+
+    TimetableSnapshotWriter(TimetableSnapshotStore store, CachedRoutesProvider routesProvider,
+                            CachedSchedulesProvider schedulesProvider, Duration writeInterval, int monthsAhead,
+                            Clock clock) {
+        if (writeInterval.isNegative() || writeInterval.isZero()) {
+            throw new IllegalArgumentException("timetable.snapshot.write-interval must be positive");
+        }
+        if (monthsAhead <= 0) {
+            throw new IllegalArgumentException("crawler.months-ahead must be positive");
+        }
+        this.store = store;
+        this.routesProvider = routesProvider;
+        this.schedulesProvider = schedulesProvider;
+        this.monthsAhead = monthsAhead;
+        this.clock = clock;
+        if (!store.isEnabled()) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "timetable-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = writeInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::write, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Writes a snapshot now.
+     *
+     * @return true if a new file was written
+     */
+    public synchronized boolean write() {
+        if (!store.isEnabled()) {
+            return false;
+        }
+        TimetableSnapshot previous = store.current();
+
+        List<Map<String, String>> routes = routesProvider.cachedRoutes();
+        Instant routesFetchedAt = routesProvider.lastRefresh();
+        if (routes == null && previous != null) {
+            routes = previous.getRoutes();
+            routesFetchedAt = Instant.ofEpochMilli(previous.getRoutesFetchedAt());
+        }
+
+        Map<ScheduleKey, StoredSchedule> schedules = new LinkedHashMap<>();
+        if (previous != null) {
+            YearMonth currentMonth = YearMonth.now(clock);
+            YearMonth horizon = currentMonth.plusMonths(monthsAhead);
+            for (ScheduleKey key : previous.scheduleKeys()) {
+                YearMonth month = YearMonth.of(key.getYear(), key.getMonth());
+                if (!month.isBefore(currentMonth) && month.isBefore(horizon)) {
+                    schedules.put(key, previous.schedule(key));
+                }
+            }
+        }
+        // Cached months are at least as recent as the ones on disk
+        schedules.putAll(schedulesProvider.export());
+
+        if (routes == null && schedules.isEmpty()) {
+            return false;
+        }
+        try {
+            store.write(clock.millis(), routes == null ? List.of() : routes,
+                    routesFetchedAt == null ? 0 : routesFetchedAt.toEpochMilli(), schedules);
+            log.debug("Timetable snapshot written: {} routes, {} schedule months",
+                    routes == null ? 0 : routes.size(), schedules.size());
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.warn("Could not write the timetable snapshot: {}", ex.getMessage());
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        write();
+    }
+}
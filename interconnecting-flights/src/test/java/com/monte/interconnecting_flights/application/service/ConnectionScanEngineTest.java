@@ -0,0 +1,146 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.FlightLeg;
+import com.monte.interconnecting_flights.domain.model.FlightResponse;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for ConnectionScanEngine.
+ */
+class ConnectionScanEngineTest {
+
+    private static final List<YearMonth> MARCH = List.of(YearMonth.of(2025, 3));
+    private static final int WINDOW_START = EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, 0, 0));
+    private static final int WINDOW_END = EpochMinutes.floor(LocalDateTime.of(2025, 3, 11, 0, 0));
+
+    private final ConnectionScanEngine engine = new ConnectionScanEngine(120, Integer.MAX_VALUE);
+
+    private Map<ScheduleKey, MonthSchedule.Builder> builders;
+    private Map<String, Set<String>> routes;
+
+    @BeforeEach
+    void setUp() {
+        builders = new LinkedHashMap<>();
+        routes = new LinkedHashMap<>();
+    }
+
+    private void flight(String from, String to, String departureTime, String arrivalTime) {
+        builders.computeIfAbsent(new ScheduleKey(from, to, 2025, 3), k -> MonthSchedule.builder(2025, 3))
+                .add(10, minuteOfDay(departureTime), minuteOfDay(arrivalTime));
+        routes.computeIfAbsent(from, k -> new LinkedHashSet<>()).add(to);
+    }
+
+    private static int minuteOfDay(String time) {
+        return Integer.parseInt(time.substring(0, 2)) * 60 + Integer.parseInt(time.substring(3));
+    }
+
+    private List<FlightResponse> search(int maxStops) {
+        Map<ScheduleKey, MonthSchedule> schedules = new HashMap<>();
+        builders.forEach((key, builder) -> schedules.put(key, builder.build()));
+        return Itinerary.toFlightResponses(
+                engine.search(schedules, MARCH, routes, "DUB", "WRO", WINDOW_START, WINDOW_END, maxStops));
+    }
+
+    private static String describe(FlightResponse itinerary) {
+        return itinerary.getLegs().stream()
+                .map(ConnectionScanEngineTest::describe)
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String describe(FlightLeg leg) {
+        return leg.getDepartureAirport() + "-" + leg.getArrivalAirport() + "@"
+                + leg.getDepartureDateTime().toLocalTime();
+    }
+
+    @Test
+    void testSearch_FindsTwoStopItinerary() {
+        // GIVEN: DUB -> STN -> BVA -> WRO with 2h+ at each stop
+        flight("DUB", "STN", "06:00", "07:00");
+        flight("STN", "BVA", "09:30", "10:30");
+        flight("BVA", "WRO", "13:00", "15:00");
+
+        // WHEN
+        List<FlightResponse> result = search(2);
+
+        // THEN
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getStops());
+        assertEquals("DUB-STN@06:00 STN-BVA@09:30 BVA-WRO@13:00", describe(result.get(0)));
+    }
+
+    @Test
+    void testSearch_RespectsMaxStopsAndMinimumConnection() {
+        flight("DUB", "STN", "06:00", "07:00");
+        flight("STN", "BVA", "09:30", "10:30");
+        flight("BVA", "WRO", "13:00", "15:00");
+        // Exactly 2h at BVA: not a valid connection
+        flight("BVA", "WRO", "12:30", "14:30");
+
+        assertEquals(1, search(2).size());
+        assertTrue(search(1).isEmpty());
+    }
+
+    @Test
+    void testSearch_KeepsOnlyParetoOptimalItineraries() {
+        // Direct 09:00 -> 12:00
+        flight("DUB", "WRO", "09:00", "12:00");
+        // Dominated: leaves earlier, arrives later, one stop
+        flight("DUB", "STN", "06:00", "07:00");
+        flight("STN", "WRO", "10:00", "13:00");
+        // Not dominated: leaves later than the direct flight
+        flight("DUB", "BVA", "10:00", "11:00");
+        flight("BVA", "WRO", "14:00", "16:00");
+        // Not dominated: arrives earlier than any other option
+        flight("DUB", "MAD", "05:00", "06:00");
+        flight("MAD", "BCN", "08:01", "09:00");
+        flight("BCN", "WRO", "11:01", "11:30");
+
+        List<String> result = search(3).stream()
+                .map(ConnectionScanEngineTest::describe)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(
+                "DUB-MAD@05:00 MAD-BCN@08:01 BCN-WRO@11:01",
+                "DUB-WRO@09:00",
+                "DUB-BVA@10:00 BVA-WRO@14:00"), result);
+    }
+
+    @Test
+    void testSearch_MaxLayoverLimitsTransfers() {
+        flight("DUB", "STN", "06:00", "07:00");
+        flight("STN", "BVA", "12:30", "13:30");
+        flight("BVA", "WRO", "16:00", "18:00");
+
+        ConnectionScanEngine bounded = new ConnectionScanEngine(120, 240);
+        Map<ScheduleKey, MonthSchedule> schedules = new HashMap<>();
+        builders.forEach((key, builder) -> schedules.put(key, builder.build()));
+
+        assertTrue(bounded.search(schedules, MARCH, routes, "DUB", "WRO", WINDOW_START, WINDOW_END, 2).isEmpty());
+        assertEquals(1, search(2).size());
+    }
+
+    @Test
+    void testSearch_UnknownAirportsOrNoFlights() {
+        assertTrue(search(2).isEmpty());
+
+        flight("DUB", "STN", "06:00", "07:00");
+        assertTrue(search(2).isEmpty());
+    }
+}
@@ -1,21 +1,37 @@
 package com.monte.interconnecting_flights.application.service;
 
+import com.monte.interconnecting_flights.domain.model.FlightQuery;
+import com.monte.interconnecting_flights.domain.model.FlightQueryResult;
 import com.monte.interconnecting_flights.domain.model.FlightResponse;
-import com.monte.interconnecting_flights.infrastructure.adapter.client.ExternalApiException;
+import com.monte.interconnecting_flights.domain.model.FlightSearchResult;
+import com.monte.interconnecting_flights.domain.model.FlightSort;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
 import com.monte.interconnecting_flights.infrastructure.adapter.client.RoutesClient;
 import com.monte.interconnecting_flights.infrastructure.adapter.client.SchedulesClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Unit test for FlightService.
@@ -26,6 +42,17 @@ class FlightServiceTest {
     private RoutesClient routesClientMock;
     private SchedulesClient schedulesClientMock;
 
+    /**
+     * Schedule month with a single flight on the given day ("HH:mm" times).
+     */
+    private static MonthSchedule schedule(int year, int month, int day, String departureTime, String arrivalTime) {
+        MonthSchedule.Builder builder = MonthSchedule.builder(year, month);
+        builder.add(day,
+                LocalTime.parse(departureTime).toSecondOfDay() / 60,
+                LocalTime.parse(arrivalTime).toSecondOfDay() / 60);
+        return builder.build();
+    }
+
     @BeforeEach
     void setUp() {
         routesClientMock = Mockito.mock(RoutesClient.class);
@@ -49,16 +76,7 @@ class FlightServiceTest {
         given(routesClientMock.getRoutes()).willReturn(routesData);
 
         // 2) Preparamos data simulada para SchedulesClient
-        Map<String, Object> scheduleMock = Map.of(
-            "days", List.of(
-                Map.of(
-                    "day", 10,
-                    "flights", List.of(
-                        Map.of("departureTime", "09:30", "arrivalTime", "12:55")
-                    )
-                )
-            )
-        );
+        MonthSchedule scheduleMock = schedule(2025, 3, 10, "09:30", "12:55");
         given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
                 .willReturn(scheduleMock);
 
@@ -118,6 +136,19 @@ class FlightServiceTest {
         });
     }
 
+    @Test
+    void testFindFlights_MaxStopsOutOfRange_ThrowsException() {
+        LocalDateTime dep = LocalDateTime.of(2025, 3, 10, 7, 0);
+        LocalDateTime arr = LocalDateTime.of(2025, 3, 10, 21, 0);
+
+        assertThrows(IllegalArgumentException.class, () -> {
+            flightService.findFlights("DUB", "WRO", dep, arr, -1);
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            flightService.findFlights("DUB", "WRO", dep, arr, FlightService.MAX_STOPS_LIMIT + 1);
+        });
+    }
+
     @Test
     void testFindFlights_ExternalApiError() {
         // GIVEN
@@ -161,31 +192,13 @@ class FlightServiceTest {
 
         // SchedulesClient mock:
         // DUB->STN => day=10, flight 07:00 -> 08:00 (1h)
-        Map<String, Object> scheduleDUB_STN = Map.of(
-            "days", List.of(
-                Map.of(
-                    "day", 10,
-                    "flights", List.of(
-                        Map.of("departureTime", "07:00", "arrivalTime", "08:00")
-                    )
-                )
-            )
-        );
+        MonthSchedule scheduleDUB_STN = schedule(2025, 3, 10, "07:00", "08:00");
         given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
             .willReturn(scheduleDUB_STN);
 
         // STN->WRO => day=10, flight 10:05 -> 12:55
         // (sale 2h 5min despues de 08:00 => sí cumple 2h mínimas)
-        Map<String, Object> scheduleSTN_WRO = Map.of(
-            "days", List.of(
-                Map.of(
-                    "day", 10,
-                    "flights", List.of(
-                        Map.of("departureTime", "10:05", "arrivalTime", "12:55")
-                    )
-                )
-            )
-        );
+        MonthSchedule scheduleSTN_WRO = schedule(2025, 3, 10, "10:05", "12:55");
         given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
             .willReturn(scheduleSTN_WRO);
 
@@ -220,17 +233,8 @@ class FlightServiceTest {
         given(routesClientMock.getRoutes()).willReturn(routesData);
 
         // Schedules: día=10 con flight 22:00 -> 01:00 (arrivalTime < departureTime => cruza medianoche)
-        Map<String, Object> scheduleDUB_WRO = Map.of(
-            "days", List.of(
-                Map.of(
-                    "day", 10,
-                    "flights", List.of(
-                        Map.of("departureTime", "22:00", "arrivalTime", "01:00") 
-                        // arrivalTime=01:00 => interpretado como day=10+1=11
-                    )
-                )
-            )
-        );
+        MonthSchedule scheduleDUB_WRO = schedule(2025, 3, 10, "22:00", "01:00");
+        // arrivalTime=01:00 => interpretado como day=10+1=11
         given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
             .willReturn(scheduleDUB_WRO);
 
@@ -265,17 +269,8 @@ class FlightServiceTest {
         given(routesClientMock.getRoutes()).willReturn(routesData);
 
         // Schedules con day=32 (un día inexistente)
-        Map<String, Object> scheduleDUB_WRO = Map.of(
-            "days", List.of(
-                Map.of(
-                    "day", 32,
-                    "flights", List.of(
-                        Map.of("departureTime", "09:30", "arrivalTime", "12:55")
-                    )
-                )
-            )
-        );
-        // => Al intentar LocalDateTime.of(..., day=32) => salta DateTimeException en findDirectFlights
+        MonthSchedule scheduleDUB_WRO = schedule(2025, 3, 32, "09:30", "12:55");
+        // => El día 32 no existe en marzo: el vuelo se descarta al construir el schedule
         given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
             .willReturn(scheduleDUB_WRO);
 
@@ -286,8 +281,427 @@ class FlightServiceTest {
 
         // THEN
         // Esperamos una lista vacía, porque se ignora el flight con day=32
-        // (la excepción se captura y se hace continue)
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void testFindFlights_WindowAcrossMonthBoundary() {
+        // GIVEN
+        // Rutas: DUB->WRO directa
+        List<Map<String, String>> routesData = List.of(
+            new HashMap<>() {{
+                put("airportFrom", "DUB");
+                put("airportTo", "WRO");
+                put("connectingAirport", null);
+                put("operator", "RYANAIR");
+            }}
+        );
+        given(routesClientMock.getRoutes()).willReturn(routesData);
+
+        // Marzo: día 31 con un vuelo 23:00 -> 01:30 que llega el 1 de abril
+        MonthSchedule scheduleMarch = schedule(2025, 3, 31, "23:00", "01:30");
+        // Abril: día 2 con un vuelo 09:30 -> 12:55
+        MonthSchedule scheduleApril = schedule(2025, 4, 2, "09:30", "12:55");
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3)).willReturn(scheduleMarch);
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 4)).willReturn(scheduleApril);
+
+        // WHEN: 30-mar 00:00 -> 2-abr 23:59
+        LocalDateTime depDate = LocalDateTime.of(2025, 3, 30, 0, 0);
+        LocalDateTime arrDate = LocalDateTime.of(2025, 4, 2, 23, 59);
+        List<FlightResponse> result = flightService.findFlights("DUB", "WRO", depDate, arrDate);
+
+        // THEN: ambos meses se consultan y se combinan
+        assertEquals(2, result.size());
+        List<String> arrivals = result.stream()
+            .map(flight -> flight.getLegs().get(0).getArrivalDateTime().toString())
+            .sorted()
+            .toList();
+        assertEquals(List.of("2025-04-01T01:30", "2025-04-02T12:55"), arrivals);
+    }
+
+    @Test
+    void testMonthsInWindow_SpansEveryTouchedMonth() {
+        assertEquals(
+            List.of(YearMonth.of(2024, 12), YearMonth.of(2025, 1), YearMonth.of(2025, 2)),
+            FlightService.monthsInWindow(LocalDateTime.of(2024, 12, 30, 0, 0), LocalDateTime.of(2025, 2, 1, 0, 0))
+        );
+        assertEquals(
+            List.of(YearMonth.of(2025, 3)),
+            FlightService.monthsInWindow(LocalDateTime.of(2025, 3, 10, 7, 0), LocalDateTime.of(2025, 3, 10, 21, 0))
+        );
+    }
+
+    @Test
+    void testFindFlights_ConnectionTimeAndMaxLayover() {
+        // GIVEN
+        // Rutas: DUB -> STN -> WRO, con layover máximo de 4h
+        flightService = new FlightService(routesClientMock, ScheduleFetcher.sequential(schedulesClientMock),
+                Duration.ofHours(2), Duration.ofHours(4));
+        List<Map<String, String>> routesData = List.of(
+            new HashMap<>() {{
+                put("airportFrom", "DUB");
+                put("airportTo", "STN");
+                put("connectingAirport", null);
+                put("operator", "RYANAIR");
+            }},
+            new HashMap<>() {{
+                put("airportFrom", "STN");
+                put("airportTo", "WRO");
+                put("connectingAirport", null);
+                put("operator", "RYANAIR");
+            }}
+        );
+        given(routesClientMock.getRoutes()).willReturn(routesData);
+
+        // DUB->STN llega a las 08:00
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "07:00", "08:00"));
+
+        // STN->WRO: 10:00 (justo 2h, no vale), 10:30 y 11:45 (válidos), 12:30 (más de 4h, no vale)
+        MonthSchedule.Builder secondLeg = MonthSchedule.builder(2025, 3);
+        secondLeg.add(10, 10 * 60, 11 * 60);
+        secondLeg.add(10, 12 * 60 + 30, 13 * 60 + 30);
+        secondLeg.add(10, 10 * 60 + 30, 11 * 60 + 30);
+        secondLeg.add(10, 11 * 60 + 45, 12 * 60 + 45);
+        given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
+            .willReturn(secondLeg.build());
+
+        // WHEN
+        LocalDateTime depDate = LocalDateTime.of(2025, 3, 10, 6, 0);
+        LocalDateTime arrDate = LocalDateTime.of(2025, 3, 10, 21, 0);
+        List<FlightResponse> result = flightService.findFlights("DUB", "WRO", depDate, arrDate);
+
+        // THEN
+        List<String> secondLegDepartures = result.stream()
+            .map(flight -> flight.getLegs().get(1).getDepartureDateTime().toString())
+            .sorted()
+            .toList();
+        assertEquals(List.of("2025-03-10T10:30", "2025-03-10T11:45"), secondLegDepartures);
+    }
+
+    @Test
+    void testFindFlights_TwoStopsWithConnectionScan() {
+        // GIVEN
+        // Rutas: DUB -> STN -> BVA -> WRO, sin ruta directa ni de una escala
+        List<Map<String, String>> routesData = new ArrayList<>();
+        for (String[] route : new String[][]{{"DUB", "STN"}, {"STN", "BVA"}, {"BVA", "WRO"}}) {
+            Map<String, String> data = new HashMap<>();
+            data.put("airportFrom", route[0]);
+            data.put("airportTo", route[1]);
+            data.put("connectingAirport", null);
+            data.put("operator", "RYANAIR");
+            routesData.add(data);
+        }
+        given(routesClientMock.getRoutes()).willReturn(routesData);
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "06:00", "07:00"));
+        given(schedulesClientMock.getSchedule("STN", "BVA", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "09:30", "10:30"));
+        given(schedulesClientMock.getSchedule("BVA", "WRO", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "13:00", "15:00"));
+
+        LocalDateTime depDate = LocalDateTime.of(2025, 3, 10, 5, 0);
+        LocalDateTime arrDate = LocalDateTime.of(2025, 3, 10, 21, 0);
+
+        // WHEN
+        List<FlightResponse> oneStop = flightService.findFlights("DUB", "WRO", depDate, arrDate);
+        List<FlightResponse> twoStops = flightService.findFlights("DUB", "WRO", depDate, arrDate, 2);
+
+        // THEN
+        assertTrue(oneStop.isEmpty());
+        assertEquals(1, twoStops.size());
+        assertEquals(2, twoStops.get(0).getStops());
+        assertEquals("BVA", twoStops.get(0).getLegs().get(2).getDepartureAirport());
+    }
+
+    @Test
+    void testStreamFlights_EmitsEachRouteAndStopsWhenConsumerLeaves() {
+        // GIVEN
+        // Rutas: DUB -> WRO directa y DUB -> STN -> WRO
+        List<Map<String, String>> routesData = new ArrayList<>();
+        for (String[] route : new String[][]{{"DUB", "WRO"}, {"DUB", "STN"}, {"STN", "WRO"}}) {
+            Map<String, String> data = new HashMap<>();
+            data.put("airportFrom", route[0]);
+            data.put("airportTo", route[1]);
+            data.put("connectingAirport", null);
+            data.put("operator", "RYANAIR");
+            routesData.add(data);
+        }
+        given(routesClientMock.getRoutes()).willReturn(routesData);
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "09:30", "12:55"));
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "07:00", "08:00"));
+        given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "10:05", "12:55"));
+
+        LocalDateTime depDate = LocalDateTime.of(2025, 3, 10, 6, 0);
+        LocalDateTime arrDate = LocalDateTime.of(2025, 3, 10, 21, 0);
+
+        // WHEN
+        List<FlightResponse> all = new ArrayList<>();
+        flightService.streamFlights("DUB", "WRO", depDate, arrDate, 1, all::add);
+        List<FlightResponse> firstOnly = new ArrayList<>();
+        flightService.streamFlights("DUB", "WRO", depDate, arrDate, 1, flight -> {
+            firstOnly.add(flight);
+            return false;
+        });
+
+        // THEN
+        // La ruta directa se pide primero, así que es el primer resultado emitido
+        assertEquals(2, all.size());
+        assertEquals(0, all.get(0).getStops());
+        assertEquals(1, all.get(1).getStops());
+        assertEquals(1, firstOnly.size());
+    }
+
+    @Test
+    void testFindFlightsBatch_FetchesSharedMonthsOnceAndIsolatesErrors() {
+        // GIVEN
+        // Rutas: DUB -> WRO directa, DUB -> STN -> WRO y DUB -> BVA
+        List<Map<String, String>> routesData = new ArrayList<>();
+        for (String[] route : new String[][]{{"DUB", "WRO"}, {"DUB", "STN"}, {"STN", "WRO"}, {"DUB", "BVA"}}) {
+            Map<String, String> data = new HashMap<>();
+            data.put("airportFrom", route[0]);
+            data.put("airportTo", route[1]);
+            data.put("connectingAirport", null);
+            data.put("operator", "RYANAIR");
+            routesData.add(data);
+        }
+        given(routesClientMock.getRoutesAsync()).willReturn(CompletableFuture.completedFuture(routesData));
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "09:30", "12:55"));
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "07:00", "08:00"));
+        given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
+            .willReturn(schedule(2025, 3, 10, "10:05", "12:55"));
+        given(schedulesClientMock.getSchedule("DUB", "BVA", 2025, 3))
+            .willThrow(new ExternalApiException("Error while querying the Schedules API: 500 INTERNAL_SERVER_ERROR", null));
+
+        LocalDateTime depDate = LocalDateTime.of(2025, 3, 10, 6, 0);
+        LocalDateTime arrDate = LocalDateTime.of(2025, 3, 10, 21, 0);
+        List<FlightQuery> queries = List.of(
+            new FlightQuery("DUB", "WRO", depDate, arrDate, 1),
+            new FlightQuery("DUB", "WRO", depDate, arrDate, 0),
+            new FlightQuery("DUB", "DUB", depDate, arrDate, 1),
+            new FlightQuery("DUB", "BVA", depDate, arrDate, 1));
+
+        // WHEN
+        List<FlightQueryResult> results = flightService.findFlightsBatchAsync(queries).join();
+
+        // THEN
+        assertEquals(4, results.size());
+        assertEquals(2, results.get(0).getFlights().size());
+        assertEquals(1, results.get(1).getFlights().size());
+        assertEquals("departure and arrival cannot be the same", results.get(2).getError());
+        assertTrue(results.get(3).getError().contains("500"));
+        // El mes DUB -> WRO lo necesitan dos consultas pero se pide una sola vez
+        verify(schedulesClientMock, times(1)).getSchedule("DUB", "WRO", 2025, 3);
+    }
+
+    @Test
+    void testFindFlights_RecordsSearchMetrics() {
+        // GIVEN: DUB -> WRO direct and through STN
+        MeterRegistry registry = new SimpleMeterRegistry();
+        flightService = new FlightService(routesClientMock, ScheduleFetcher.sequential(schedulesClientMock),
+                Duration.ofHours(2), null, new RouteDemand(), new SearchMetrics(registry),
+                SearchResultCache.disabled(), OperatingDayIndex.disabled());
+        List<Map<String, String>> routesData = new ArrayList<>();
+        for (String[] route : new String[][]{{"DUB", "WRO"}, {"DUB", "STN"}, {"STN", "WRO"}}) {
+            Map<String, String> routeMap = new HashMap<>();
+            routeMap.put("airportFrom", route[0]);
+            routeMap.put("airportTo", route[1]);
+            routeMap.put("connectingAirport", null);
+            routeMap.put("operator", "RYANAIR");
+            routesData.add(routeMap);
+        }
+        given(routesClientMock.getRoutes()).willReturn(routesData);
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "09:30", "12:55"));
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "07:00", "08:00"));
+        given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "11:00", "13:00"));
+
+        // WHEN
+        List<FlightResponse> result = flightService.findFlights("DUB", "WRO",
+                LocalDateTime.of(2025, 3, 10, 6, 0), LocalDateTime.of(2025, 3, 10, 21, 0));
+
+        // THEN: one stopover and three months fetched, two itineraries returned
+        assertEquals(2, result.size());
+        assertEquals(1.0, registry.get("flights.search.stopovers").tag("maxStops", "1").summary().totalAmount());
+        assertEquals(3.0, registry.get("flights.search.schedules").tag("maxStops", "1").summary().totalAmount());
+        assertEquals(2.0, registry.get("flights.search.results").tag("maxStops", "1").summary().totalAmount());
+        assertEquals(1, registry.get("flights.search.evaluation").tag("maxStops", "1").timer().count());
+    }
+
+    @Test
+    void testSearchAsync_ReusesResultWhileSchedulesAreUnchanged() throws Exception {
+        // GIVEN: the same routes list and schedule month come back for both searches
+        flightService = new FlightService(routesClientMock, ScheduleFetcher.sequential(schedulesClientMock),
+                Duration.ofHours(2), null, new RouteDemand(), new SearchMetrics(), new SearchResultCache(100), OperatingDayIndex.disabled());
+        Map<String, String> routeMap = new HashMap<>();
+        routeMap.put("airportFrom", "DUB");
+        routeMap.put("airportTo", "WRO");
+        routeMap.put("connectingAirport", null);
+        routeMap.put("operator", "RYANAIR");
+        given(routesClientMock.getRoutesAsync()).willReturn(CompletableFuture.completedFuture(List.of(routeMap)));
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "09:30", "12:55"));
+
+        // WHEN: the second window only differs in seconds
+        FlightSearchResult first = flightService.searchAsync("DUB", "WRO",
+                LocalDateTime.of(2025, 3, 10, 7, 0), LocalDateTime.of(2025, 3, 10, 21, 0), 1).get();
+        FlightSearchResult second = flightService.searchAsync("DUB", "WRO",
+                LocalDateTime.of(2025, 3, 10, 6, 59, 30), LocalDateTime.of(2025, 3, 10, 21, 0, 45), 1).get();
+
+        // THEN
+        assertEquals(1, first.getFlights().size());
+        assertSame(first, second);
+    }
+
+    @Test
+    void testSearchAsync_PartialSkipsStopoversWhoseSchedulesFailed() throws Exception {
+        // GIVEN: DUB -> WRO direct and through STN, but DUB -> STN cannot be fetched
+        List<Map<String, String>> routesData = new ArrayList<>();
+        for (String[] route : new String[][]{{"DUB", "WRO"}, {"DUB", "STN"}, {"STN", "WRO"}}) {
+            Map<String, String> routeMap = new HashMap<>();
+            routeMap.put("airportFrom", route[0]);
+            routeMap.put("airportTo", route[1]);
+            routeMap.put("connectingAirport", null);
+            routeMap.put("operator", "RYANAIR");
+            routesData.add(routeMap);
+        }
+        given(routesClientMock.getRoutesAsync()).willReturn(CompletableFuture.completedFuture(routesData));
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "09:30", "12:55"));
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+                .willThrow(new ExternalApiException("Error while querying the Schedules API: 503", null));
+        given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "11:00", "13:00"));
+
+        // WHEN
+        FlightSearchResult result = flightService.searchAsync("DUB", "WRO",
+                LocalDateTime.of(2025, 3, 10, 6, 0), LocalDateTime.of(2025, 3, 10, 21, 0), 1, true).get();
+
+        // THEN: the direct flight is returned and the stopover reported as skipped
+        assertTrue(result.isPartial());
+        assertEquals(List.of("DUB-STN-WRO"), result.getSkippedRoutes());
+        assertEquals(1, result.getFlights().size());
+        assertEquals(0, result.getFlights().get(0).getStops());
+    }
+
+    @Test
+    void testSearchAsync_SortsAndLimitsTheResults() throws Exception {
+        // GIVEN: a direct flight arriving at 12:55 and a connection through STN arriving at 11:00
+        List<Map<String, String>> routesData = new ArrayList<>();
+        for (String[] route : new String[][]{{"DUB", "WRO"}, {"DUB", "STN"}, {"STN", "WRO"}}) {
+            Map<String, String> routeMap = new HashMap<>();
+            routeMap.put("airportFrom", route[0]);
+            routeMap.put("airportTo", route[1]);
+            routeMap.put("connectingAirport", null);
+            routeMap.put("operator", "RYANAIR");
+            routesData.add(routeMap);
+        }
+        given(routesClientMock.getRoutesAsync()).willReturn(CompletableFuture.completedFuture(routesData));
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "09:30", "12:55"));
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "06:00", "07:00"));
+        given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "09:10", "11:00"));
+        LocalDateTime from = LocalDateTime.of(2025, 3, 10, 5, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 10, 21, 0);
+
+        // WHEN
+        List<Itinerary> earliest = flightService.searchAsync("DUB", "WRO", from, to, 1, false,
+                null, 1).get().getFlights();
+        List<Itinerary> fewestStops = flightService.searchAsync("DUB", "WRO", from, to, 1, false,
+                FlightSort.FEWEST_STOPS, 1).get().getFlights();
+        List<Itinerary> all = flightService.searchAsync("DUB", "WRO", from, to, 1, false,
+                FlightSort.SHORTEST_DURATION, 0).get().getFlights();
+
+        // THEN: a limit alone sorts by earliest arrival
+        assertEquals(1, earliest.size());
+        assertEquals(1, earliest.get(0).getStops());
+        assertEquals(1, fewestStops.size());
+        assertEquals(0, fewestStops.get(0).getStops());
+        assertEquals(2, all.size());
+        assertEquals(0, all.get(0).getStops());
+        assertThrows(IllegalArgumentException.class, () -> flightService.searchAsync("DUB", "WRO", from, to, 1,
+                false, null, -1));
+    }
+
+    @Test
+    void testFindFlights_SkipsStopoversThatDoNotOperateInTheWindow() {
+        // GIVEN: DUB -> STN only flies on the 10th, STN -> WRO only on the 12th
+        List<Map<String, String>> routesData = new ArrayList<>();
+        for (String[] route : new String[][]{{"DUB", "STN"}, {"STN", "WRO"}}) {
+            Map<String, String> routeMap = new HashMap<>();
+            routeMap.put("airportFrom", route[0]);
+            routeMap.put("airportTo", route[1]);
+            routeMap.put("connectingAirport", null);
+            routeMap.put("operator", "RYANAIR");
+            routesData.add(routeMap);
+        }
+        given(routesClientMock.getRoutes()).willReturn(routesData);
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "07:00", "08:00"));
+        given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 12, "10:05", "12:55"));
+        flightService.findFlights("DUB", "WRO",
+                LocalDateTime.of(2025, 3, 10, 6, 0), LocalDateTime.of(2025, 3, 10, 21, 0));
+
+        // WHEN: another search on the 11th, when neither leg flies
+        List<FlightResponse> result = flightService.findFlights("DUB", "WRO",
+                LocalDateTime.of(2025, 3, 11, 6, 0), LocalDateTime.of(2025, 3, 11, 21, 0));
+
+        // THEN: the stopover is pruned without asking for its schedules again
+        assertTrue(result.isEmpty());
+        verify(schedulesClientMock, times(1)).getSchedule("DUB", "STN", 2025, 3);
+        verify(schedulesClientMock, times(1)).getSchedule("STN", "WRO", 2025, 3);
+        verify(schedulesClientMock, never()).getSchedule("DUB", "WRO", 2025, 3);
+    }
+
+    @Test
+    void testSearch_ListsAFlightListedTwiceOnceAndDirectFirst() throws Exception {
+        // GIVEN: DUB -> WRO lists its 09:30 flight twice; the stopover via STN departs earlier
+        List<Map<String, String>> routesData = new ArrayList<>();
+        for (String[] route : new String[][]{{"DUB", "WRO"}, {"DUB", "STN"}, {"STN", "WRO"}}) {
+            Map<String, String> routeMap = new HashMap<>();
+            routeMap.put("airportFrom", route[0]);
+            routeMap.put("airportTo", route[1]);
+            routeMap.put("connectingAirport", null);
+            routeMap.put("operator", "RYANAIR");
+            routesData.add(routeMap);
+        }
+        given(routesClientMock.getRoutes()).willReturn(routesData);
+        given(routesClientMock.getRoutesAsync()).willReturn(CompletableFuture.completedFuture(routesData));
+        MonthSchedule.Builder twice = MonthSchedule.builder(2025, 3);
+        twice.add(10, 570, 775);
+        twice.add(10, 570, 775);
+        given(schedulesClientMock.getSchedule("DUB", "WRO", 2025, 3)).willReturn(twice.build());
+        given(schedulesClientMock.getSchedule("DUB", "STN", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "07:00", "08:00"));
+        given(schedulesClientMock.getSchedule("STN", "WRO", 2025, 3))
+                .willReturn(schedule(2025, 3, 10, "11:00", "13:00"));
+        LocalDateTime from = LocalDateTime.of(2025, 3, 10, 6, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 3, 10, 21, 0);
+
+        // WHEN
+        List<FlightResponse> result = flightService.findFlights("DUB", "WRO", from, to);
+        List<FlightResponse> async = flightService.findFlightsAsync("DUB", "WRO", from, to, 1).get();
+        List<FlightResponse> searched = Itinerary.toFlightResponses(
+                flightService.searchAsync("DUB", "WRO", from, to, 1).get().getFlights());
+        List<FlightResponse> streamed = new ArrayList<>();
+        flightService.streamFlights("DUB", "WRO", from, to, 1, streamed::add);
+
+        // THEN: one direct flight, then the stopover, the same every way
+        for (List<FlightResponse> flights : List.of(result, async, searched)) {
+            assertEquals(2, flights.size());
+            assertEquals(0, flights.get(0).getStops());
+            assertEquals(1, flights.get(1).getStops());
+        }
+        assertEquals(2, streamed.size());
+    }
 }
@@ -0,0 +1,130 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for OperatingDayIndex.
+ */
+class OperatingDayIndexTest {
+
+    private static final List<YearMonth> MARCH = List.of(YearMonth.of(2025, 3));
+    private static final ScheduleKey DUB_WRO = new ScheduleKey("DUB", "WRO", 2025, 3);
+
+    private static MonthSchedule weekly() {
+        // Mondays only: 3, 10, 17, 24 and 31 March 2025
+        MonthSchedule.Builder builder = MonthSchedule.builder(2025, 3);
+        for (int day = 3; day <= 31; day += 7) {
+            builder.add(day, 9 * 60, 12 * 60);
+        }
+        return builder.build();
+    }
+
+    private static int minute(int day, int hour) {
+        return EpochMinutes.floor(LocalDateTime.of(2025, 3, day, hour, 0));
+    }
+
+    @Test
+    void testMayOperate_OnlyOnDaysWithDepartures() {
+        // GIVEN
+        OperatingDayIndex index = new OperatingDayIndex(Duration.ofHours(1));
+        index.record(DUB_WRO, weekly());
+
+        // THEN
+        assertTrue(index.mayOperate("DUB", "WRO", MARCH, minute(10, 6), minute(10, 21)));
+        assertFalse(index.mayOperate("DUB", "WRO", MARCH, minute(11, 6), minute(14, 21)));
+        assertTrue(index.mayOperate("DUB", "WRO", MARCH, minute(28, 0), minute(31, 23)));
+        // Route never seen: it may fly
+        assertTrue(index.mayOperate("DUB", "STN", MARCH, minute(11, 6), minute(11, 21)));
+    }
+
+    @Test
+    void testMayOperate_ForgetsMasksAfterTheTtl() {
+        // GIVEN
+        MutableClock clock = new MutableClock(Instant.parse("2025-03-01T00:00:00Z"));
+        OperatingDayIndex index = new OperatingDayIndex(Duration.ofMinutes(10), clock);
+        index.record(DUB_WRO, MonthSchedule.empty(2025, 3));
+        assertFalse(index.mayOperate("DUB", "WRO", MARCH, minute(11, 6), minute(11, 21)));
+
+        // WHEN
+        clock.advance(Duration.ofMinutes(10));
+
+        // THEN
+        assertTrue(index.mayOperate("DUB", "WRO", MARCH, minute(11, 6), minute(11, 21)));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testMayOperate_NewFlightIsFoundOnceTheScheduleCacheWouldRefresh() {
+        // GIVEN: a 24h TTL configured over a 1h schedules cache; no flight on the 11th yet
+        MutableClock clock = new MutableClock(Instant.parse("2025-03-01T00:00:00Z"));
+        OperatingDayIndex index = new OperatingDayIndex(Duration.ofHours(24), Duration.ofHours(1), clock);
+        index.record(DUB_WRO, weekly());
+        assertFalse(index.mayOperate("DUB", "WRO", MARCH, minute(11, 6), minute(11, 21)));
+
+        // WHEN: upstream adds a flight on the 11th and the cached month would be refreshed
+        clock.advance(Duration.ofHours(1));
+        boolean fetched = index.mayOperate("DUB", "WRO", MARCH, minute(11, 6), minute(11, 21));
+        MonthSchedule.Builder refreshed = MonthSchedule.builder(2025, 3);
+        refreshed.add(11, 10 * 60, 13 * 60);
+        index.record(DUB_WRO, refreshed.build());
+
+        // THEN: the route was fetched again and the new day is learnt
+        assertTrue(fetched);
+        assertTrue(index.mayOperate("DUB", "WRO", MARCH, minute(11, 6), minute(11, 21)));
+    }
+
+    @Test
+    void testDisabled_NeverPrunes() {
+        // GIVEN
+        OperatingDayIndex index = OperatingDayIndex.disabled();
+        index.record(DUB_WRO, MonthSchedule.empty(2025, 3));
+
+        // THEN
+        assertTrue(index.mayOperate("DUB", "WRO", MARCH, minute(11, 6), minute(11, 21)));
+        assertEquals(0, index.size());
+    }
+
+    /**
+     * Test clock that only moves when told to.
+     */
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        private void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
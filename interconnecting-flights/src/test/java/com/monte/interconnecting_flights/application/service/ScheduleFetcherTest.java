@@ -0,0 +1,201 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.domain.port.outbound.SchedulesPort;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for ScheduleFetcher.
+ */
+class ScheduleFetcherTest {
+
+    private ExecutorService pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = Executors.newFixedThreadPool(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private static List<ScheduleKey> keys(int count) {
+        List<ScheduleKey> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add(new ScheduleKey("DUB", "S" + i, 2025, 3));
+        }
+        return keys;
+    }
+
+    @Test
+    void testFetchAll_ReturnsEveryKeyAndRespectsConcurrencyCap() {
+        // GIVEN: an upstream that records how many calls overlap
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        SchedulesPort upstream = (departure, arrival, year, month) -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return MonthSchedule.empty(year, month);
+        };
+        ScheduleFetcher fetcher = new ScheduleFetcher(upstream, pool, 4, Duration.ofSeconds(5));
+
+        // WHEN
+        Map<ScheduleKey, MonthSchedule> schedules = fetcher.fetchAll(keys(20));
+
+        // THEN
+        assertEquals(20, schedules.size());
+        assertEquals(3, schedules.get(new ScheduleKey("DUB", "S7", 2025, 3)).getMonth());
+        assertTrue(maxInFlight.get() <= 4, "at most 4 concurrent calls, got " + maxInFlight.get());
+        assertTrue(maxInFlight.get() > 1, "calls should overlap");
+    }
+
+    @Test
+    void testFetchAll_DeadlineExceeded() {
+        SchedulesPort slowUpstream = (departure, arrival, year, month) -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return MonthSchedule.empty(year, month);
+        };
+        ScheduleFetcher fetcher = new ScheduleFetcher(slowUpstream, pool, 4, Duration.ofMillis(100));
+
+        assertThrows(ExternalApiException.class, () -> fetcher.fetchAll(keys(2)));
+    }
+
+    @Test
+    void testFetchAll_UpstreamFailurePropagates() {
+        SchedulesPort failingUpstream = (departure, arrival, year, month) -> {
+            if ("S3".equals(arrival)) {
+                throw new ExternalApiException("Error while querying the Schedules API: 404 NOT_FOUND", null);
+            }
+            return MonthSchedule.empty(year, month);
+        };
+        ScheduleFetcher fetcher = new ScheduleFetcher(failingUpstream, pool, 4, Duration.ofSeconds(5));
+
+        ExternalApiException ex = assertThrows(ExternalApiException.class, () -> fetcher.fetchAll(keys(10)));
+        assertTrue(ex.getMessage().contains("404"));
+    }
+
+    @Test
+    void testSequential_RunsOnCallingThread() {
+        Thread caller = Thread.currentThread();
+        SchedulesPort upstream = (departure, arrival, year, month) -> {
+            assertSame(caller, Thread.currentThread());
+            return MonthSchedule.empty(year, month);
+        };
+
+        assertEquals(3, ScheduleFetcher.sequential(upstream).fetchAll(keys(3)).size());
+    }
+
+    @Test
+    void testFetchAll_NotifiesEachMonthAndAbortsWhenListenerThrows() {
+        List<ScheduleKey> seen = new ArrayList<>();
+        ScheduleFetcher fetcher = ScheduleFetcher.sequential((departure, arrival, year, month) -> null);
+
+        // A null schedule is treated as an empty month
+        Map<ScheduleKey, MonthSchedule> schedules = fetcher.fetchAll(keys(3), (key, schedule) -> seen.add(key));
+        assertEquals(keys(3), seen);
+        assertTrue(schedules.values().stream().allMatch(MonthSchedule::isEmpty));
+
+        seen.clear();
+        assertThrows(IllegalStateException.class, () -> fetcher.fetchAll(keys(5), (key, schedule) -> {
+            seen.add(key);
+            throw new IllegalStateException("stop");
+        }));
+        assertEquals(1, seen.size());
+    }
+
+    @Test
+    void testFetchAllAsync_KeepsConcurrencyCapWithoutThreads() {
+        // GIVEN: a non-blocking upstream whose calls are completed by the test
+        List<CompletableFuture<MonthSchedule>> calls = new ArrayList<>();
+        SchedulesPort asyncUpstream = new SchedulesPort() {
+            @Override
+            public MonthSchedule getSchedule(String departure, String arrival, int year, int month) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<MonthSchedule> getScheduleAsync(String departure, String arrival, int year, int month) {
+                CompletableFuture<MonthSchedule> call = new CompletableFuture<>();
+                calls.add(call);
+                return call;
+            }
+        };
+        ScheduleFetcher fetcher = new ScheduleFetcher(asyncUpstream, 2, Duration.ofSeconds(5));
+
+        // WHEN
+        CompletableFuture<Map<ScheduleKey, MonthSchedule>> result = fetcher.fetchAllAsync(keys(3), (key, schedule) -> { });
+
+        // THEN: only two calls in flight; finishing one starts the third
+        assertEquals(2, calls.size());
+        calls.get(0).complete(MonthSchedule.empty(2025, 3));
+        assertEquals(3, calls.size());
+        calls.get(1).complete(MonthSchedule.empty(2025, 3));
+        assertFalse(result.isDone());
+        calls.get(2).complete(MonthSchedule.empty(2025, 3));
+        assertEquals(3, result.join().size());
+    }
+
+    @Test
+    void testFetchEachAsync_KeepsOtherMonthsWhenOneFails() {
+        SchedulesPort failingUpstream = (departure, arrival, year, month) -> {
+            if ("S3".equals(arrival)) {
+                throw new ExternalApiException("Error while querying the Schedules API: 404 NOT_FOUND", null);
+            }
+            return MonthSchedule.empty(year, month);
+        };
+        ScheduleFetcher fetcher = new ScheduleFetcher(failingUpstream, pool, 4, Duration.ofSeconds(5));
+
+        ScheduleFetcher.FetchResult result = fetcher.fetchEachAsync(keys(10)).join();
+
+        assertEquals(9, result.getSchedules().size());
+        assertEquals(1, result.getFailures().size());
+        assertTrue(result.getFailures().get(new ScheduleKey("DUB", "S3", 2025, 3)).getMessage().contains("404"));
+    }
+
+    @Test
+    void testFetchEachAsync_DeadlineFailsOnlyMissingMonths() {
+        SchedulesPort upstream = (departure, arrival, year, month) -> {
+            if ("S1".equals(arrival)) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return MonthSchedule.empty(year, month);
+        };
+        ScheduleFetcher fetcher = new ScheduleFetcher(upstream, pool, 4, Duration.ofMillis(200));
+
+        ScheduleFetcher.FetchResult result = fetcher.fetchEachAsync(keys(3)).join();
+
+        assertEquals(2, result.getSchedules().size());
+        assertTrue(result.getFailures().get(new ScheduleKey("DUB", "S1", 2025, 3)) instanceof ExternalApiException);
+    }
+}
@@ -0,0 +1,112 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.AirportCode;
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.FlightSearchResult;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for SearchResultCache.
+ */
+class SearchResultCacheTest {
+
+    private static final SearchResultCache.Key KEY = new SearchResultCache.Key("DUB", "WRO", 100, 200, 1);
+    private static final ScheduleKey MARCH = new ScheduleKey("DUB", "WRO", 2025, 3);
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    private static List<Itinerary> flights(int departureHour) {
+        return List.of(Itinerary.direct(AirportCode.route("DUB", "WRO"),
+                EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, departureHour, 0)),
+                EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, departureHour + 3, 0))));
+    }
+
+    private Supplier<List<Itinerary>> evaluation(int departureHour) {
+        return () -> {
+            evaluations.incrementAndGet();
+            return flights(departureHour);
+        };
+    }
+
+    @Test
+    void testGet_ReusesResultWhileInputsAreTheSame() {
+        // GIVEN
+        SearchResultCache cache = new SearchResultCache(10);
+        List<Object> routes = List.of();
+        MonthSchedule march = MonthSchedule.empty(2025, 3);
+
+        // WHEN
+        FlightSearchResult first = cache.get(KEY, routes, Map.of(MARCH, march), evaluation(9));
+        FlightSearchResult second = cache.get(new SearchResultCache.Key("DUB", "WRO", 100, 200, 1),
+                routes, Map.of(MARCH, march), evaluation(9));
+
+        // THEN
+        assertSame(first, second);
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    void testGet_ReevaluatesWhenRoutesOrAMonthChange() {
+        SearchResultCache cache = new SearchResultCache(10);
+        List<Object> routes = List.of();
+        MonthSchedule march = MonthSchedule.empty(2025, 3);
+        FlightSearchResult first = cache.get(KEY, routes, Map.of(MARCH, march), evaluation(9));
+
+        // A reloaded month with the same flights: evaluated again, same version
+        FlightSearchResult reloaded = cache.get(KEY, routes, Map.of(MARCH, MonthSchedule.empty(2025, 3)),
+                evaluation(9));
+        assertEquals(2, evaluations.get());
+        assertNotSame(first, reloaded);
+        assertEquals(first.getVersion(), reloaded.getVersion());
+
+        // A new routes snapshot with different flights: new version
+        FlightSearchResult changed = cache.get(KEY, List.of(), Map.of(MARCH, march), evaluation(10));
+        assertEquals(3, evaluations.get());
+        assertNotEquals(first.getVersion(), changed.getVersion());
+    }
+
+    @Test
+    void testGet_EvictsLeastRecentlyUsedAndDisabledKeepsNothing() {
+        SearchResultCache cache = new SearchResultCache(1);
+        List<Object> routes = List.of();
+        SearchResultCache.Key other = new SearchResultCache.Key("DUB", "STN", 100, 200, 1);
+        cache.get(KEY, routes, Map.of(), evaluation(9));
+        cache.get(other, routes, Map.of(), evaluation(9));
+        cache.get(KEY, routes, Map.of(), evaluation(9));
+        assertEquals(3, evaluations.get());
+
+        SearchResultCache disabled = SearchResultCache.disabled();
+        disabled.get(KEY, routes, Map.of(), evaluation(9));
+        disabled.get(KEY, routes, Map.of(), evaluation(9));
+        assertEquals(5, evaluations.get());
+    }
+
+    @Test
+    void testGet_MissesOnceWhatItWasBuiltFromIsCollected() {
+        // GIVEN: a cached search
+        SearchResultCache cache = new SearchResultCache(10);
+        List<Object> routes = List.of();
+        Map<ScheduleKey, MonthSchedule> schedules = Map.of(MARCH, MonthSchedule.empty(2025, 3));
+        cache.get(KEY, routes, schedules, evaluation(9));
+
+        // WHEN: the collector clears the routes and month it only holds weakly
+        cache.clearReferences();
+
+        // THEN: a collected referent matches nothing, so the search is evaluated again
+        cache.get(KEY, routes, schedules, evaluation(9));
+        assertEquals(2, evaluations.get());
+        cache.get(KEY, routes, schedules, evaluation(9));
+        assertEquals(2, evaluations.get());
+    }
+}
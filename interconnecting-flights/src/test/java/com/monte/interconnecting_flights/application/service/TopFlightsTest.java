@@ -0,0 +1,80 @@
+package com.monte.interconnecting_flights.application.service;
+
+import com.monte.interconnecting_flights.domain.model.AirportCode;
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.FlightSort;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for TopFlights.
+ */
+class TopFlightsTest {
+
+    private static Itinerary flight(int stops, int departureHour, int arrivalHour) {
+        // Every leg but the last is a zero-length placeholder: only the ends and the stops matter here
+        int departure = EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, departureHour, 0));
+        int[] legs = new int[(stops + 1) * 3];
+        for (int leg = 0; leg <= stops; leg++) {
+            legs[leg * 3] = AirportCode.route("DUB", "WRO");
+            legs[leg * 3 + 1] = departure;
+            legs[leg * 3 + 2] = departure;
+        }
+        legs[legs.length - 1] = EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, arrivalHour, 0));
+        return Itinerary.of(legs);
+    }
+
+    @Test
+    void testOffer_KeepsTheBestUpToTheLimit() {
+        // GIVEN
+        TopFlights top = new TopFlights(FlightSort.EARLIEST_ARRIVAL, 2);
+        Itinerary late = flight(0, 9, 15);
+        Itinerary early = flight(1, 6, 11);
+        Itinerary middle = flight(0, 10, 13);
+
+        // WHEN
+        top.offer(late);
+        top.offer(early);
+        top.offer(middle);
+
+        // THEN
+        assertEquals(List.of(early, middle), top.toList());
+        assertFalse(top.accepts(FlightSort.EARLIEST_ARRIVAL.rank(flight(0, 12, 14))));
+    }
+
+    @Test
+    void testOffer_WithoutLimitSortsEverythingAndKeepsTiesInOfferOrder() {
+        // GIVEN
+        TopFlights top = new TopFlights(FlightSort.FEWEST_STOPS, 0);
+        Itinerary oneStop = flight(1, 6, 11);
+        Itinerary direct = flight(0, 9, 15);
+        Itinerary sameRank = flight(0, 10, 15);
+
+        // WHEN
+        top.offer(oneStop);
+        top.offer(direct);
+        top.offer(sameRank);
+
+        // THEN
+        assertEquals(List.of(direct, sameRank, oneStop), top.toList());
+    }
+
+    @Test
+    void testRank_ShortestDurationComesFirst() {
+        // GIVEN
+        TopFlights top = new TopFlights(FlightSort.SHORTEST_DURATION, 1);
+
+        // WHEN
+        top.offer(flight(0, 6, 11));
+        Itinerary shortest = flight(0, 12, 14);
+        top.offer(shortest);
+
+        // THEN
+        assertEquals(List.of(shortest), top.toList());
+    }
+}
@@ -0,0 +1,78 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for Itinerary.
+ */
+class ItineraryTest {
+
+    private static int minute(int hour, int minute) {
+        return EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, hour, minute));
+    }
+
+    @Test
+    void testAirportCode_RoundTripsThroughFifteenBits() {
+        // WHEN
+        int id = AirportCode.id("WRO");
+        int route = AirportCode.route("DUB", "WRO");
+
+        // THEN
+        assertTrue(id < 1 << AirportCode.BITS);
+        assertEquals("WRO", AirportCode.code(id));
+        assertSame(AirportCode.code(id), AirportCode.intern(new String("WRO")));
+        assertEquals("DUB", AirportCode.code(AirportCode.routeOrigin(route)));
+        assertEquals("WRO", AirportCode.code(AirportCode.routeDestination(route)));
+        assertThrows(IllegalArgumentException.class, () -> AirportCode.id("Dub"));
+        assertThrows(IllegalArgumentException.class, () -> AirportCode.id("DUBL"));
+    }
+
+    @Test
+    void testEquals_ComparesLegsByValue() {
+        // GIVEN: the same one-stop itinerary built twice
+        Itinerary first = Itinerary.oneStop(AirportCode.route("DUB", "STN"), minute(6, 0), minute(7, 0),
+                AirportCode.route("STN", "WRO"), minute(9, 30), minute(12, 0));
+        Itinerary second = Itinerary.of(
+                AirportCode.route("DUB", "STN"), minute(6, 0), minute(7, 0),
+                AirportCode.route("STN", "WRO"), minute(9, 30), minute(12, 0));
+        Itinerary later = Itinerary.oneStop(AirportCode.route("DUB", "STN"), minute(6, 0), minute(7, 0),
+                AirportCode.route("STN", "WRO"), minute(10, 30), minute(13, 0));
+
+        // WHEN
+        Set<Itinerary> distinct = new HashSet<>(List.of(first, second, later));
+
+        // THEN
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, later);
+        assertEquals(2, distinct.size());
+    }
+
+    @Test
+    void testToFlightResponse_RestoresAirportsAndTimes() {
+        // GIVEN
+        Itinerary itinerary = Itinerary.oneStop(AirportCode.route("DUB", "STN"), minute(6, 0), minute(7, 0),
+                AirportCode.route("STN", "WRO"), minute(9, 30), minute(12, 0));
+
+        // WHEN
+        FlightResponse response = itinerary.toFlightResponse();
+
+        // THEN
+        assertEquals(1, response.getStops());
+        assertEquals(2, response.getLegs().size());
+        FlightLeg second = response.getLegs().get(1);
+        assertEquals("STN", second.getDepartureAirport());
+        assertEquals("WRO", second.getArrivalAirport());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 9, 30), second.getDepartureDateTime());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 12, 0), second.getArrivalDateTime());
+        assertEquals(minute(6, 0), itinerary.departure());
+        assertEquals(minute(12, 0), itinerary.arrival());
+    }
+}
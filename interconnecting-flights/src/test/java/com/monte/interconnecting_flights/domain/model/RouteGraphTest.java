@@ -0,0 +1,129 @@
+package com.monte.interconnecting_flights.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for RouteGraph.
+ */
+class RouteGraphTest {
+
+    private static Map<String, String> route(String from, String to, String connecting, String operator) {
+        Map<String, String> route = new HashMap<>();
+        route.put("airportFrom", from);
+        route.put("airportTo", to);
+        route.put("connectingAirport", connecting);
+        route.put("operator", operator);
+        return route;
+    }
+
+    @Test
+    void testFrom_KeepsOnlyDirectRyanairRoutes() {
+        // GIVEN
+        List<Map<String, String>> routes = List.of(
+            route("DUB", "STN", null, "RYANAIR"),
+            route("DUB", "BCN", "STN", "RYANAIR"),
+            route("DUB", "MAD", null, "AER_LINGUS")
+        );
+
+        // WHEN
+        RouteGraph graph = RouteGraph.from(routes);
+
+        // THEN
+        assertEquals(1, graph.routeCount());
+        assertTrue(graph.hasRoute("DUB", "STN"));
+        assertFalse(graph.hasRoute("DUB", "BCN"));
+        assertFalse(graph.hasRoute("DUB", "MAD"));
+        assertFalse(graph.hasRoute("STN", "DUB"));
+    }
+
+    @Test
+    void testFrom_IndexesByOriginAndDestination() {
+        RouteGraph graph = RouteGraph.from(List.of(
+            route("DUB", "STN", null, "RYANAIR"),
+            route("DUB", "WRO", null, "RYANAIR"),
+            route("BCN", "WRO", null, "RYANAIR"),
+            // Duplicated entries are counted once
+            route("DUB", "STN", null, "RYANAIR")
+        ));
+
+        assertEquals(3, graph.routeCount());
+        assertEquals(Set.of("STN", "WRO"), graph.destinationsFrom("DUB"));
+        assertEquals(Set.of("DUB", "BCN"), graph.originsTo("WRO"));
+        assertTrue(graph.destinationsFrom("XXX").isEmpty());
+    }
+
+    @Test
+    void testStopoversBetween_ReturnsOnlyAirportsWithBothLegs() {
+        RouteGraph graph = RouteGraph.from(List.of(
+            route("DUB", "STN", null, "RYANAIR"),
+            route("DUB", "BCN", null, "RYANAIR"),
+            route("DUB", "MAD", null, "RYANAIR"),
+            route("DUB", "WRO", null, "RYANAIR"),
+            route("STN", "WRO", null, "RYANAIR"),
+            route("BCN", "WRO", null, "RYANAIR")
+        ));
+
+        List<String> stopovers = graph.stopoversBetween("DUB", "WRO");
+
+        assertEquals(Set.of("STN", "BCN"), Set.copyOf(stopovers));
+        assertEquals(2, stopovers.size());
+    }
+
+    @Test
+    void testFrom_NullOrEmptyRoutes() {
+        assertEquals(0, RouteGraph.from(null).routeCount());
+        assertEquals(0, RouteGraph.from(List.of()).routeCount());
+        assertTrue(RouteGraph.empty().stopoversBetween("DUB", "WRO").isEmpty());
+    }
+
+    @Test
+    void testRoutesOnPathsBetween_KeepsOnlyRoutesWithinMaxLegs() {
+        RouteGraph graph = RouteGraph.from(List.of(
+            route("DUB", "STN", null, "RYANAIR"),
+            route("STN", "BVA", null, "RYANAIR"),
+            route("BVA", "WRO", null, "RYANAIR"),
+            route("DUB", "WRO", null, "RYANAIR"),
+            // Dead end and route back to the origin are never useful
+            route("STN", "MAD", null, "RYANAIR"),
+            route("STN", "DUB", null, "RYANAIR"),
+            // Needs 4 legs: DUB -> STN -> BCN -> AGP -> WRO
+            route("STN", "BCN", null, "RYANAIR"),
+            route("BCN", "AGP", null, "RYANAIR"),
+            route("AGP", "WRO", null, "RYANAIR")
+        ));
+
+        Map<String, Set<String>> threeLegs = graph.routesOnPathsBetween("DUB", "WRO", 3);
+        assertEquals(Set.of("STN", "WRO"), threeLegs.get("DUB"));
+        assertEquals(Set.of("BVA"), threeLegs.get("STN"));
+        assertEquals(Set.of("WRO"), threeLegs.get("BVA"));
+        assertEquals(3, threeLegs.size());
+
+        Map<String, Set<String>> fourLegs = graph.routesOnPathsBetween("DUB", "WRO", 4);
+        assertEquals(Set.of("BVA", "BCN"), fourLegs.get("STN"));
+        assertEquals(Set.of("AGP"), fourLegs.get("BCN"));
+
+        assertEquals(Map.of("DUB", Set.of("WRO")), graph.routesOnPathsBetween("DUB", "WRO", 1));
+    }
+
+    @Test
+    void testFrom_SkipsInvalidCodesAndSharesAirportNames() {
+        // GIVEN: codes parsed separately, so different String instances
+        RouteGraph graph = RouteGraph.from(List.of(
+            route(new String("DUB"), "STN", null, "RYANAIR"),
+            route("dub", "WRO", null, "RYANAIR"),
+            route("DUB", "WR0", null, "RYANAIR")
+        ));
+
+        // THEN
+        assertEquals(1, graph.routeCount());
+        String origin = graph.originsTo("STN").iterator().next();
+        assertSame(AirportCode.intern("DUB"), origin);
+    }
+}
@@ -0,0 +1,145 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.cache;
+
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.Validators;
+import com.monte.interconnecting_flights.domain.port.outbound.RoutesPort;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.TimetableSnapshotStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit test for CachedRoutesProvider.
+ */
+class CachedRoutesProviderTest {
+
+    private static final List<Map<String, String>> SNAPSHOT_1 =
+            List.of(Map.of("airportFrom", "DUB", "airportTo", "WRO", "operator", "RYANAIR"));
+    private static final List<Map<String, String>> SNAPSHOT_2 =
+            List.of(Map.of("airportFrom", "DUB", "airportTo", "STN", "operator", "RYANAIR"));
+
+    private RoutesPort delegate;
+    private MutableClock clock;
+    private ScheduledExecutorService scheduler;
+    private CachedRoutesProvider provider;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        delegate = Mockito.mock(RoutesPort.class, Mockito.CALLS_REAL_METHODS);
+        clock = new MutableClock(Instant.parse("2025-03-10T07:00:00Z"));
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        provider = new CachedRoutesProvider(delegate, Duration.ofMinutes(30), clock, scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.shutdown();
+    }
+
+    @Test
+    void testGetRoutes_LoadsOnceAndServesFromCache() {
+        given(delegate.getRoutes()).willReturn(SNAPSHOT_1);
+
+        assertSame(SNAPSHOT_1, provider.getRoutes());
+        assertSame(SNAPSHOT_1, provider.getRoutes());
+
+        verify(delegate, times(1)).getRoutes();
+    }
+
+    @Test
+    void testGetRoutes_InitialLoadFailurePropagates() {
+        given(delegate.getRoutes()).willThrow(new ExternalApiException("Routes API down", null));
+
+        assertThrows(ExternalApiException.class, () -> provider.getRoutes());
+        assertNull(provider.lastRefresh());
+    }
+
+    @Test
+    void testRefresh_FailureKeepsPreviousSnapshot() {
+        given(delegate.getRoutes())
+                .willReturn(SNAPSHOT_1)
+                .willThrow(new ExternalApiException("Routes API down", null));
+        provider.getRoutes();
+
+        assertFalse(provider.refresh());
+        assertSame(SNAPSHOT_1, provider.getRoutes());
+    }
+
+    @Test
+    void testGetRoutes_StaleSnapshotServedWhileRevalidating() throws Exception {
+        given(delegate.getRoutes()).willReturn(SNAPSHOT_1, SNAPSHOT_2);
+        provider.getRoutes();
+
+        // WHEN: the snapshot is older than the refresh interval
+        clock.advance(Duration.ofMinutes(31));
+
+        // THEN: the stale snapshot is returned immediately...
+        assertSame(SNAPSHOT_1, provider.getRoutes());
+
+        // ...and the background refresh replaces it
+        scheduler.shutdown();
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertSame(SNAPSHOT_2, provider.getRoutes());
+        assertEquals(clock.instant(), provider.lastRefresh());
+    }
+
+    @Test
+    void testGetRoutes_StartsFromTimetableSnapshot() throws Exception {
+        // GIVEN: routes persisted 10 minutes ago by a previous run
+        TimetableSnapshotStore store = new TimetableSnapshotStore(tempDir.resolve("timetable.snapshot").toString());
+        Instant fetchedAt = clock.instant().minus(Duration.ofMinutes(10));
+        store.write(clock.millis(), SNAPSHOT_1, fetchedAt.toEpochMilli(), Map.of());
+
+        // WHEN
+        CachedRoutesProvider restarted = new CachedRoutesProvider(delegate, Duration.ofMinutes(30), clock, scheduler, store);
+
+        // THEN: served from disk without calling upstream
+        assertEquals("WRO", restarted.getRoutes().get(0).get("airportTo"));
+        assertEquals(fetchedAt, restarted.lastRefresh());
+        verify(delegate, never()).getRoutes();
+    }
+    @Test
+    void testRefresh_KeepsSnapshotWhenNotModified() {
+        // GIVEN: routes tagged "r1", which upstream then reports unchanged
+        Validators r1 = new Validators("\"r1\"", null);
+        // Stubbed without calling the real default methods, which go through getRoutes()
+        willReturn(CompletableFuture.completedFuture(Conditional.modified(SNAPSHOT_1, r1)))
+                .given(delegate).getRoutesIfModifiedAsync(Validators.NONE);
+        willReturn(CompletableFuture.completedFuture(Conditional.notModified(r1)))
+                .given(delegate).getRoutesIfModifiedAsync(r1);
+        provider.getRoutes();
+
+        // WHEN
+        clock.advance(Duration.ofMinutes(31));
+        boolean refreshed = provider.refresh();
+
+        // THEN: same list instance, new fetch time, and no full download
+        assertTrue(refreshed);
+        assertSame(SNAPSHOT_1, provider.getRoutes());
+        assertEquals(clock.instant(), provider.lastRefresh());
+        verify(delegate, never()).getRoutes();
+    }
+}
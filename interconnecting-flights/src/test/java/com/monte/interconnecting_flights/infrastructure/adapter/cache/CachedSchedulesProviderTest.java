@@ -0,0 +1,302 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.cache;
+
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.domain.model.Validators;
+import com.monte.interconnecting_flights.domain.port.outbound.SchedulesPort;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.StoredSchedule;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.TimetableSnapshotStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Unit test for CachedSchedulesProvider.
+ */
+class CachedSchedulesProviderTest {
+
+    private SchedulesPort delegate;
+    private MutableClock clock;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        // Real default getScheduleAsync, so stubbing getSchedule drives both paths
+        delegate = Mockito.mock(SchedulesPort.class, Mockito.CALLS_REAL_METHODS);
+        clock = new MutableClock(Instant.parse("2025-03-10T07:00:00Z"));
+    }
+
+    private static MonthSchedule scheduleWithFlights(int flights) {
+        MonthSchedule.Builder builder = MonthSchedule.builder(2025, 3);
+        for (int i = 0; i < flights; i++) {
+            builder.add(10, 9 * 60 + 30, 12 * 60 + 55);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testGetSchedule_HitWithinTtl() {
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(delegate, Duration.ofMinutes(10), 100, 1000, clock);
+        MonthSchedule schedule = scheduleWithFlights(1);
+        given(delegate.getSchedule("DUB", "STN", 2025, 3)).willReturn(schedule);
+
+        assertSame(schedule, cache.getSchedule("DUB", "STN", 2025, 3));
+        assertSame(schedule, cache.getSchedule("DUB", "STN", 2025, 3));
+
+        verify(delegate, times(1)).getSchedule("DUB", "STN", 2025, 3);
+        ScheduleCacheStats stats = cache.stats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void testGetSchedule_ReloadsAfterTtl() {
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(delegate, Duration.ofMinutes(10), 100, 1000, clock);
+        given(delegate.getSchedule("DUB", "STN", 2025, 3)).willReturn(scheduleWithFlights(1));
+
+        cache.getSchedule("DUB", "STN", 2025, 3);
+        clock.advance(Duration.ofMinutes(11));
+        cache.getSchedule("DUB", "STN", 2025, 3);
+
+        verify(delegate, times(2)).getSchedule("DUB", "STN", 2025, 3);
+        assertEquals(1, cache.stats().getExpirationCount());
+    }
+
+    @Test
+    void testGetSchedule_EvictsLeastRecentlyUsedBeyondMaxEntries() {
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(delegate, Duration.ofMinutes(10), 2, 1000, clock);
+        given(delegate.getSchedule("DUB", "STN", 2025, 3)).willReturn(scheduleWithFlights(1));
+        given(delegate.getSchedule("STN", "BCN", 2025, 3)).willReturn(scheduleWithFlights(1));
+        given(delegate.getSchedule("BCN", "WRO", 2025, 3)).willReturn(scheduleWithFlights(1));
+
+        cache.getSchedule("DUB", "STN", 2025, 3);
+        cache.getSchedule("STN", "BCN", 2025, 3);
+        // Touch DUB-STN so STN-BCN becomes the eldest entry
+        cache.getSchedule("DUB", "STN", 2025, 3);
+        cache.getSchedule("BCN", "WRO", 2025, 3);
+        cache.getSchedule("DUB", "STN", 2025, 3);
+
+        verify(delegate, times(1)).getSchedule("DUB", "STN", 2025, 3);
+        assertEquals(1, cache.stats().getEvictionCount());
+        assertEquals(2, cache.stats().getSize());
+    }
+
+    @Test
+    void testGetSchedule_EvictsBeyondMaxWeight() {
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(delegate, Duration.ofMinutes(10), 100, 10, clock);
+        given(delegate.getSchedule("DUB", "STN", 2025, 3)).willReturn(scheduleWithFlights(6));
+        given(delegate.getSchedule("STN", "BCN", 2025, 3)).willReturn(scheduleWithFlights(6));
+
+        cache.getSchedule("DUB", "STN", 2025, 3);
+        cache.getSchedule("STN", "BCN", 2025, 3);
+
+        ScheduleCacheStats stats = cache.stats();
+        assertEquals(1, stats.getSize());
+        assertEquals(6, stats.getWeight());
+        assertEquals(1, stats.getEvictionCount());
+    }
+
+    @Test
+    void testGetSchedule_FailuresAreNotCached() {
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(delegate, Duration.ofMinutes(10), 100, 1000, clock);
+        given(delegate.getSchedule("DUB", "STN", 2025, 3))
+                .willThrow(new ExternalApiException("Schedules API down", null))
+                .willReturn(scheduleWithFlights(1));
+
+        assertThrows(ExternalApiException.class, () -> cache.getSchedule("DUB", "STN", 2025, 3));
+        assertNotNull(cache.getSchedule("DUB", "STN", 2025, 3));
+        assertEquals(1, cache.stats().getLoadFailureCount());
+    }
+
+    @Test
+    void testGetSchedule_ConcurrentMissesShareOneUpstreamCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        SchedulesPort slowUpstream = (departure, arrival, year, month) -> {
+            upstreamCalls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return scheduleWithFlights(1);
+        };
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(slowUpstream, Duration.ofMinutes(10), 100, 1000, clock);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MonthSchedule>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.getSchedule("DUB", "STN", 2025, 3)));
+            }
+            // The leader is blocked upstream: wait until every other caller joined its load
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (cache.stats().getCoalescedCount() < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<MonthSchedule> result : results) {
+                assertNotNull(result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(7, cache.stats().getCoalescedCount());
+    }
+
+    @Test
+    void testGetScheduleAsync_MissesShareOnePendingCallWithoutBlocking() {
+        List<CompletableFuture<MonthSchedule>> upstreamCalls = new ArrayList<>();
+        SchedulesPort asyncUpstream = new SchedulesPort() {
+            @Override
+            public MonthSchedule getSchedule(String departure, String arrival, int year, int month) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<MonthSchedule> getScheduleAsync(String departure, String arrival, int year, int month) {
+                CompletableFuture<MonthSchedule> call = new CompletableFuture<>();
+                upstreamCalls.add(call);
+                return call;
+            }
+        };
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(asyncUpstream, Duration.ofMinutes(10), 100, 1000, clock);
+
+        // Both calls return before upstream answers
+        CompletableFuture<MonthSchedule> first = cache.getScheduleAsync("DUB", "STN", 2025, 3);
+        CompletableFuture<MonthSchedule> second = cache.getScheduleAsync("DUB", "STN", 2025, 3);
+        assertFalse(first.isDone());
+        assertEquals(1, upstreamCalls.size());
+        assertEquals(1, cache.stats().getCoalescedCount());
+
+        upstreamCalls.get(0).complete(scheduleWithFlights(2));
+
+        assertEquals(2, first.join().size());
+        assertSame(first.join(), second.join());
+        assertTrue(cache.getScheduleAsync("DUB", "STN", 2025, 3).isDone());
+        assertEquals(1, cache.stats().getHitCount());
+    }
+
+    @Test
+    void testGetSchedule_ServedFromSnapshotWhileFreshAndAsFallback() throws Exception {
+        // GIVEN: a snapshot written 30 minutes ago holding two months
+        Path file = tempDir.resolve("timetable.snapshot");
+        TimetableSnapshotStore store = new TimetableSnapshotStore(file.toString());
+        long fetchedAt = clock.millis() - Duration.ofMinutes(30).toMillis();
+        Map<ScheduleKey, StoredSchedule> months = new LinkedHashMap<>();
+        months.put(new ScheduleKey("DUB", "STN", 2025, 3), new StoredSchedule(scheduleWithFlights(2), fetchedAt));
+        months.put(new ScheduleKey("DUB", "WRO", 2025, 3), new StoredSchedule(scheduleWithFlights(3), fetchedAt));
+        store.write(clock.millis(), List.of(), 0, months);
+
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        SchedulesPort failingUpstream = (departure, arrival, year, month) -> {
+            upstreamCalls.incrementAndGet();
+            throw new ExternalApiException("Schedules API down", null);
+        };
+
+        // WHEN: the snapshot is younger than the TTL
+        CachedSchedulesProvider fresh = new CachedSchedulesProvider(
+                failingUpstream, Duration.ofHours(1), 100, 1000, clock, store);
+
+        // THEN: no upstream call at all
+        assertEquals(2, fresh.getSchedule("DUB", "STN", 2025, 3).size());
+        assertEquals(0, upstreamCalls.get());
+        assertEquals(1, fresh.stats().getSnapshotHitCount());
+
+        // WHEN: the snapshot is older than the TTL
+        CachedSchedulesProvider stale = new CachedSchedulesProvider(
+                failingUpstream, Duration.ofMinutes(10), 100, 1000, clock, store);
+
+        // THEN: upstream is tried first and the snapshot only covers its failure
+        assertEquals(3, stale.getSchedule("DUB", "WRO", 2025, 3).size());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, stale.stats().getSnapshotFallbackCount());
+        assertThrows(ExternalApiException.class, () -> stale.getSchedule("DUB", "BVA", 2025, 3));
+    }
+    @Test
+    void testGetSchedule_RevalidatesExpiredMonthWithItsValidators() {
+        // GIVEN: an upstream that tags the month "v1" and then reports it unchanged
+        MonthSchedule schedule = scheduleWithFlights(2);
+        Validators v1 = new Validators("\"v1\"", null);
+        List<Validators> sent = new ArrayList<>();
+        SchedulesPort conditionalUpstream = new SchedulesPort() {
+            @Override
+            public MonthSchedule getSchedule(String departure, String arrival, int year, int month) {
+                throw new AssertionError("Only conditional fetches expected");
+            }
+
+            @Override
+            public CompletableFuture<Conditional<MonthSchedule>> getScheduleIfModifiedAsync(
+                    String departure, String arrival, int year, int month, Validators validators) {
+                sent.add(validators);
+                return CompletableFuture.completedFuture(validators.isEmpty()
+                        ? Conditional.modified(schedule, v1) : Conditional.notModified(v1));
+            }
+        };
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(conditionalUpstream, Duration.ofMinutes(10), 100, 1000, clock);
+        cache.getSchedule("DUB", "STN", 2025, 3);
+
+        // WHEN: the month is asked for again after its TTL
+        clock.advance(Duration.ofMinutes(11));
+        MonthSchedule revalidated = cache.getSchedule("DUB", "STN", 2025, 3);
+
+        // THEN: the same instance is served and fresh for another TTL
+        assertSame(schedule, revalidated);
+        assertEquals(List.of(Validators.NONE, v1), sent);
+        assertEquals(1, cache.stats().getNotModifiedCount());
+        clock.advance(Duration.ofMinutes(9));
+        assertSame(schedule, cache.getSchedule("DUB", "STN", 2025, 3));
+        assertEquals(2, sent.size());
+    }
+
+    @Test
+    void testGetSchedule_KeepsInstanceWhenReloadedFlightsAreTheSame() {
+        // GIVEN: an upstream without validators that sends equal months, then a changed one
+        CachedSchedulesProvider cache = new CachedSchedulesProvider(delegate, Duration.ofMinutes(10), 100, 1000, clock);
+        given(delegate.getSchedule("DUB", "STN", 2025, 3))
+                .willReturn(scheduleWithFlights(1), scheduleWithFlights(1), scheduleWithFlights(2));
+        MonthSchedule first = cache.getSchedule("DUB", "STN", 2025, 3);
+
+        // WHEN
+        clock.advance(Duration.ofMinutes(11));
+        MonthSchedule second = cache.getSchedule("DUB", "STN", 2025, 3);
+        clock.advance(Duration.ofMinutes(11));
+        MonthSchedule third = cache.getSchedule("DUB", "STN", 2025, 3);
+
+        // THEN: only the changed month is a new instance
+        assertSame(first, second);
+        assertNotSame(first, third);
+        assertEquals(2, third.size());
+        assertEquals(1, cache.stats().getUnchangedCount());
+        assertEquals(1, cache.stats().getChangedCount());
+    }
+}
@@ -0,0 +1,63 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for AimdLimit.
+ */
+class AimdLimitTest {
+
+    private static final long FAST = Duration.ofMillis(50).toNanos();
+    private static final long SLOW = Duration.ofSeconds(3).toNanos();
+
+    private static AimdLimit limit(int initial, int max) {
+        return new AimdLimit(new ConcurrencyLimitSettings(true, initial, 2, 0.5, Duration.ofSeconds(2), 100), max);
+    }
+
+    @Test
+    void testOnSample_GrowsAboutOnePerRoundTripWhileBusy() {
+        AimdLimit limit = limit(4, 10);
+
+        // A round trip's worth of answered calls with the limit fully used: one more slot
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(FAST, false, 4);
+        }
+        assertEquals(5, limit.current());
+
+        // Idle samples leave it alone
+        for (int i = 0; i < 100; i++) {
+            limit.onSample(FAST, false, 1);
+        }
+        assertEquals(5, limit.current());
+    }
+
+    @Test
+    void testOnSample_BacksOffOnDropsAndSlowCallsWithinBounds() {
+        AimdLimit limit = limit(8, 10);
+
+        limit.onSample(FAST, true, 8);
+        assertEquals(4, limit.current());
+        limit.onSample(SLOW, false, 4);
+        assertEquals(2, limit.current());
+        limit.onSample(FAST, true, 2);
+        assertEquals(2, limit.current());
+
+        for (int i = 0; i < 1000; i++) {
+            limit.onSample(FAST, false, 10);
+        }
+        assertEquals(10, limit.current());
+    }
+
+    @Test
+    void testFixedSettings_KeepTheMaximum() {
+        AimdLimit limit = new AimdLimit(ConcurrencyLimitSettings.fixed(), 32);
+
+        limit.onSample(SLOW, true, 32);
+
+        assertEquals(32, limit.current());
+    }
+}
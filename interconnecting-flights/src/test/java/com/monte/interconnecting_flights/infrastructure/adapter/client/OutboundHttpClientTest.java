@@ -0,0 +1,396 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import com.monte.interconnecting_flights.domain.model.Conditional;
+import com.monte.interconnecting_flights.domain.model.Validators;
+import com.monte.interconnecting_flights.domain.port.outbound.ExternalApiException;
+import com.monte.interconnecting_flights.domain.port.outbound.Futures;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for OutboundHttpClient.
+ */
+class OutboundHttpClientTest {
+
+    private static final OutboundHttpClient.ResponseDecoder<String> AS_TEXT =
+            body -> new String(body.readAllBytes(), StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static OutboundHttpClient client(Duration requestTimeout, int maxConnectionsPerHost) {
+        return new OutboundHttpClient(HttpClient.newHttpClient(), requestTimeout, maxConnectionsPerHost);
+    }
+
+    @Test
+    void testGet_DecodesGzipBody() throws Exception {
+        // GIVEN: the server compresses only when asked to
+        server.createContext("/routes", exchange -> {
+            boolean gzip = "gzip".equals(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            byte[] body = "[{\"airportFrom\":\"DUB\"}]".getBytes(StandardCharsets.UTF_8);
+            if (gzip) {
+                ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                    out.write(body);
+                }
+                body = compressed.toByteArray();
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        OutboundHttpClient client = client(Duration.ofSeconds(5), 4);
+
+        // WHEN
+        String body = client.get(baseUrl + "/routes", Map.of(), "Routes", AS_TEXT).get(5, TimeUnit.SECONDS);
+
+        // THEN
+        assertEquals("[{\"airportFrom\":\"DUB\"}]", body);
+        HttpClientStats stats = client.stats().get("localhost:" + server.getAddress().getPort());
+        assertEquals(1, stats.getRequestCount());
+        assertEquals(0, stats.getInFlight());
+        assertTrue(stats.getBytesReceived() > 0);
+    }
+
+    @Test
+    void testGet_CapsConcurrentRequestsPerHost() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/slow", exchange -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        OutboundHttpClient client = client(Duration.ofSeconds(5), 2);
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            calls.add(client.get(baseUrl + "/slow", Map.of(), "Schedules", AS_TEXT));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (active.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        HttpClientStats stats = client.stats().get("localhost:" + server.getAddress().getPort());
+        assertEquals(2, stats.getInFlight());
+        assertEquals(3, stats.getQueued());
+
+        release.countDown();
+        for (CompletableFuture<String> call : calls) {
+            assertEquals("", call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(2, maxActive.get());
+    }
+
+    @Test
+    void testGet_ErrorStatusAndTimeoutBecomeExternalApiException() {
+        server.createContext("/missing", exchange -> {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/hang", exchange -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        OutboundHttpClient client = client(Duration.ofMillis(200), 4);
+
+        ExternalApiException notFound = assertThrows(ExternalApiException.class,
+                () -> Futures.await(client.get(baseUrl + "/missing", Map.of(), "Schedules", AS_TEXT)));
+        assertEquals("Error while querying the Schedules API: 404 NOT_FOUND", notFound.getMessage());
+
+        assertThrows(ExternalApiException.class,
+                () -> Futures.await(client.get(baseUrl + "/hang", Map.of(), "Schedules", AS_TEXT)));
+        HttpClientStats stats = client.stats().get("localhost:" + server.getAddress().getPort());
+        assertEquals(2, stats.getFailureCount());
+        assertEquals(1, stats.getTimeoutCount());
+    }
+
+    @Test
+    void testGet_TimesCallsByOutcome() throws Exception {
+        server.createContext("/routes", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/hang", exchange -> {
+            try {
+                Thread.sleep(2_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        MeterRegistry registry = new SimpleMeterRegistry();
+        OutboundHttpClient client = new OutboundHttpClient(HttpClient.newHttpClient(), Duration.ofMillis(200), 4,
+                registry);
+
+        client.get(baseUrl + "/routes", Map.of(), "Routes", AS_TEXT).get(5, TimeUnit.SECONDS);
+        assertThrows(ExternalApiException.class,
+                () -> Futures.await(client.get(baseUrl + "/hang", Map.of(), "Schedules", AS_TEXT)));
+
+        assertEquals(1, registry.get("upstream.requests").tags("api", "routes", "outcome", "SUCCESS").timer().count());
+        assertEquals(1, registry.get("upstream.requests").tags("api", "schedules", "outcome", "TIMEOUT").timer().count());
+        assertEquals(0.0, registry.get("upstream.connections.active")
+                .tag("host", "localhost:" + server.getAddress().getPort()).gauge().value());
+    }
+
+    @Test
+    void testGet_OpensCircuitAfterConsecutiveFailuresAndClosesAfterTrialCall() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        AtomicInteger status = new AtomicInteger(503);
+        server.createContext("/schedules", exchange -> {
+            hits.incrementAndGet();
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        OutboundHttpClient client = new OutboundHttpClient(HttpClient.newHttpClient(), Duration.ofSeconds(5), 4,
+                2, Duration.ofMillis(200), 0, Duration.ZERO, ConcurrencyLimitSettings.fixed(),
+                new SimpleMeterRegistry());
+        String host = "localhost:" + server.getAddress().getPort();
+
+        // GIVEN: two 503s in a row open the circuit
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ExternalApiException.class,
+                    () -> Futures.await(client.get(baseUrl + "/schedules", Map.of(), "Schedules", AS_TEXT)));
+        }
+
+        // WHEN / THEN: the next call fails without reaching the server
+        assertThrows(CircuitOpenException.class,
+                () -> Futures.await(client.get(baseUrl + "/schedules", Map.of(), "Schedules", AS_TEXT)));
+        assertEquals(2, hits.get());
+        assertTrue(client.stats().get(host).isCircuitOpen());
+        assertEquals(1, client.stats().get(host).getRejectedCount());
+
+        // Once the open duration is over, a successful trial call closes it again
+        status.set(200);
+        Thread.sleep(250);
+        assertEquals("", client.get(baseUrl + "/schedules", Map.of(), "Schedules", AS_TEXT).get(5, TimeUnit.SECONDS));
+        assertFalse(client.stats().get(host).isCircuitOpen());
+    }
+
+    @Test
+    void testGet_CancelledTrialCallLetsTheNextOneThrough() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        AtomicInteger status = new AtomicInteger(503);
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/schedules", exchange -> {
+            hits.incrementAndGet();
+            if (status.get() == 0) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                status.set(200);
+            }
+            exchange.sendResponseHeaders(status.get(), -1);
+            exchange.close();
+        });
+        OutboundHttpClient client = new OutboundHttpClient(HttpClient.newHttpClient(), Duration.ofSeconds(5), 4,
+                2, Duration.ofMillis(200), 0, Duration.ZERO, ConcurrencyLimitSettings.fixed(),
+                new SimpleMeterRegistry());
+        String host = "localhost:" + server.getAddress().getPort();
+        for (int i = 0; i < 2; i++) {
+            assertThrows(ExternalApiException.class,
+                    () -> Futures.await(client.get(baseUrl + "/schedules", Map.of(), "Schedules", AS_TEXT)));
+        }
+        assertTrue(client.stats().get(host).isCircuitOpen());
+
+        // GIVEN: the trial call hangs upstream and its caller gives up on it
+        status.set(0);
+        Thread.sleep(250);
+        CompletableFuture<String> trial = client.get(baseUrl + "/schedules", Map.of(), "Schedules", AS_TEXT);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (hits.get() < 3 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        trial.cancel(true);
+        release.countDown();
+
+        // WHEN: the next call comes
+        String body = client.get(baseUrl + "/schedules", Map.of(), "Schedules", AS_TEXT).get(5, TimeUnit.SECONDS);
+
+        // THEN: it was let through as a new trial and closed the circuit
+        assertEquals("", body);
+        assertFalse(client.stats().get(host).isCircuitOpen());
+    }
+
+    @Test
+    void testGet_HedgesCallsSlowerThanThePercentile() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/schedules", exchange -> {
+            // The 41st request straggles; every other one answers right away
+            if (hits.incrementAndGet() == 41) {
+                try {
+                    Thread.sleep(2_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        OutboundHttpClient client = new OutboundHttpClient(HttpClient.newHttpClient(), Duration.ofSeconds(5), 4,
+                0, Duration.ZERO, 95, Duration.ofMillis(20), ConcurrencyLimitSettings.fixed(),
+                new SimpleMeterRegistry());
+        for (int i = 0; i < 40; i++) {
+            client.get(baseUrl + "/schedules", Map.of(), "Schedules", AS_TEXT).get(5, TimeUnit.SECONDS);
+        }
+
+        // WHEN
+        long start = System.nanoTime();
+        client.get(baseUrl + "/schedules", Map.of(), "Schedules", AS_TEXT).get(5, TimeUnit.SECONDS);
+
+        // THEN: answered by the hedged attempt, long before the straggler
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1_000));
+        assertEquals(1, client.stats().get("localhost:" + server.getAddress().getPort()).getHedgedCount());
+    }
+
+    @Test
+    void testGet_ThrottlingShrinksTheLimitAndAFullQueueSheds() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/throttled", exchange -> {
+            exchange.sendResponseHeaders(429, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        OutboundHttpClient client = new OutboundHttpClient(HttpClient.newHttpClient(), Duration.ofSeconds(5), 16,
+                0, Duration.ZERO, 0, Duration.ZERO,
+                new ConcurrencyLimitSettings(true, 8, 1, 0.5, Duration.ofSeconds(2), 2), new SimpleMeterRegistry());
+        String host = "localhost:" + server.getAddress().getPort();
+
+        // GIVEN: three 429s halve the limit three times, 8 -> 1
+        for (int i = 0; i < 3; i++) {
+            assertThrows(ExternalApiException.class,
+                    () -> Futures.await(client.get(baseUrl + "/throttled", Map.of(), "Schedules", AS_TEXT)));
+        }
+        assertEquals(1, client.stats().get(host).getConcurrencyLimit());
+
+        // WHEN: one call runs, two wait and the fourth finds the queue full
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            calls.add(client.get(baseUrl + "/slow", Map.of(), "Schedules", AS_TEXT));
+        }
+        assertThrows(LoadShedException.class,
+                () -> Futures.await(client.get(baseUrl + "/slow", Map.of(), "Schedules", AS_TEXT)));
+
+        // THEN
+        assertEquals(1, client.stats().get(host).getShedCount());
+        release.countDown();
+        for (CompletableFuture<String> call : calls) {
+            assertEquals("", call.get(5, TimeUnit.SECONDS));
+        }
+    }
+    @Test
+    void testGetIfModified_NotModifiedSkipsTheBody() throws Exception {
+        // GIVEN: the server knows version "v1" and answers 304 when asked about it
+        List<String> sentValidators = new ArrayList<>();
+        server.createContext("/month", exchange -> {
+            String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+            sentValidators.add(etag + " " + exchange.getRequestHeaders().getFirst("If-Modified-Since"));
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders().add("Last-Modified", "Mon, 10 Mar 2025 07:00:00 GMT");
+            byte[] body = "{\"days\":[]}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        OutboundHttpClient client = client(Duration.ofSeconds(5), 4);
+
+        // WHEN: a first fetch, then a revalidation with what it returned
+        Conditional<String> first = client.getIfModified(baseUrl + "/month", Map.of(), "Schedules",
+                Validators.NONE, AS_TEXT).get(5, TimeUnit.SECONDS);
+        Conditional<String> second = client.getIfModified(baseUrl + "/month", Map.of(), "Schedules",
+                first.getValidators(), AS_TEXT).get(5, TimeUnit.SECONDS);
+
+        // THEN
+        assertTrue(first.isModified());
+        assertEquals("{\"days\":[]}", first.getValue());
+        assertEquals(new Validators("\"v1\"", "Mon, 10 Mar 2025 07:00:00 GMT"), first.getValidators());
+        assertFalse(second.isModified());
+        assertNull(second.getValue());
+        assertEquals(first.getValidators(), second.getValidators());
+        assertEquals(List.of("null null", "\"v1\" Mon, 10 Mar 2025 07:00:00 GMT"), sentValidators);
+        HttpClientStats stats = client.stats().get("localhost:" + server.getAddress().getPort());
+        assertEquals(1, stats.getNotModifiedCount());
+        assertEquals(0, stats.getFailureCount());
+    }
+
+    @Test
+    void testGet_NotModifiedIsAnErrorForUnconditionalCalls() {
+        // GIVEN
+        server.createContext("/routes", exchange -> {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+        });
+        OutboundHttpClient client = client(Duration.ofSeconds(5), 4);
+
+        // WHEN
+        CompletableFuture<String> call = client.get(baseUrl + "/routes", Map.of(), "Routes", AS_TEXT);
+
+        // THEN
+        assertThrows(ExternalApiException.class, () -> Futures.await(call));
+    }
+}
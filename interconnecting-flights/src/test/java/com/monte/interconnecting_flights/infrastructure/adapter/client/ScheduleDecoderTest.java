@@ -0,0 +1,111 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for ScheduleDecoder.
+ */
+class ScheduleDecoderTest {
+
+    private final ScheduleDecoder decoder = new ScheduleDecoder(new JsonFactory());
+
+    private MonthSchedule decode(String json, int year, int month) throws IOException {
+        return decoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), year, month);
+    }
+
+    @Test
+    void testDecode_SortsFlightsAndSkipsUnknownFields() throws IOException {
+        // GIVEN: days out of order and extra fields as served by the real API
+        String json = "{\"month\":3,\"days\":[" +
+                "{\"day\":11,\"flights\":[{\"carrierCode\":\"FR\",\"number\":\"1926\"," +
+                "\"departureTime\":\"07:00\",\"arrivalTime\":\"09:10\"}]}," +
+                "{\"day\":10,\"flights\":[{\"departureTime\":\"17:50\",\"arrivalTime\":\"21:25\"}," +
+                "{\"departureTime\":\"09:30\",\"arrivalTime\":\"12:55\",\"extra\":{\"nested\":[1,2]}}]}" +
+                "]}";
+
+        // WHEN
+        MonthSchedule schedule = decode(json, 2025, 3);
+
+        // THEN
+        assertEquals(3, schedule.size());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 9, 30), EpochMinutes.toLocalDateTime(schedule.departureAt(0)));
+        assertEquals(LocalDateTime.of(2025, 3, 10, 12, 55), EpochMinutes.toLocalDateTime(schedule.arrivalAt(0)));
+        assertEquals(LocalDateTime.of(2025, 3, 10, 17, 50), EpochMinutes.toLocalDateTime(schedule.departureAt(1)));
+        assertEquals(LocalDateTime.of(2025, 3, 11, 7, 0), EpochMinutes.toLocalDateTime(schedule.departureAt(2)));
+    }
+
+    @Test
+    void testDecode_CrossingMidnightAtEndOfMonth() throws IOException {
+        String json = "{\"days\":[{\"day\":31,\"flights\":[{\"departureTime\":\"23:00\",\"arrivalTime\":\"01:30\"}]}]}";
+
+        MonthSchedule schedule = decode(json, 2025, 3);
+
+        assertEquals(1, schedule.size());
+        assertEquals(LocalDateTime.of(2025, 4, 1, 1, 30), EpochMinutes.toLocalDateTime(schedule.arrivalAt(0)));
+    }
+
+    @Test
+    void testDecode_DropsInvalidDaysAndTimes() throws IOException {
+        // 31 de junio no existe; "9:30" y "25:00" no son HH:mm válidos
+        String json = "{\"flights\":[{\"flights\":\"day comes later\"}],\"days\":[" +
+                "{\"flights\":[{\"departureTime\":\"09:30\",\"arrivalTime\":\"12:55\"}],\"day\":31}," +
+                "{\"day\":10,\"flights\":[{\"departureTime\":\"9:30\",\"arrivalTime\":\"12:55\"}," +
+                "{\"departureTime\":\"25:00\",\"arrivalTime\":\"12:55\"}," +
+                "{\"departureTime\":\"10:00\"}," +
+                "{\"departureTime\":\"06:15\",\"arrivalTime\":\"08:00\"}]}" +
+                "]}";
+
+        MonthSchedule schedule = decode(json, 2025, 6);
+
+        assertEquals(1, schedule.size());
+        assertEquals(LocalDateTime.of(2025, 6, 10, 6, 15), EpochMinutes.toLocalDateTime(schedule.departureAt(0)));
+    }
+
+    @Test
+    void testDecode_EmptyOrMissingDays() throws IOException {
+        assertTrue(decode("{}", 2025, 3).isEmpty());
+        assertTrue(decode("{\"month\":3}", 2025, 3).isEmpty());
+        assertTrue(decode("", 2025, 3).isEmpty());
+        assertTrue(decoder.decode(null, 2025, 3).isEmpty());
+    }
+
+    @Test
+    void testFirstDepartureAtOrAfter() throws IOException {
+        String json = "{\"days\":[{\"day\":10,\"flights\":[" +
+                "{\"departureTime\":\"07:00\",\"arrivalTime\":\"08:00\"}," +
+                "{\"departureTime\":\"12:00\",\"arrivalTime\":\"13:00\"}]}]}";
+        MonthSchedule schedule = decode(json, 2025, 3);
+
+        assertEquals(0, schedule.firstDepartureAtOrAfter(EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, 6, 0))));
+        assertEquals(1, schedule.firstDepartureAtOrAfter(EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, 7, 1))));
+        assertEquals(2, schedule.firstDepartureAtOrAfter(EpochMinutes.floor(LocalDateTime.of(2025, 3, 10, 12, 1))));
+    }
+
+    @Test
+    void testDecode_KeepsAFlightListedTwiceOnce() throws IOException {
+        // GIVEN: the 09:30 flight listed twice, apart, with another 09:30 departure in between
+        String json = "{\"days\":[" +
+                "{\"day\":10,\"flights\":[{\"departureTime\":\"09:30\",\"arrivalTime\":\"12:55\"}," +
+                "{\"departureTime\":\"09:30\",\"arrivalTime\":\"11:00\"}," +
+                "{\"departureTime\":\"09:30\",\"arrivalTime\":\"12:55\"}]}" +
+                "]}";
+
+        // WHEN
+        MonthSchedule schedule = decode(json, 2025, 3);
+
+        // THEN
+        assertEquals(2, schedule.size());
+        assertEquals(LocalDateTime.of(2025, 3, 10, 11, 0), EpochMinutes.toLocalDateTime(schedule.arrivalAt(0)));
+        assertEquals(LocalDateTime.of(2025, 3, 10, 12, 55), EpochMinutes.toLocalDateTime(schedule.arrivalAt(1)));
+    }
+}
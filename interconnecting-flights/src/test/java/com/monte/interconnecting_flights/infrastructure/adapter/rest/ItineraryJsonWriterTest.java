@@ -0,0 +1,80 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.monte.interconnecting_flights.domain.model.AirportCode;
+import com.monte.interconnecting_flights.domain.model.EpochMinutes;
+import com.monte.interconnecting_flights.domain.model.Itinerary;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for ItineraryJsonWriter.
+ */
+class ItineraryJsonWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private static int minute(int year, int month, int day, int hour, int minute) {
+        return EpochMinutes.floor(LocalDateTime.of(year, month, day, hour, minute));
+    }
+
+    private static String write(List<Itinerary> itineraries) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ItineraryJsonWriter(out).write(itineraries);
+        return out.toString(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    void testWrite_MatchesJacksonForDirectAndOneStopFlights() throws Exception {
+        // GIVEN: flights across a day, month and leap-year boundary
+        List<Itinerary> itineraries = List.of(
+                Itinerary.direct(AirportCode.route("DUB", "WRO"),
+                        minute(2025, 3, 10, 6, 5), minute(2025, 3, 10, 9, 50)),
+                Itinerary.oneStop(
+                        AirportCode.route("DUB", "STN"), minute(2024, 2, 28, 23, 30), minute(2024, 2, 29, 0, 45),
+                        AirportCode.route("STN", "WRO"), minute(2024, 2, 29, 22, 0), minute(2024, 3, 1, 1, 10)),
+                Itinerary.direct(AirportCode.route("ZAG", "AAR"),
+                        minute(1999, 12, 31, 23, 59), minute(2000, 1, 1, 0, 0)));
+
+        // WHEN
+        String json = write(itineraries);
+
+        // THEN
+        assertEquals(objectMapper.writeValueAsString(Itinerary.toFlightResponses(itineraries)), json);
+    }
+
+    @Test
+    void testWrite_FlushesResponsesLargerThanTheBuffer() throws Exception {
+        // GIVEN: enough itineraries to fill the buffer many times over
+        List<Itinerary> itineraries = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int departure = minute(2025, 1, 1, 0, 0) + i * 97;
+            itineraries.add(Itinerary.oneStop(
+                    AirportCode.route("DUB", "STN"), departure, departure + 60,
+                    AirportCode.route("STN", "WRO"), departure + 180, departure + 300));
+        }
+
+        // WHEN
+        String json = write(itineraries);
+
+        // THEN
+        assertEquals(objectMapper.writeValueAsString(Itinerary.toFlightResponses(itineraries)), json);
+    }
+
+    @Test
+    void testWrite_EmptyListIsAnEmptyArray() throws Exception {
+        // WHEN / THEN
+        assertEquals("[]", write(List.of()));
+    }
+}
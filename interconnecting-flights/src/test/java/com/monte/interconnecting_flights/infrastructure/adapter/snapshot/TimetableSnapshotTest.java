@@ -0,0 +1,167 @@
+package com.monte.interconnecting_flights.infrastructure.adapter.snapshot;
+
+import com.monte.interconnecting_flights.domain.model.MonthSchedule;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.infrastructure.adapter.cache.CachedRoutesProvider;
+import com.monte.interconnecting_flights.infrastructure.adapter.cache.CachedSchedulesProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for TimetableSnapshot.
+ */
+class TimetableSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Map<String, String> route(String from, String to, String connectingAirport) {
+        Map<String, String> route = new HashMap<>();
+        route.put("airportFrom", from);
+        route.put("airportTo", to);
+        route.put("connectingAirport", connectingAirport);
+        route.put("operator", "RYANAIR");
+        route.put("group", "CITY");
+        return route;
+    }
+
+    private static MonthSchedule schedule(int... dayAndMinutes) {
+        MonthSchedule.Builder builder = MonthSchedule.builder(2025, 3);
+        for (int i = 0; i < dayAndMinutes.length; i += 3) {
+            builder.add(dayAndMinutes[i], dayAndMinutes[i + 1], dayAndMinutes[i + 2]);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void testWriteAndOpen_RoundTripsRoutesAndSchedules() throws IOException {
+        // GIVEN
+        Path file = tempDir.resolve("timetable.snapshot");
+        List<Map<String, String>> routes = List.of(route("DUB", "WRO", null), route("DUB", "BCN", "STN"));
+        Map<ScheduleKey, StoredSchedule> schedules = new LinkedHashMap<>();
+        MonthSchedule dubWro = schedule(10, 570, 775, 10, 420, 480, 31, 1380, 90);
+        schedules.put(new ScheduleKey("DUB", "WRO", 2025, 3), new StoredSchedule(dubWro, 1_000L));
+        schedules.put(new ScheduleKey("WRO", "DUB", 2025, 3), new StoredSchedule(MonthSchedule.empty(2025, 3), 2_000L));
+
+        // WHEN
+        TimetableSnapshot.write(file, 5_000L, routes, 4_000L, schedules);
+        TimetableSnapshot snapshot = TimetableSnapshot.open(file);
+
+        // THEN
+        assertEquals(5_000L, snapshot.getWrittenAt());
+        assertEquals(4_000L, snapshot.getRoutesFetchedAt());
+        assertEquals(2, snapshot.getRoutes().size());
+        assertEquals("WRO", snapshot.getRoutes().get(0).get("airportTo"));
+        assertNull(snapshot.getRoutes().get(0).get("connectingAirport"));
+        assertEquals("STN", snapshot.getRoutes().get(1).get("connectingAirport"));
+        // Only the fields the search needs are kept
+        assertNull(snapshot.getRoutes().get(0).get("group"));
+
+        StoredSchedule stored = snapshot.schedule(new ScheduleKey("DUB", "WRO", 2025, 3));
+        assertEquals(1_000L, stored.getFetchedAt());
+        assertEquals(dubWro.size(), stored.getSchedule().size());
+        for (int i = 0; i < dubWro.size(); i++) {
+            assertEquals(dubWro.departureAt(i), stored.getSchedule().departureAt(i));
+            assertEquals(dubWro.arrivalAt(i), stored.getSchedule().arrivalAt(i));
+        }
+        assertTrue(snapshot.schedule(new ScheduleKey("WRO", "DUB", 2025, 3)).getSchedule().isEmpty());
+        assertNull(snapshot.schedule(new ScheduleKey("DUB", "WRO", 2025, 4)));
+    }
+
+    @Test
+    void testOpen_RejectsCorruptFiles() throws IOException {
+        Path file = tempDir.resolve("timetable.snapshot");
+        Map<ScheduleKey, StoredSchedule> schedules = Map.of(
+                new ScheduleKey("DUB", "WRO", 2025, 3), new StoredSchedule(schedule(10, 570, 775), 1_000L));
+        TimetableSnapshot.write(file, 5_000L, List.of(), 0, schedules);
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> TimetableSnapshot.open(file));
+
+        Files.write(file, "not a snapshot".getBytes());
+        assertThrows(IOException.class, () -> TimetableSnapshot.open(file));
+    }
+
+    @Test
+    void testStore_LoadsExistingFileAndReplacesItOnWrite() throws IOException {
+        Path file = tempDir.resolve("data").resolve("timetable.snapshot");
+        TimetableSnapshotStore first = new TimetableSnapshotStore(file.toString());
+        assertNull(first.current());
+
+        first.write(5_000L, List.of(route("DUB", "WRO", null)), 4_000L, Map.of());
+        first.write(6_000L, List.of(route("DUB", "STN", null)), 4_500L, Map.of());
+        assertEquals(6_000L, first.current().getWrittenAt());
+
+        // A restarted node starts from the last file written
+        TimetableSnapshotStore restarted = new TimetableSnapshotStore(file.toString());
+        assertEquals("STN", restarted.current().getRoutes().get(0).get("airportTo"));
+
+        assertFalse(new TimetableSnapshotStore("").isEnabled());
+    }
+
+    @Test
+    void testStore_WritesNewGenerationsInsteadOfReplacingTheMappedFile() throws IOException {
+        // GIVEN: a snapshot left at the bare path by an older version, mapped at startup
+        Path file = tempDir.resolve("timetable.snapshot");
+        TimetableSnapshot.write(file, 5_000L, List.of(route("DUB", "WRO", null)), 4_000L, Map.of());
+        TimetableSnapshotStore store = new TimetableSnapshotStore(file.toString());
+        TimetableSnapshot mapped = store.current();
+
+        // WHEN
+        store.write(6_000L, List.of(route("DUB", "STN", null)), 4_500L, Map.of());
+        store.write(7_000L, List.of(route("DUB", "BCN", null)), 5_000L, Map.of());
+
+        // THEN: the old mapping is still readable and only the newest generation is left
+        assertEquals("WRO", mapped.getRoutes().get(0).get("airportTo"));
+        assertEquals(7_000L, store.current().getWrittenAt());
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(Set.of("timetable.snapshot.2"),
+                    files.map(f -> f.getFileName().toString()).collect(Collectors.toSet()));
+        }
+        assertEquals(7_000L, new TimetableSnapshotStore(file.toString()).current().getWrittenAt());
+    }
+
+    @Test
+    void testWriter_CarriesOverOnlyMonthsWithinTheCrawlerHorizon() throws IOException {
+        // GIVEN: a previous snapshot with a past month, two months in the horizon and one beyond it
+        TimetableSnapshotStore store = new TimetableSnapshotStore(tempDir.resolve("timetable.snapshot").toString());
+        Map<ScheduleKey, StoredSchedule> months = new LinkedHashMap<>();
+        for (int month : List.of(2, 3, 5, 6)) {
+            months.put(new ScheduleKey("DUB", "WRO", 2025, month),
+                    new StoredSchedule(MonthSchedule.empty(2025, month), 1_000L));
+        }
+        store.write(5_000L, List.of(route("DUB", "WRO", null)), 4_000L, months);
+        Clock clock = Clock.fixed(Instant.parse("2025-03-15T10:00:00Z"), ZoneOffset.UTC);
+        TimetableSnapshotWriter writer = new TimetableSnapshotWriter(store, Mockito.mock(CachedRoutesProvider.class),
+                Mockito.mock(CachedSchedulesProvider.class), Duration.ofHours(1), 3, clock);
+
+        // WHEN
+        assertTrue(writer.write());
+
+        // THEN: March to May are kept, February and June are dropped
+        assertEquals(Set.of(new ScheduleKey("DUB", "WRO", 2025, 3), new ScheduleKey("DUB", "WRO", 2025, 5)),
+                store.current().scheduleKeys());
+        assertEquals(1, store.current().getRoutes().size());
+        writer.shutdown();
+    }
+}
@@ -7,6 +7,10 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.client.RestTemplate;
@@ -78,4 +82,42 @@ public class FlightServiceIntegrationTest {
         assertNotNull(response);
         assertEquals(1, response.size());
     }
+
+    @Test
+    void testFlightListedTwiceUpstreamIsReturnedOnce() {
+        // 1) Stub Routes and an April schedule listing the same flight twice
+        wireMockServer.stubFor(get(urlEqualTo("/views/locate/3/routes"))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody("[{\"airportFrom\":\"DUB\",\"airportTo\":\"WRO\"," +
+                          "\"connectingAirport\":null,\"operator\":\"RYANAIR\"}]"))
+        );
+        wireMockServer.stubFor(get(urlPathEqualTo("/timtbl/3/schedules/DUB/WRO/years/2025/months/4"))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"days\":[" +
+                    "{\"day\":10,\"flights\":[{\"departureTime\":\"09:30\",\"arrivalTime\":\"12:55\"}," +
+                    "{\"departureTime\":\"09:30\",\"arrivalTime\":\"12:55\"}]}" +
+                "]}")
+            )
+        );
+
+        // 2) Calling the search and its stream
+        RestTemplate restTemplate = new RestTemplate();
+        String query = "?departure=DUB&arrival=WRO&departureDateTime=2025-04-10T07:00&arrivalDateTime=2025-04-10T21:00";
+        List<?> response = restTemplate.getForObject(
+                "http://localhost:" + port + "/interconnections" + query, List.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        String stream = restTemplate.exchange("http://localhost:" + port + "/interconnections/stream" + query,
+                HttpMethod.GET, new HttpEntity<>(headers), String.class).getBody();
+
+        // 3) Verify: one flight each
+        assertNotNull(response);
+        assertEquals(1, response.size());
+        assertNotNull(stream);
+        assertEquals(1, stream.lines().filter(line -> !line.isBlank()).count());
+    }
 }
@@ -0,0 +1,165 @@
+package com.monte.interconnecting_flights.integration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.monte.interconnecting_flights.application.service.CrawlProgress;
+import com.monte.interconnecting_flights.application.service.RouteDemand;
+import com.monte.interconnecting_flights.application.service.ScheduleCrawler;
+import com.monte.interconnecting_flights.domain.model.ScheduleKey;
+import com.monte.interconnecting_flights.infrastructure.adapter.cache.CachedSchedulesProvider;
+import com.monte.interconnecting_flights.infrastructure.adapter.client.ConcurrencyLimitSettings;
+import com.monte.interconnecting_flights.infrastructure.adapter.client.OutboundHttpClient;
+import com.monte.interconnecting_flights.infrastructure.adapter.client.RoutesClient;
+import com.monte.interconnecting_flights.infrastructure.adapter.client.SchedulesClient;
+import com.monte.interconnecting_flights.infrastructure.adapter.snapshot.TimetableSnapshotStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the schedule crawler against a WireMock stand-in for the Ryanair APIs.
+ */
+public class ScheduleCrawlerIntegrationTest {
+
+    private static final String SCHEDULES_PATH = "/timtbl/3/schedules/.*";
+
+    private WireMockServer wireMockServer;
+    private RoutesClient routesClient;
+    private CachedSchedulesProvider schedulesCache;
+    private RouteDemand routeDemand;
+    private ScheduleCrawler crawler;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+        String baseUrl = "http://localhost:" + wireMockServer.port();
+
+        // Rutas: DUB -> WRO, DUB -> STN y BVA -> WRO
+        wireMockServer.stubFor(get(urlEqualTo("/views/locate/3/routes"))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody("[" +
+                    "{\"airportFrom\":\"DUB\",\"airportTo\":\"WRO\",\"connectingAirport\":null,\"operator\":\"RYANAIR\"}," +
+                    "{\"airportFrom\":\"DUB\",\"airportTo\":\"STN\",\"connectingAirport\":null,\"operator\":\"RYANAIR\"}," +
+                    "{\"airportFrom\":\"BVA\",\"airportTo\":\"WRO\",\"connectingAirport\":null,\"operator\":\"RYANAIR\"}" +
+                "]")));
+        wireMockServer.stubFor(get(urlPathMatching(SCHEDULES_PATH))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"days\":[{\"day\":10,\"flights\":[{\"departureTime\":\"09:30\",\"arrivalTime\":\"12:55\"}]}]}")));
+
+        OutboundHttpClient httpClient = new OutboundHttpClient(
+                Duration.ofSeconds(2), Duration.ofSeconds(5), 8, false,
+                5, Duration.ofSeconds(30), 0, Duration.ZERO, ConcurrencyLimitSettings.fixed(),
+                new SimpleMeterRegistry());
+        routesClient = new RoutesClient(baseUrl + "/views/locate/3/routes", httpClient);
+        SchedulesClient schedulesClient = new SchedulesClient(baseUrl + "/timtbl/3/schedules", httpClient);
+        schedulesCache = new CachedSchedulesProvider(schedulesClient, Duration.ofHours(1), 1000, 100_000,
+                TimetableSnapshotStore.disabled());
+        routeDemand = new RouteDemand();
+
+        // Two months per route, as many as the cache holds, 20 requests per second, one at a time
+        crawler = new ScheduleCrawler(routesClient, schedulesCache, routeDemand, 2, 1000, 20, 1,
+                Clock.fixed(Instant.parse("2025-03-10T07:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        crawler.shutdown();
+        wireMockServer.stop();
+    }
+
+    private CrawlProgress awaitFinished() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (crawler.progress().getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        CrawlProgress progress = crawler.progress();
+        assertNotNull(progress.getFinishedAt(), "crawl did not finish");
+        return progress;
+    }
+
+    @Test
+    void testCrawl_WarmsEveryRouteMonthMostSearchedFirstUnderRateLimit() throws Exception {
+        // GIVEN: users have been searching BVA -> WRO
+        routeDemand.record(List.of(new ScheduleKey("BVA", "WRO", 2025, 3)));
+
+        // WHEN
+        long started = System.nanoTime();
+        assertTrue(crawler.start());
+        CrawlProgress progress = awaitFinished();
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        // THEN: 3 routes x 2 months, all cached
+        assertEquals(6, progress.getScheduleCount());
+        assertEquals(6, progress.getFetchedCount());
+        assertEquals(0, progress.getFailedCount());
+        assertEquals(1, progress.getCompletedPasses());
+        assertEquals(6, schedulesCache.stats().getSize());
+        wireMockServer.verify(6, getRequestedFor(urlPathMatching(SCHEDULES_PATH)));
+        assertEquals("/timtbl/3/schedules/BVA/WRO/years/2025/months/3",
+                wireMockServer.findAll(getRequestedFor(urlPathMatching(SCHEDULES_PATH))).get(0).getUrl());
+        // 6 requests at 20 per second need at least 5 intervals of 50 ms
+        assertTrue(elapsedMillis >= 250, "rate limit not applied, took " + elapsedMillis + " ms");
+
+        // A search now finds the months in the cache
+        assertEquals(1, schedulesCache.getSchedule("DUB", "STN", 2025, 4).size());
+        wireMockServer.verify(6, getRequestedFor(urlPathMatching(SCHEDULES_PATH)));
+
+        // A second pass only hits the cache
+        assertTrue(crawler.start());
+        assertEquals(6, awaitFinished().getFetchedCount());
+        wireMockServer.verify(6, getRequestedFor(urlPathMatching(SCHEDULES_PATH)));
+    }
+
+    @Test
+    void testCrawl_PauseAndResume() throws Exception {
+        crawler.pause();
+        assertTrue(crawler.start());
+        assertFalse(crawler.start(), "only one pass at a time");
+
+        Thread.sleep(300);
+        CrawlProgress paused = crawler.progress();
+        assertEquals(ScheduleCrawler.State.PAUSED, paused.getState());
+        assertEquals(0, paused.getFetchedCount());
+        wireMockServer.verify(0, getRequestedFor(urlPathMatching(SCHEDULES_PATH)));
+
+        crawler.resume();
+        CrawlProgress done = awaitFinished();
+        assertEquals(ScheduleCrawler.State.IDLE, done.getState());
+        assertEquals(6, done.getFetchedCount());
+    }
+
+    @Test
+    void testCrawl_StopsAtTheCacheCapacityKeepingTheMostSearchedRoutes() throws Exception {
+        // GIVEN: room for three months only, users searching BVA -> WRO
+        crawler.shutdown();
+        crawler = new ScheduleCrawler(routesClient, schedulesCache, routeDemand, 2, 3, 20, 1,
+                Clock.fixed(Instant.parse("2025-03-10T07:00:00Z"), ZoneOffset.UTC));
+        routeDemand.record(List.of(new ScheduleKey("BVA", "WRO", 2025, 3)));
+
+        // WHEN
+        assertTrue(crawler.start());
+        CrawlProgress progress = awaitFinished();
+
+        // THEN: both BVA -> WRO months are crawled, the least searched route months are not
+        assertEquals(3, progress.getScheduleCount());
+        assertEquals(3, progress.getFetchedCount());
+        wireMockServer.verify(getRequestedFor(urlPathEqualTo("/timtbl/3/schedules/BVA/WRO/years/2025/months/3")));
+        wireMockServer.verify(getRequestedFor(urlPathEqualTo("/timtbl/3/schedules/BVA/WRO/years/2025/months/4")));
+        wireMockServer.verify(3, getRequestedFor(urlPathMatching(SCHEDULES_PATH)));
+    }
+}